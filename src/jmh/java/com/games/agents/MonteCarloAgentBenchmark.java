@@ -0,0 +1,145 @@
+package com.games.agents;
+
+import com.games.general.Action;
+import com.games.general.GameStats;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+import com.games.tictactoe.TicTacToeNormalGame;
+import com.games.tictactoe.TicTacToeNormalState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmarks of the methods a game calls on a {@link MonteCarloAgent},
+ * for each way of storing its action-value function and policy.
+ * <p>
+ * The agent is first trained on games of Tic-Tac-Toe against a random agent,
+ * and the benchmarks then use states sampled from random games, all with a
+ * fixed seed. Returns and episodes are only meaningful after actions have
+ * been chosen, so {@link #receiveReturn} and {@link #gameOver} each get an
+ * agent that is set up before every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonteCarloAgentBenchmark {
+
+  static final int NUM_SAMPLES = 1024;
+
+  private static final int TRAINING_GAMES = 10 * 1000;
+
+  private static final double EPSILON = 0.1;
+
+  private static final long SEED = 1L;
+
+  /** Trained agent and states to choose actions from. */
+  @org.openjdk.jmh.annotations.State(Scope.Thread)
+  public static class TrainedAgent {
+
+    @Param({"HASH_MAPS", "TABULAR", "TABULAR_GREEDY"})
+    public String storage;
+
+    MonteCarloAgent agent;
+
+    final List<State> states = new ArrayList<>();
+
+    /** States from which the agent moves in one game, in order. */
+    final List<State> episode = new ArrayList<>();
+
+    int next = 0;
+
+    @Setup(Level.Trial)
+    public void train() {
+      RandomSource random = new SplittableRandomSource(SEED);
+      agent = new MonteCarloAgent(
+          EPSILON, false, Storage.valueOf(storage), random.split());
+      RandomAgent randAgent = new RandomAgent(random.split());
+
+      new TicTacToeNormalGame(agent, randAgent, random)
+          .playMany(TRAINING_GAMES, new GameStats());
+
+      while (states.size() < NUM_SAMPLES) {
+        State s = new TicTacToeNormalState();
+
+        while (!s.isTerminalState() && states.size() < NUM_SAMPLES) {
+          states.add(s);
+          s = s.applyAction(randAgent.chooseAction(s));
+        }
+      }
+
+      for (State s = new TicTacToeNormalState() ;
+           !s.isTerminalState() ;
+           s = s.applyAction(randAgent.chooseAction(s))) {
+        episode.add(s);
+      }
+    }
+
+    State nextState() {
+      next = (next + 1) % NUM_SAMPLES;
+      return states.get(next);
+    }
+  }
+
+  /** Agent that has just chosen an action and awaits its return. */
+  @org.openjdk.jmh.annotations.State(Scope.Thread)
+  public static class AgentAwaitingReturn {
+
+    @Setup(Level.Invocation)
+    public void chooseAction(TrainedAgent trained) {
+      trained.agent.initializeBeforeNewGame();
+      trained.agent.chooseAction(trained.nextState());
+    }
+  }
+
+  /** Agent that has been given the returns of a whole episode. */
+  @org.openjdk.jmh.annotations.State(Scope.Thread)
+  public static class AgentAtEndOfEpisode {
+
+    @Setup(Level.Invocation)
+    public void playEpisode(TrainedAgent trained) {
+      trained.agent.initializeBeforeNewGame();
+
+      for (State s : trained.episode) {
+        trained.agent.chooseAction(s);
+        trained.agent.receiveReturn(0.0);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_SAMPLES)
+  public void chooseAction(TrainedAgent trained, Blackhole bh) {
+    for (State s : trained.states) {
+      bh.consume(trained.agent.chooseAction(s));
+    }
+  }
+
+  @Benchmark
+  public void receiveReturn(TrainedAgent trained, AgentAwaitingReturn ready) {
+    trained.agent.receiveReturn(0.0);
+  }
+
+  @Benchmark
+  public void gameOver(TrainedAgent trained, AgentAtEndOfEpisode ready) {
+    trained.agent.gameOver();
+  }
+}
@@ -0,0 +1,123 @@
+package com.games.chungtoi;
+
+import com.games.agents.RandomAgent;
+import com.games.chungtoi.ChungToiHelper.Player;
+import com.games.chungtoi.ChungToiHelper.TokenType;
+import com.games.general.Action;
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmarks of the hot paths of {@link ChungToiState}.
+ * <p>
+ * Every benchmark goes through the same non-terminal states, which are
+ * sampled from random games played with a fixed seed. A state computes its
+ * actions and checks for a winner when it is created, so
+ * {@link #computeActions} creates each state from its grid.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(ChungToiStateBenchmark.NUM_SAMPLES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChungToiStateBenchmark {
+
+  static final int NUM_SAMPLES = 1024;
+
+  private static final long SEED = 1L;
+
+  private final ChungToiState[] states = new ChungToiState[NUM_SAMPLES];
+  private final Action[] actions = new Action[NUM_SAMPLES];
+  private final List<List<TokenType>> grids = new ArrayList<>();
+  private final Player[] nextTurns = new Player[NUM_SAMPLES];
+
+  @Setup
+  public void sampleStates() {
+    RandomAgent agent = new RandomAgent(new SplittableRandomSource(SEED));
+    int n = 0;
+
+    while (n < NUM_SAMPLES) {
+      List<TokenType> grid =
+          new ArrayList<>(Collections.nCopies(ChungToiHelper.GRID_SIZE,
+                                              TokenType.NONE));
+      Player next = Player.X;
+      State s = new ChungToiState();
+
+      while (!s.isTerminalState() && n < NUM_SAMPLES) {
+        states[n] = (ChungToiState) s;
+        actions[n] = agent.chooseAction(s);
+        grids.add(new ArrayList<>(grid));
+        nextTurns[n] = next;
+
+        applyToGrid(grid, actions[n]);
+        next = (next == Player.X) ? Player.O : Player.X;
+        s = s.applyAction(actions[n]);
+        n++;
+      }
+    }
+  }
+
+  @Benchmark
+  public void applyAction(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].applyAction(actions[i]));
+    }
+  }
+
+  @Benchmark
+  public void computeActions(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(new ChungToiState(grids.get(i), nextTurns[i]).getActions());
+    }
+  }
+
+  @Benchmark
+  public void isTerminalState(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].isTerminalState());
+    }
+  }
+
+  @Benchmark
+  public void hashCodeAndEquals(Blackhole bh) {
+    for (int i = 1 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].hashCode());
+      bh.consume(states[i].equals(states[i - 1]));
+    }
+  }
+
+  /** Applies the given action to the given grid. */
+  private static void applyToGrid(List<TokenType> grid, Action action) {
+    if (action instanceof ChungToiPutAction) {
+      ChungToiPutAction put = (ChungToiPutAction) action;
+      grid.set(put.index, put.tokenType);
+
+    } else if (action instanceof ChungToiMoveAction) {
+      ChungToiMoveAction move = (ChungToiMoveAction) action;
+      int code = ChungToiHelper.code(grid.get(move.startIndex));
+      int endCode = move.rotateToken ? ChungToiHelper.rotatedCode(code) : code;
+      grid.set(move.startIndex, TokenType.NONE);
+      grid.set(move.endIndex, ChungToiHelper.tokenType(endCode));
+    }
+  }
+}
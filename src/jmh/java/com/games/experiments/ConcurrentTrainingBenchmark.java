@@ -0,0 +1,122 @@
+package com.games.experiments;
+
+import com.games.agents.ConcurrentActionValues;
+import com.games.agents.PipelinedActionValues;
+import com.games.agents.RandomAgent;
+import com.games.agents.ShardedActionValues;
+import com.games.agents.SharedActionValues;
+import com.games.agents.SharedMonteCarloAgent;
+import com.games.experiments.ExperimentHelper.GameType;
+import com.games.general.Game;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Number of whole games per second played by Monte Carlo agents that learn
+ * into one shared action-value function, each on its own thread against a
+ * random agent, with a lock-free shared store, a sharded one or a pipelined
+ * one. Run with {@code -t} to set the number of threads, e.g. {@code -t 1},
+ * {@code -t 8} and {@code -t 32} to measure the scaling.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentTrainingBenchmark {
+
+  private static final double EPSILON = 0.1;
+
+  private static final long SEED = 1L;
+
+  private static final int QUEUE_CAPACITY = 1024;
+
+  private static final int BATCH_SIZE = 64;
+
+  /** Action-value function shared by the threads. */
+  @State(Scope.Benchmark)
+  public static class Shared {
+
+    @Param({"CHUNG_TOI", "NIM", "TIC_TAC_TOE_NORMAL"})
+    public String gameType;
+
+    @Param({"SHARED", "SHARDED", "PIPELINED"})
+    public String store;
+
+    /** Number of shards of the sharded store. */
+    @Param({"4"})
+    public int numShards;
+
+    /** Episodes between two snapshots of the policy of the pipelined store. */
+    @Param({"64"})
+    public int publishInterval;
+
+    ConcurrentActionValues values;
+
+    @Setup
+    public void createValues() {
+      switch (store) {
+        case "SHARED":
+          values = new SharedActionValues();
+          break;
+        case "SHARDED":
+          values = new ShardedActionValues(numShards, QUEUE_CAPACITY);
+          break;
+        case "PIPELINED":
+          values = new PipelinedActionValues(
+              QUEUE_CAPACITY, BATCH_SIZE, publishInterval);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown store: " + store);
+      }
+    }
+
+    @TearDown
+    public void closeValues() throws Exception {
+      if (values instanceof AutoCloseable) {
+        ((AutoCloseable) values).close();
+      }
+    }
+  }
+
+  /** Game played by one thread. */
+  @State(Scope.Thread)
+  public static class Worker {
+
+    Game game;
+
+    @Setup
+    public void createGame(Shared shared, ThreadParams threads) {
+      GameType type = GameType.valueOf(shared.gameType);
+      RandomSource random =
+          new SplittableRandomSource(SEED + threads.getThreadIndex());
+      SharedMonteCarloAgent mcAgent =
+          new SharedMonteCarloAgent(EPSILON, shared.values, random.split());
+      RandomAgent randAgent = new RandomAgent(random.split());
+      game = ExperimentHelper.newGame(type, mcAgent, randAgent, random);
+    }
+  }
+
+  @Benchmark
+  public int play(Worker worker) {
+    int winner = worker.game.play();
+    worker.game.reset();
+    return winner;
+  }
+}
@@ -0,0 +1,85 @@
+package com.games.experiments;
+
+import com.games.agents.MonteCarloAgent;
+import com.games.agents.MonteCarloESAgent;
+import com.games.agents.RandomAgent;
+import com.games.agents.Storage;
+import com.games.experiments.ExperimentHelper.GameType;
+import com.games.general.Agent;
+import com.games.general.Game;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Number of whole games per second for each type of game in the experiments,
+ * played by a random agent against either another random agent or a learning
+ * Monte Carlo agent (which uses exploring starts for the {@code NIM_ES} types).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamePlayBenchmark {
+
+  private static final double EPSILON = 0.1;
+
+  private static final long SEED = 1L;
+
+  @Param({"CHUNG_TOI",
+          "CHUNG_TOI_SYMMETRIC_EQUALITY",
+          "NIM",
+          "NIM_ES",
+          "NIM_SYMMETRIC_EQUALITY",
+          "NIM_ES_SYMMETRIC_EQUALITY",
+          "TIC_TAC_TOE_NORMAL",
+          "TIC_TAC_TOE_LIMITED_ACTIONS",
+          "TIC_TAC_TOE_SYMMETRIC_EQUALITY"})
+  public String gameType;
+
+  @Param({"RANDOM", "MONTE_CARLO"})
+  public String agent;
+
+  private Game game;
+
+  @Setup
+  public void createAgents() {
+    GameType type = GameType.valueOf(gameType);
+    RandomSource random = new SplittableRandomSource(SEED);
+    Agent agent1;
+    Agent agent2 = new RandomAgent(random.split());
+
+    if (agent.equals("RANDOM")) {
+      agent1 = new RandomAgent(random.split());
+    } else if (type.hasExploringStarts()) {
+      agent1 = new MonteCarloESAgent(false, Storage.TABULAR, random.split());
+    } else {
+      agent1 = new MonteCarloAgent(
+          EPSILON, false, Storage.TABULAR_GREEDY, random.split());
+    }
+
+    game = ExperimentHelper.newGame(type, agent1, agent2, random);
+  }
+
+  @Benchmark
+  public int play() {
+    int winner = game.play();
+    game.reset();
+    return winner;
+  }
+}
@@ -0,0 +1,96 @@
+package com.games.experiments;
+
+import com.games.agents.MonteCarloAgent;
+import com.games.agents.MonteCarloESAgent;
+import com.games.agents.RandomAgent;
+import com.games.agents.Storage;
+import com.games.experiments.ExperimentHelper.GameType;
+import com.games.general.Agent;
+import com.games.general.GameStats;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+import com.games.general.VectorizedGame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Number of whole games per second for each type of game in the experiments,
+ * played as in {@link GamePlayBenchmark} but by a {@link VectorizedGame} that
+ * advances the given number of games in lockstep.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorizedGamePlayBenchmark {
+
+  private static final double EPSILON = 0.1;
+
+  private static final long SEED = 1L;
+
+  /** Number of games played by each invocation of the benchmark. */
+  private static final int NUM_GAMES = 1024;
+
+  @Param({"CHUNG_TOI",
+          "CHUNG_TOI_SYMMETRIC_EQUALITY",
+          "NIM",
+          "NIM_ES",
+          "NIM_SYMMETRIC_EQUALITY",
+          "NIM_ES_SYMMETRIC_EQUALITY",
+          "TIC_TAC_TOE_NORMAL",
+          "TIC_TAC_TOE_LIMITED_ACTIONS",
+          "TIC_TAC_TOE_SYMMETRIC_EQUALITY"})
+  public String gameType;
+
+  @Param({"RANDOM", "MONTE_CARLO"})
+  public String agent;
+
+  @Param({"1", "16", "256"})
+  public int numSlots;
+
+  private VectorizedGame<?> game;
+
+  private final GameStats stats = new GameStats();
+
+  @Setup
+  public void createAgents() {
+    GameType type = GameType.valueOf(gameType);
+    RandomSource random = new SplittableRandomSource(SEED);
+    Agent agent1;
+    Agent agent2 = new RandomAgent(random.split());
+
+    if (agent.equals("RANDOM")) {
+      agent1 = new RandomAgent(random.split());
+    } else if (type.hasExploringStarts()) {
+      agent1 = new MonteCarloESAgent(false, Storage.TABULAR, random.split());
+    } else {
+      agent1 = new MonteCarloAgent(
+          EPSILON, false, Storage.TABULAR_GREEDY, random.split());
+    }
+
+    game = ExperimentHelper.newVectorizedGame(
+        type, agent1, agent2, numSlots, random);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_GAMES)
+  public int playMany() {
+    game.playMany(NUM_GAMES, stats);
+    return stats.games();
+  }
+}
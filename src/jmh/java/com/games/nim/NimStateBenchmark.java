@@ -0,0 +1,118 @@
+package com.games.nim;
+
+import com.games.agents.RandomAgent;
+import com.games.general.Action;
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+import com.games.nim.NimHelper.Player;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmarks of the hot paths of {@link NimState}.
+ * <p>
+ * Every benchmark goes through the same non-terminal states, which are
+ * sampled from random games played with a fixed seed. A state computes its
+ * actions and checks for a winner when it is created, so
+ * {@link #computeActions} creates each state from its pile sizes.
+ * <p>
+ * The games are played with the given numbers of piles and tokens, where the
+ * default 3 piles of 7 tokens are packed into a long and 12 piles of 150
+ * tokens are not.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(NimStateBenchmark.NUM_SAMPLES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NimStateBenchmark {
+
+  static final int NUM_SAMPLES = 1024;
+
+  private static final long SEED = 1L;
+
+  @Param({"3", "12"})
+  public int numPiles;
+
+  @Param({"7", "150"})
+  public int maxTokensPerPile;
+
+  private NimConfig config;
+
+  private final NimState[] states = new NimState[NUM_SAMPLES];
+  private final Action[] actions = new Action[NUM_SAMPLES];
+  private final int[][] piles = new int[NUM_SAMPLES][];
+  private final Player[] nextTurns = new Player[NUM_SAMPLES];
+
+  @Setup
+  public void sampleStates() {
+    RandomAgent agent = new RandomAgent(new SplittableRandomSource(SEED));
+    config = new NimConfig(numPiles, maxTokensPerPile);
+    int n = 0;
+
+    while (n < NUM_SAMPLES) {
+      int[] p = new int[numPiles];
+      Arrays.fill(p, maxTokensPerPile);
+      Player next = Player.X;
+      State s = new NimState(config);
+
+      while (!s.isTerminalState() && n < NUM_SAMPLES) {
+        states[n] = (NimState) s;
+        actions[n] = agent.chooseAction(s);
+        piles[n] = Arrays.copyOf(p, p.length);
+        nextTurns[n] = next;
+
+        NimAction action = (NimAction) actions[n];
+        p[action.pile] -= action.numTokens;
+        next = (next == Player.X) ? Player.O : Player.X;
+        s = s.applyAction(action);
+        n++;
+      }
+    }
+  }
+
+  @Benchmark
+  public void applyAction(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].applyAction(actions[i]));
+    }
+  }
+
+  @Benchmark
+  public void computeActions(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(new NimState(config, nextTurns[i], piles[i]).getActions());
+    }
+  }
+
+  @Benchmark
+  public void isTerminalState(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].isTerminalState());
+    }
+  }
+
+  @Benchmark
+  public void hashCodeAndEquals(Blackhole bh) {
+    for (int i = 1 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].hashCode());
+      bh.consume(states[i].equals(states[i - 1]));
+    }
+  }
+}
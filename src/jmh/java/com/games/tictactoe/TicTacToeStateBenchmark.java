@@ -0,0 +1,125 @@
+package com.games.tictactoe;
+
+import com.games.agents.RandomAgent;
+import com.games.general.Action;
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+import com.games.tictactoe.TicTacToeHelper.Player;
+import com.games.tictactoe.TicTacToeHelper.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmarks of the hot paths of each Tic-Tac-Toe state implementation.
+ * <p>
+ * Every benchmark goes through the same non-terminal states, which are
+ * sampled from random games played with a fixed seed. A state computes its
+ * actions, checks for a winner and (with symmetric equality) converts itself
+ * to canonical form when it is created, so {@link #computeActions} creates
+ * each state from its grid, and the cost of canonicalization is the
+ * difference between its SYMMETRIC_EQUALITY and NORMAL results.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(TicTacToeStateBenchmark.NUM_SAMPLES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicTacToeStateBenchmark {
+
+  static final int NUM_SAMPLES = 1024;
+
+  private static final long SEED = 1L;
+
+  @Param({"NORMAL", "LIMITED_ACTIONS", "SYMMETRIC_EQUALITY"})
+  public String implementation;
+
+  private final TicTacToeState[] states = new TicTacToeState[NUM_SAMPLES];
+  private final Action[] actions = new Action[NUM_SAMPLES];
+  private final List<List<TokenType>> grids = new ArrayList<>();
+  private final Player[] nextTurns = new Player[NUM_SAMPLES];
+
+  @Setup
+  public void sampleStates() {
+    RandomAgent agent = new RandomAgent(new SplittableRandomSource(SEED));
+    int n = 0;
+
+    while (n < NUM_SAMPLES) {
+      State s = newInitialState();
+
+      while (!s.isTerminalState() && n < NUM_SAMPLES) {
+        TicTacToeState state = (TicTacToeState) s;
+        states[n] = state;
+        actions[n] = agent.chooseAction(state);
+        grids.add(TicTacToeHelper.unpack(state.board));
+        nextTurns[n] = state.nextTurn;
+        s = state.applyAction(actions[n]);
+        n++;
+      }
+    }
+  }
+
+  @Benchmark
+  public void applyAction(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].applyAction(actions[i]));
+    }
+  }
+
+  @Benchmark
+  public void computeActions(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(newState(grids.get(i), nextTurns[i]).getActions());
+    }
+  }
+
+  @Benchmark
+  public void isTerminalState(Blackhole bh) {
+    for (int i = 0 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].isTerminalState());
+    }
+  }
+
+  @Benchmark
+  public void hashCodeAndEquals(Blackhole bh) {
+    for (int i = 1 ; i < NUM_SAMPLES ; i++) {
+      bh.consume(states[i].hashCode());
+      bh.consume(states[i].equals(states[i - 1]));
+    }
+  }
+
+  private State newInitialState() {
+    switch (implementation) {
+      case "LIMITED_ACTIONS":    return new TicTacToeStateWithLimitedActions();
+      case "SYMMETRIC_EQUALITY": return new TicTacToeStateWithSymmetricEquality();
+      default:                   return new TicTacToeNormalState();
+    }
+  }
+
+  private State newState(List<TokenType> grid, Player next) {
+    switch (implementation) {
+      case "LIMITED_ACTIONS":
+        return new TicTacToeStateWithLimitedActions(grid, next);
+      case "SYMMETRIC_EQUALITY":
+        return new TicTacToeStateWithSymmetricEquality(grid, next);
+      default:
+        return new TicTacToeNormalState(grid, next);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.games.agents;
+
+import com.games.general.State;
+
+/**
+ * Action-value function that Monte Carlo agents on several threads learn into
+ * at the same time, where an action is identified by its position in the
+ * state's {@link State#getActions()} list.
+ * <p>
+ * What a thread reads may be slightly stale: the returns added by other
+ * threads are reflected eventually, but not necessarily at once.
+ */
+public interface ConcurrentActionValues {
+
+  /**
+   * Returns the position of the action of the given state with the highest
+   * value among those with a return, or -1 if none has a return.
+   */
+  int greedyAction(State s);
+
+  /**
+   * Adds the first n given returns, where returns[i] is a return of action
+   * actions[i] of states[i]. The arrays can be reused once this returns.
+   *
+   * @param states  states of the returns
+   * @param actions positions of the actions of the returns
+   * @param returns returns to add
+   * @param n       number of returns
+   */
+  void addReturns(State[] states, int[] actions, double[] returns, int n);
+
+  /** Returns the number of states that have been given a return. */
+  int size();
+
+  /**
+   * Waits until every return added so far, by any thread, is reflected by
+   * {@link #greedyAction(State)} and {@link #size()}.
+   */
+  default void awaitReturns() {
+    // returns are reflected as soon as they are added
+  }
+}
@@ -2,6 +2,8 @@ package com.games.agents;
 
 import com.games.general.Action;
 import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
 import com.games.general.State;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -64,13 +66,51 @@ public class MonteCarloAgent implements Agent {
   /** Most recent action for which a return has not yet been given. */
   private Action lastAction;
 
+  /** Position of {@link #lastAction} in the actions of {@link #lastState}. */
+  private int lastActionIndex;
+
+  /**
+   * Action-value function, counts and policy if they are stored in a table
+   * rather than in {@link #Q}, {@link #stateActionCounts} and {@link #PI},
+   * otherwise null.
+   */
+  private final TabularActionValues table;
+
+  /**
+   * Whether the policy in {@link #table} is only given by the greedy action
+   * of each state rather than by the probability of every action.
+   */
+  private final boolean implicitPolicy;
+
+  /** Source of the agent's random choices. */
+  private final RandomSource random;
+
+  /** Rows of the states passed to {@link #chooseActions}, reused by calls. */
+  private int[] batchRows = new int[0];
+
   public MonteCarloAgent(double e) {
-    EPSILON = e;
+    this(e, false, Storage.HASH_MAPS);
   }
 
   public MonteCarloAgent(double e, boolean debug) {
+    this(e, debug, Storage.HASH_MAPS);
+  }
+
+  public MonteCarloAgent(double e, boolean debug, Storage storage) {
+    this(e, debug, storage, SplittableRandomSource.PER_THREAD);
+  }
+
+  public MonteCarloAgent(double e,
+                         boolean debug,
+                         Storage storage,
+                         RandomSource random) {
     EPSILON = e;
     this.debug = debug;
+    this.random = random;
+    implicitPolicy = storage == Storage.TABULAR_GREEDY;
+    table = storage == Storage.HASH_MAPS
+            ? null
+            : new TabularActionValues(!implicitPolicy /* with probabilities */);
   }
 
   @VisibleForTesting
@@ -79,6 +119,9 @@ public class MonteCarloAgent implements Agent {
                   Map<State, Map<Action, Double>> actionValueFunction,
                   Map<State, Map<Action, Integer>> stateActionCounts) {
     EPSILON = e;
+    table = null;
+    implicitPolicy = false;
+    random = SplittableRandomSource.PER_THREAD;
     this.episodeStates.clear();
     this.episodeStates.putAll(episodeStates);
     this.Q.clear();
@@ -93,6 +136,9 @@ public class MonteCarloAgent implements Agent {
                   boolean isActionValueFunction,
                   boolean isPolicy) {
     EPSILON = e;
+    table = null;
+    implicitPolicy = false;
+    random = SplittableRandomSource.PER_THREAD;
 
     if (isActionValueFunction) {
       this.Q.clear();
@@ -112,6 +158,10 @@ public class MonteCarloAgent implements Agent {
 
   @Override
   public void initializeBeforeNewGame() {
+    if (table != null) {
+      table.startEpisode();
+    }
+
     episodeStates.clear();
     lastAction = null;
     lastState = null;
@@ -121,11 +171,13 @@ public class MonteCarloAgent implements Agent {
   public Action chooseAction(State state) {
     List<Action> actions = state.getActions();
 
-    if (!PI.containsKey(state)) {
+    if (table != null) {
+      chooseTabularAction(state);
+
+    } else if (!PI.containsKey(state)) {
       // First time this state has been reached in any episode, so the policy
       // is arbitrary (i.e. all actions are equally likely to be chosen)
-      int randomIndex = (int) (Math.random() * actions.size());
-      lastAction = actions.get(randomIndex);
+      lastAction = actions.get(random.nextInt(actions.size()));
 
       if (debug) {
         state.print();
@@ -179,14 +231,58 @@ public class MonteCarloAgent implements Agent {
     return lastAction;
   }
 
+  /**
+   * Chooses the actions of all the given states at once if the policy is
+   * stored in {@link #table}, by first looking up the rows of all the states
+   * and only then drawing the actions, in the same order and with the same
+   * random numbers as {@link #chooseAction(State)} one at a time. The chosen
+   * actions are not recorded as {@link #lastAction}. With hash maps or while
+   * debugging, the actions are chosen one at a time.
+   */
+  @Override
+  public void chooseActions(State[] states, Action[] out, int n) {
+    if (table == null || debug) {
+      Agent.super.chooseActions(states, out, n);
+      return;
+    }
+
+    if (batchRows.length < n) {
+      batchRows = new int[n];
+    }
+
+    for (int i = 0 ; i < n ; i++) {
+      batchRows[i] = table.row(states[i]);
+    }
+
+    for (int i = 0 ; i < n ; i++) {
+      int index = chooseTabularActionIndex(states[i], batchRows[i]);
+      out[i] = states[i].getActions().get(index);
+    }
+  }
+
   @Override
   public Action chooseActionES(State state, Action action) {
     return chooseAction(state);
   }
 
+  @Override
+  public void takeAction(State state, Action action) {
+    if (table != null) {
+      lastActionIndex = state.getActions().indexOf(action);
+    }
+
+    lastAction = action;
+    lastState = state;
+  }
+
   /** Handles the return received for {@link #lastAction}. */
   @Override
   public void receiveReturn(double amount) {
+    if (table != null) {
+      table.recordReturn(lastState, lastActionIndex, amount);
+      return;
+    }
+
     if (episodeStates.containsKey(lastState)
             && episodeStates.get(lastState).containsKey(lastAction)) {
       // Not the first time 'lastAction' was chosen at 'lastState' so no need
@@ -214,10 +310,68 @@ public class MonteCarloAgent implements Agent {
 
   @Override
   public void gameOver() {
+    if (table != null) {
+      table.evaluateEpisode();
+
+      if (!implicitPolicy) {
+        for (int i = 0 ; i < table.episodeLength() ; i++) {
+          int row = table.episodeRow(i);
+          table.setEpsilonSoftPolicy(row, table.greedyAction(row), EPSILON);
+        }
+      }
+
+      return;
+    }
+
     policyEvaluation();
     policyImprovement();
   }
 
+  /**
+   * Returns the number of states for which the agent has a policy that is not
+   * arbitrary.
+   */
+  public int getPolicySize() {
+    return table != null ? table.policySize() : PI.size();
+  }
+
+  /**
+   * Returns the probability that the agent chooses each action (in the order
+   * of {@link State#getActions()}) from the given state under its current
+   * policy.
+   */
+  public double[] getActionProbabilities(State s) {
+    List<Action> actions = s.getActions();
+    double[] probabilities = new double[actions.size()];
+
+    if (table != null) {
+      int row = table.row(s);
+
+      if (row < 0 || table.greedyAction(row) < 0) {
+        Arrays.fill(probabilities, 1.0 / actions.size());
+
+      } else if (implicitPolicy) {
+        Arrays.fill(probabilities, EPSILON / actions.size());
+        probabilities[table.greedyAction(row)] += 1 - EPSILON;
+
+      } else {
+        for (int i = 0 ; i < probabilities.length ; i++) {
+          probabilities[i] = table.probability(row, i);
+        }
+      }
+
+    } else if (!PI.containsKey(s)) {
+      Arrays.fill(probabilities, 1.0 / actions.size());
+
+    } else {
+      for (int i = 0 ; i < probabilities.length ; i++) {
+        probabilities[i] = PI.get(s).get(actions.get(i));
+      }
+    }
+
+    return probabilities;
+  }
+
   @VisibleForTesting
   Map<State, Map<Action, Double>> getEpisodeStates() {
     return episodeStates;
@@ -233,6 +387,10 @@ public class MonteCarloAgent implements Agent {
     return Q;
   }
 
+  /**
+   * Returns the agent's policy, which is empty if it is stored in a
+   * {@link TabularActionValues} table.
+   */
   @VisibleForTesting
   public Map<State, Map<Action, Double>> getPolicy() {
     return PI;
@@ -270,8 +428,55 @@ public class MonteCarloAgent implements Agent {
     return cdf;
   }
 
+  /**
+   * Sets {@link #lastAction} and {@link #lastActionIndex} to an action chosen
+   * from the given state by the policy in {@link #table}.
+   */
+  private void chooseTabularAction(State state) {
+    lastActionIndex = chooseTabularActionIndex(state, table.row(state));
+    lastAction = state.getActions().get(lastActionIndex);
+  }
+
+  /**
+   * Returns the index of an action chosen from the given state, whose row in
+   * {@link #table} is given (-1 if it has none), by the policy in the table.
+   */
+  private int chooseTabularActionIndex(State state, int row) {
+    int index;
+
+    if (row < 0 || table.greedyAction(row) < 0) {
+      // Policy is arbitrary (i.e. all actions are equally likely to be chosen)
+      index = random.nextInt(state.getActions().size());
+
+      if (debug) {
+        state.print();
+        System.out.println("first time this state has been encountered");
+      }
+
+    } else {
+      if (!implicitPolicy) {
+        index = table.sampleAction(row, random.nextDouble());
+
+      } else if (random.nextDouble() < EPSILON) {
+        // Random actions (including the greedy one) share probability
+        // epsilon, so the greedy action has 1 - epsilon + epsilon / n
+        index = random.nextInt(state.getActions().size());
+
+      } else {
+        index = table.greedyAction(row);
+      }
+
+      if (debug) {
+        state.print();
+        System.out.println("state has been encountered before");
+      }
+    }
+
+    return index;
+  }
+
   private int chooseActionIndex(double[] cdf) {
-    int i = Arrays.binarySearch(cdf, Math.random());
+    int i = Arrays.binarySearch(cdf, random.nextDouble());
 
     if (i < 0) {
       // Arrays.binarySearch returns -i-1 if the insertion index is i (and
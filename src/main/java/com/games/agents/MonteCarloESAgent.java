@@ -2,6 +2,8 @@ package com.games.agents;
 
 import com.games.general.Action;
 import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
 import com.games.general.State;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -59,8 +61,35 @@ public class MonteCarloESAgent implements Agent {
   /** Most recent action for which a return has not yet been given. */
   private Action lastAction;
 
+  /** Position of {@link #lastAction} in the actions of {@link #lastState}. */
+  private int lastActionIndex;
+
+  /**
+   * Action-value function, counts and policy if they are stored in a table
+   * rather than in {@link #Q}, {@link #stateActionCounts} and {@link #PI},
+   * otherwise null.
+   */
+  private final TabularActionValues table;
+
+  /** Source of the agent's random choices. */
+  private final RandomSource random;
+
   public MonteCarloESAgent(boolean debug) {
+    this(debug, Storage.HASH_MAPS);
+  }
+
+  public MonteCarloESAgent(boolean debug, Storage storage) {
+    this(debug, storage, SplittableRandomSource.PER_THREAD);
+  }
+
+  public MonteCarloESAgent(boolean debug,
+                           Storage storage,
+                           RandomSource random) {
     this.debug = debug;
+    this.random = random;
+    table = storage == Storage.HASH_MAPS
+            ? null
+            : new TabularActionValues(false /* with probabilities */);
   }
 
   @Override
@@ -70,6 +99,10 @@ public class MonteCarloESAgent implements Agent {
 
   @Override
   public void initializeBeforeNewGame() {
+    if (table != null) {
+      table.startEpisode();
+    }
+
     episodeStates.clear();
     lastAction = null;
     lastState = null;
@@ -78,12 +111,14 @@ public class MonteCarloESAgent implements Agent {
   @Override
   public Action chooseAction(State state) {
     List<Action> actions = state.getActions();
+    int row = table != null ? table.row(state) : -1;
 
-    if (!PI.containsKey(state)) {
+    if (table != null ? row < 0 || table.greedyAction(row) < 0
+                      : !PI.containsKey(state)) {
       // First time this state has been reached in any episode, so the policy
       // is arbitrary (i.e. all actions are equally likely to be chosen)
-      int randomIndex = (int) (Math.random() * actions.size());
-      lastAction = actions.get(randomIndex);
+      lastActionIndex = random.nextInt(actions.size());
+      lastAction = actions.get(lastActionIndex);
 
       if (debug) {
         state.print();
@@ -97,7 +132,12 @@ public class MonteCarloESAgent implements Agent {
         state.print();
         System.out.println("state has been encountered before");
       }
-      lastAction = PI.get(state);
+      if (table != null) {
+        lastActionIndex = table.greedyAction(row);
+        lastAction = actions.get(lastActionIndex);
+      } else {
+        lastAction = PI.get(state);
+      }
     }
 
     if (debug) {
@@ -115,6 +155,10 @@ public class MonteCarloESAgent implements Agent {
   public Action chooseActionES(State state, Action action) {
     lastAction = action;
 
+    if (table != null) {
+      lastActionIndex = state.getActions().indexOf(action);
+    }
+
     if (debug) {
       state.print();
       System.out.print("--> CHOSEN ACTION: ");
@@ -130,6 +174,11 @@ public class MonteCarloESAgent implements Agent {
   /** Handles the return received for {@link #lastAction}. */
   @Override
   public void receiveReturn(double amount) {
+    if (table != null) {
+      table.recordReturn(lastState, lastActionIndex, amount);
+      return;
+    }
+
     if (episodeStates.containsKey(lastState)
             && episodeStates.get(lastState).containsKey(lastAction)) {
       // Not the first time 'lastAction' was chosen at 'lastState' so no need
@@ -157,10 +206,24 @@ public class MonteCarloESAgent implements Agent {
 
   @Override
   public void gameOver() {
+    if (table != null) {
+      // Evaluation also keeps the greedy action (i.e. the policy) up to date
+      table.evaluateEpisode();
+      return;
+    }
+
     policyEvaluation();
     policyImprovement();
   }
 
+  /**
+   * Returns the number of states for which the agent has a policy that is not
+   * arbitrary.
+   */
+  public int getPolicySize() {
+    return table != null ? table.policySize() : PI.size();
+  }
+
   @VisibleForTesting
   Map<State, Map<Action, Double>> getEpisodeStates() {
     return episodeStates;
@@ -176,6 +239,10 @@ public class MonteCarloESAgent implements Agent {
     return Q;
   }
 
+  /**
+   * Returns the agent's policy, which is empty if it is stored in a
+   * {@link TabularActionValues} table.
+   */
   @VisibleForTesting
   public Map<State, Action> getPolicy() {
     return PI;
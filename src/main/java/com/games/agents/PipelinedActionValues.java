@@ -0,0 +1,264 @@
+package com.games.agents;
+
+import com.games.general.BoundedMpscQueue;
+import com.games.general.State;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Action-value function that Monte Carlo agents on several threads learn into
+ * at the same time, where the agents only play and a learner thread of its
+ * own does all the learning.
+ * <p>
+ * The agents put a record of the returns of each episode into a ring buffer
+ * (a {@link BoundedMpscQueue}) and go on to the next game at once, waiting
+ * only if the buffer is full. The learner takes the records from the buffer
+ * in batches and adds their returns to a single-threaded
+ * {@link TabularActionValues} table. The agents choose their actions from a
+ * policy that the learner publishes as {@link PublishedGreedyActions} after
+ * every given number of episodes, so that the policy lags behind the learner
+ * by at most that many episodes. A longer lag means fewer writes to memory
+ * shared with the agents.
+ * <p>
+ * A snapshot is published row by row, so an agent that reads the policy
+ * while it is being published may see some rows of the new snapshot and some
+ * of the old one.
+ * <p>
+ * The learner runs until the store is closed, which must only be done once
+ * the agents have stopped adding returns.
+ */
+public final class PipelinedActionValues
+    implements ConcurrentActionValues, AutoCloseable {
+
+  private static final int INITIAL_ROWS = 64;
+
+  /** Number of times the learner finds the buffer empty before it parks. */
+  private static final int SPINS_BEFORE_PARKING = 100;
+
+  /** Time for which an idle learner parks before it polls again. */
+  private static final long PARK_NANOS = 50 * 1000;
+
+  /** Returns of one episode of one agent. */
+  private static final class Episode {
+    final State[] states;
+    final int[] actions;
+    final double[] returns;
+
+    /**
+     * Counted down when the learner has published every episode before this
+     * one, or null.
+     */
+    final CountDownLatch published;
+
+    Episode(State[] states,
+            int[] actions,
+            double[] returns,
+            CountDownLatch published) {
+      this.states = states;
+      this.actions = actions;
+      this.returns = returns;
+      this.published = published;
+    }
+  }
+
+  /** Ring buffer of the episodes that the learner has not taken yet. */
+  private final BoundedMpscQueue<Episode> buffer;
+
+  /** Maximum number of episodes the learner takes from the buffer at once. */
+  private final int batchSize;
+
+  /** Number of episodes learned between two published snapshots. */
+  private final int publishInterval;
+
+  /** Values of the states, only used by the learner. */
+  private final TabularActionValues table =
+      new TabularActionValues(false /* without probabilities */);
+
+  /** Policy published by the learner. */
+  private final PublishedGreedyActions published =
+      new PublishedGreedyActions();
+
+  /**
+   * Published rows whose greedy action may have changed since the last
+   * snapshot, only used by the learner.
+   */
+  private int[] changedRows = new int[INITIAL_ROWS];
+  private int numChangedRows = 0;
+
+  /** Whether each published row is in {@link #changedRows}. */
+  private boolean[] changed = new boolean[INITIAL_ROWS];
+
+  /** Number of episodes learned since the last snapshot. */
+  private int episodesSincePublished = 0;
+
+  private volatile boolean closed = false;
+
+  private final Thread learner;
+
+  /**
+   * Creates an empty store and starts its learner thread.
+   *
+   * @param bufferCapacity  minimum number of episodes that the buffer can hold
+   * @param batchSize       maximum number of episodes the learner takes from
+   *                        the buffer at once
+   * @param publishInterval number of episodes learned between two published
+   *                        snapshots of the policy
+   */
+  public PipelinedActionValues(int bufferCapacity,
+                               int batchSize,
+                               int publishInterval) {
+    if (batchSize < 1 || publishInterval < 1) {
+      throw new IllegalArgumentException(
+          "batchSize and publishInterval must be positive");
+    }
+
+    this.buffer = new BoundedMpscQueue<>(bufferCapacity);
+    this.batchSize = batchSize;
+    this.publishInterval = publishInterval;
+    this.learner = new Thread(this::learn, "action-values-learner");
+    this.learner.setDaemon(true);
+    this.learner.start();
+  }
+
+  @Override
+  public int greedyAction(State s) {
+    return published.greedyAction(s);
+  }
+
+  /**
+   * Puts a record of the given returns into the buffer, waiting for room if
+   * it is full.
+   */
+  @Override
+  public void addReturns(State[] states,
+                         int[] actions,
+                         double[] returns,
+                         int n) {
+    buffer.put(new Episode(Arrays.copyOf(states, n),
+                           Arrays.copyOf(actions, n),
+                           Arrays.copyOf(returns, n),
+                           null));
+  }
+
+  @Override
+  public int size() {
+    return published.size();
+  }
+
+  /**
+   * Waits until the learner has learned and published every episode put so
+   * far.
+   */
+  @Override
+  public void awaitReturns() {
+    CountDownLatch latch = new CountDownLatch(1);
+    buffer.put(new Episode(new State[0], new int[0], new double[0], latch));
+
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stops the learner once it has learned and published every episode put so
+   * far, and waits for it to stop.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(learner);
+
+    try {
+      learner.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /** Body of the learner thread. */
+  private void learn() {
+    int spins = 0;
+
+    while (true) {
+      int taken = 0;
+      Episode episode;
+
+      while (taken < batchSize && (episode = buffer.poll()) != null) {
+        learn(episode);
+        taken++;
+
+        if (episodesSincePublished >= publishInterval) {
+          publish();
+        }
+      }
+
+      if (taken > 0) {
+        spins = 0;
+
+      } else if (closed) {
+        publish();
+        return;
+
+      } else if (++spins > SPINS_BEFORE_PARKING) {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+    }
+  }
+
+  /** Adds the returns of the given episode to the table. */
+  private void learn(Episode episode) {
+    if (episode.published != null) {
+      publish();
+      episode.published.countDown();
+      return;
+    }
+
+    for (int i = 0 ; i < episode.states.length ; i++) {
+      int row = table.addRow(episode.states[i]);
+      table.addReturn(row, episode.actions[i], episode.returns[i]);
+
+      if (row < published.numRows() && !changed[row]) {
+        changed[row] = true;
+
+        if (numChangedRows == changedRows.length) {
+          changedRows = Arrays.copyOf(changedRows, 2 * numChangedRows);
+        }
+
+        changedRows[numChangedRows++] = row;
+      }
+    }
+
+    episodesSincePublished++;
+  }
+
+  /**
+   * Publishes the greedy actions of the rows that changed since the last
+   * snapshot and of the new rows.
+   */
+  private void publish() {
+    for (int i = 0 ; i < numChangedRows ; i++) {
+      published.publish(table, changedRows[i]);
+      changed[changedRows[i]] = false;
+    }
+
+    numChangedRows = 0;
+
+    for (int row = published.numRows() ; row < table.size() ; row++) {
+      published.publish(table, row);
+    }
+
+    if (changed.length < table.size()) {
+      changed = Arrays.copyOf(changed, Math.max(table.size(),
+                                                2 * changed.length));
+    }
+
+    episodesSincePublished = 0;
+  }
+}
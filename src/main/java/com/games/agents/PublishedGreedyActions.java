@@ -0,0 +1,80 @@
+package com.games.agents;
+
+import com.games.general.State;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Greedy actions of the rows of a {@link TabularActionValues} table that is
+ * owned by a single thread, as published by that thread for any thread to
+ * read.
+ * <p>
+ * The greedy action of a row is kept in an array that is replaced by a larger
+ * copy when it is full, and the row of a new state is added to a concurrent
+ * map only once its greedy action has been published, so a thread that finds
+ * the row of a state can always read its greedy action.
+ */
+final class PublishedGreedyActions {
+
+  private static final int INITIAL_ROWS = 64;
+
+  /** Row of each published state. */
+  private final ConcurrentHashMap<State, Integer> rows =
+      new ConcurrentHashMap<>();
+
+  /** Greedy action of each published row. */
+  private volatile AtomicIntegerArray greedyActions =
+      new AtomicIntegerArray(INITIAL_ROWS);
+
+  /** Number of rows published so far, only used by the owner. */
+  private int numRows = 0;
+
+  /**
+   * Returns the published greedy action of the given state, or -1 if its row
+   * has not been published. Can be called by any thread.
+   */
+  int greedyAction(State s) {
+    Integer row = rows.get(s);
+    return row == null ? -1 : greedyActions.get(row);
+  }
+
+  /** Returns the number of rows published so far. */
+  int size() {
+    return rows.size();
+  }
+
+  /** Returns the number of rows published so far, for the owner. */
+  int numRows() {
+    return numRows;
+  }
+
+  /**
+   * Publishes the current greedy action of the given row of the given table.
+   * Must only be called by the owner of the table, and new rows must be
+   * published in order.
+   */
+  void publish(TabularActionValues table, int row) {
+    AtomicIntegerArray published = greedyActions;
+
+    if (row >= published.length()) {
+      // Only the owner writes, so the copy cannot miss an update
+      AtomicIntegerArray larger =
+          new AtomicIntegerArray(Math.max(row + 1, 2 * published.length()));
+
+      for (int r = 0 ; r < numRows ; r++) {
+        larger.lazySet(r, published.get(r));
+      }
+
+      greedyActions = larger;
+      published = larger;
+    }
+
+    published.lazySet(row, table.greedyAction(row));
+
+    if (row == numRows) {
+      rows.put(table.state(row), row);
+      numRows++;
+    }
+  }
+}
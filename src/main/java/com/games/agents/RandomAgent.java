@@ -2,6 +2,8 @@ package com.games.agents;
 
 import com.games.general.Action;
 import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
 import com.games.general.State;
 
 import java.util.List;
@@ -9,6 +11,17 @@ import java.util.List;
 /** Game-playing agent that uses a random strategy to choose actions. */
 public final class RandomAgent implements Agent {
 
+  /** Source of the agent's random choices. */
+  private final RandomSource random;
+
+  public RandomAgent() {
+    this(SplittableRandomSource.PER_THREAD);
+  }
+
+  public RandomAgent(RandomSource random) {
+    this.random = random;
+  }
+
   @Override
   public String getName() {
     return "Random";
@@ -22,8 +35,7 @@ public final class RandomAgent implements Agent {
   @Override
   public Action chooseAction(State s) {
     List<Action> actions = s.getActions();
-    int randomIndex = (int) (Math.random() * actions.size());
-    return actions.get(randomIndex);
+    return actions.get(random.nextInt(actions.size()));
   }
 
   @Override
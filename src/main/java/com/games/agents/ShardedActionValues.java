@@ -0,0 +1,251 @@
+package com.games.agents;
+
+import com.games.general.BoundedMpscQueue;
+import com.games.general.State;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Action-value function that Monte Carlo agents on several threads learn into
+ * at the same time, partitioned by the hash of the states into shards that
+ * are each owned by a thread of their own.
+ * <p>
+ * Only the owner of a shard ever writes its values, which it keeps in a
+ * single-threaded {@link TabularActionValues} table, so no two threads ever
+ * contend for a value. The agents hand their returns to the owners through a
+ * {@link BoundedMpscQueue} per shard, one batch per shard and episode, and
+ * wait for room when a queue is full. After each return, the owner publishes
+ * the greedy action of the row as {@link PublishedGreedyActions}, which any
+ * thread can read. What the agents read therefore lags behind the returns
+ * they have added by the batches still in the queues.
+ * <p>
+ * The owners run until the store is closed, which must only be done once the
+ * agents have stopped adding returns.
+ */
+public final class ShardedActionValues
+    implements ConcurrentActionValues, AutoCloseable {
+
+  /** Number of times an owner finds its queue empty before it parks. */
+  private static final int SPINS_BEFORE_PARKING = 100;
+
+  /** Time for which an idle owner parks before it polls its queue again. */
+  private static final long PARK_NANOS = 50 * 1000;
+
+  /** Returns of one episode that belong to one shard. */
+  private static final class Batch {
+    final State[] states;
+    final int[] actions;
+    final double[] returns;
+
+    /** Counted down when the owner reaches the batch, or null. */
+    final CountDownLatch reached;
+
+    Batch(int size) {
+      states = new State[size];
+      actions = new int[size];
+      returns = new double[size];
+      reached = null;
+    }
+
+    /** Creates an empty batch that counts down the given latch. */
+    Batch(CountDownLatch reached) {
+      states = new State[0];
+      actions = new int[0];
+      returns = new double[0];
+      this.reached = reached;
+    }
+  }
+
+  /** Part of the store owned by one thread. */
+  private static final class Shard implements Runnable {
+    final BoundedMpscQueue<Batch> queue;
+
+    /** Values of the states of the shard, only used by the owner. */
+    final TabularActionValues table =
+        new TabularActionValues(false /* without probabilities */);
+
+    /** Greedy actions of the rows of {@link #table}. */
+    final PublishedGreedyActions published = new PublishedGreedyActions();
+
+    volatile boolean closed = false;
+
+    final Thread owner;
+
+    Shard(int index, int queueCapacity) {
+      queue = new BoundedMpscQueue<>(queueCapacity);
+      owner = new Thread(this, "action-values-shard-" + index);
+      owner.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      int spins = 0;
+
+      while (true) {
+        Batch batch = queue.poll();
+
+        if (batch != null) {
+          addReturns(batch);
+          spins = 0;
+
+        } else if (closed) {
+          return;
+
+        } else if (++spins > SPINS_BEFORE_PARKING) {
+          LockSupport.parkNanos(PARK_NANOS);
+        }
+      }
+    }
+
+    private void addReturns(Batch batch) {
+      for (int i = 0 ; i < batch.states.length ; i++) {
+        int row = table.addRow(batch.states[i]);
+        table.addReturn(row, batch.actions[i], batch.returns[i]);
+        published.publish(table, row);
+      }
+
+      if (batch.reached != null) {
+        batch.reached.countDown();
+      }
+    }
+  }
+
+  private final Shard[] shards;
+
+  /**
+   * Creates an empty store and starts the threads that own its shards.
+   *
+   * @param numShards     number of shards, and of threads that own them
+   * @param queueCapacity minimum number of batches that each shard's queue
+   *                      can hold
+   */
+  public ShardedActionValues(int numShards, int queueCapacity) {
+    if (numShards < 1) {
+      throw new IllegalArgumentException("numShards must be positive");
+    }
+
+    shards = new Shard[numShards];
+
+    for (int i = 0 ; i < numShards ; i++) {
+      shards[i] = new Shard(i, queueCapacity);
+    }
+
+    for (Shard shard : shards) {
+      shard.owner.start();
+    }
+  }
+
+  @Override
+  public int greedyAction(State s) {
+    return shards[shardOf(s)].published.greedyAction(s);
+  }
+
+  /**
+   * Puts the given returns into the queues of their shards, waiting for room
+   * if a queue is full.
+   */
+  @Override
+  public void addReturns(State[] states,
+                         int[] actions,
+                         double[] returns,
+                         int n) {
+    int[] shardOfReturn = new int[n];
+    int[] batchSizes = new int[shards.length];
+
+    for (int i = 0 ; i < n ; i++) {
+      shardOfReturn[i] = shardOf(states[i]);
+      batchSizes[shardOfReturn[i]]++;
+    }
+
+    Batch[] batches = new Batch[shards.length];
+
+    for (int i = 0 ; i < n ; i++) {
+      int shard = shardOfReturn[i];
+
+      if (batches[shard] == null) {
+        batches[shard] = new Batch(batchSizes[shard]);
+        batchSizes[shard] = 0;
+      }
+
+      int b = batchSizes[shard]++;
+      batches[shard].states[b] = states[i];
+      batches[shard].actions[b] = actions[i];
+      batches[shard].returns[b] = returns[i];
+    }
+
+    for (int shard = 0 ; shard < shards.length ; shard++) {
+      if (batches[shard] != null) {
+        shards[shard].queue.put(batches[shard]);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+
+    for (Shard shard : shards) {
+      size += shard.published.size();
+    }
+
+    return size;
+  }
+
+  /** Waits until the owners have added every batch put so far. */
+  @Override
+  public void awaitReturns() {
+    CountDownLatch reached = new CountDownLatch(shards.length);
+
+    for (Shard shard : shards) {
+      shard.queue.put(new Batch(reached));
+    }
+
+    try {
+      reached.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Returns the number of shards. */
+  public int getNumShards() {
+    return shards.length;
+  }
+
+  /**
+   * Stops the owners once they have added every batch put so far, and waits
+   * for them to stop.
+   */
+  @Override
+  public void close() {
+    for (Shard shard : shards) {
+      shard.closed = true;
+      LockSupport.unpark(shard.owner);
+    }
+
+    try {
+      for (Shard shard : shards) {
+        shard.owner.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Returns the shard of the given state, from the high bits of its mixed
+   * hash code, so that the states of a shard still differ in the low bits
+   * used by the hash tables of the shard.
+   */
+  @VisibleForTesting
+  int shardOf(State s) {
+    int mixed = s.hashCode() * 0x9E3779B9;
+    return (int) (((mixed >>> 1) * (long) shards.length) >>> 31);
+  }
+}
@@ -0,0 +1,154 @@
+package com.games.agents;
+
+import com.games.general.State;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Action-value function shared by Monte Carlo agents that learn from games
+ * played on several threads at once, where every thread adds its returns
+ * without taking a lock (in the style of Hogwild).
+ * <p>
+ * Every state is given a {@link Row} when it is first given a return. A row
+ * keeps the sum and the number of the returns of each action, where an action
+ * is identified by its position in the state's {@link State#getActions()}
+ * list, in one atomic array that is updated by compare-and-set. The sum and
+ * the count of an action are updated one after the other, so a value read
+ * while a return is being added may be off by that return.
+ * <p>
+ * The greedy action of a row is recomputed after each return and published
+ * with a volatile write. Two threads that update the same row at once may
+ * publish them in either order, so a greedy action can be slightly stale until
+ * the next return of the row.
+ */
+public final class SharedActionValues implements ConcurrentActionValues {
+
+  /** Returns of the actions of one state. */
+  private static final class Row {
+
+    /**
+     * Raw bits of the sum of the returns of action a at 2a, and number of
+     * returns of action a at 2a + 1.
+     */
+    private final AtomicLongArray slots;
+
+    /**
+     * Position of the action with the highest value among those with at least
+     * one return, or -1 if no action has a return.
+     * <p>
+     * Ties go to the later action, as in {@link TabularActionValues}.
+     */
+    private volatile int greedyAction = -1;
+
+    Row(int numActions) {
+      slots = new AtomicLongArray(2 * numActions);
+    }
+
+    int greedyAction() {
+      return greedyAction;
+    }
+
+    double value(int action) {
+      long count = slots.get(2*action + 1);
+      return count == 0 ? 0.0 : sum(action) / count;
+    }
+
+    int count(int action) {
+      return (int) slots.get(2*action + 1);
+    }
+
+    /** Adds the given return of the given action and updates the policy. */
+    void addReturn(int action, double amount) {
+      int i = 2 * action;
+      long bits;
+
+      do {
+        bits = slots.get(i);
+      } while (!slots.compareAndSet(
+          i,
+          bits,
+          Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + amount)));
+
+      slots.incrementAndGet(i + 1);
+      greedyAction = findGreedyAction();
+    }
+
+    private double sum(int action) {
+      return Double.longBitsToDouble(slots.get(2 * action));
+    }
+
+    private int findGreedyAction() {
+      int best = -1;
+      double bestValue = -Double.MAX_VALUE;
+
+      for (int a = 0 ; a < slots.length() / 2 ; a++) {
+        if (count(a) > 0 && value(a) >= bestValue) {
+          bestValue = value(a);
+          best = a;
+        }
+      }
+
+      return best;
+    }
+  }
+
+  private final ConcurrentHashMap<State, Row> rows = new ConcurrentHashMap<>();
+
+  /** Returns the row of the given state, adding one first if needed. */
+  private Row addRow(State s) {
+    Row row = rows.get(s);
+
+    if (row == null) {
+      Row newRow = new Row(s.getActions().size());
+      row = rows.putIfAbsent(s, newRow);
+
+      if (row == null) {
+        row = newRow;
+      }
+    }
+
+    return row;
+  }
+
+  /**
+   * Adds the given return of the action at the given position in the given
+   * state's actions.
+   */
+  public void addReturn(State s, int action, double amount) {
+    addRow(s).addReturn(action, amount);
+  }
+
+  @Override
+  public void addReturns(State[] states,
+                         int[] actions,
+                         double[] returns,
+                         int n) {
+    for (int i = 0 ; i < n ; i++) {
+      addReturn(states[i], actions[i], returns[i]);
+    }
+  }
+
+  @Override
+  public int size() {
+    return rows.size();
+  }
+
+  @Override
+  public int greedyAction(State s) {
+    Row row = rows.get(s);
+    return row == null ? -1 : row.greedyAction();
+  }
+
+  /** Returns the expected return of the given action in the given state. */
+  public double value(State s, int action) {
+    Row row = rows.get(s);
+    return row == null ? 0.0 : row.value(action);
+  }
+
+  /** Returns the number of returns of the given action in the given state. */
+  public int count(State s, int action) {
+    Row row = rows.get(s);
+    return row == null ? 0 : row.count(action);
+  }
+}
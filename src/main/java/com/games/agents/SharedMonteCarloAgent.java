@@ -0,0 +1,178 @@
+package com.games.agents;
+
+import com.games.general.Action;
+import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.State;
+import com.games.general.StateIndex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Game-playing agent that uses an epsilon-greedy on-policy Monte Carlo control
+ * algorithm, where the action-value function is a
+ * {@link ConcurrentActionValues} store that other agents on other threads
+ * learn into at the same time.
+ * <p>
+ * Each thread has its own agent. An agent keeps the returns of the (state,
+ * action) pairs first visited in the current episode to itself, and only adds
+ * them to the shared store when the game is over. Its policy chooses a random
+ * action with probability epsilon and the greedy action of the store
+ * otherwise, as a {@link MonteCarloAgent} with {@link Storage#TABULAR_GREEDY}
+ * storage does.
+ * <p>
+ * If the game forces the first action, as with exploring starts, the agent
+ * takes it and learns from it.
+ */
+public final class SharedMonteCarloAgent implements Agent {
+
+  private static final int INITIAL_EPISODE_LENGTH = 16;
+
+  /** Value of epsilon used by the policy. */
+  private final double EPSILON;
+
+  /** Action-value function shared with the agents on other threads. */
+  private final ConcurrentActionValues values;
+
+  /** Source of the agent's random choices. */
+  private final RandomSource random;
+
+  /** States visited in the current episode. */
+  private final StateIndex episodeStates = new StateIndex();
+
+  /**
+   * Last first visit of each state of {@link #episodeStates} (indexed by its
+   * index there), where the first visits of a state are chained through
+   * {@link #previousVisits}.
+   */
+  private int[] lastVisits = new int[INITIAL_EPISODE_LENGTH];
+
+  /** State, action and return of each first visit in this episode. */
+  private State[] visitStates = new State[INITIAL_EPISODE_LENGTH];
+  private int[] visitActions = new int[INITIAL_EPISODE_LENGTH];
+  private double[] visitReturns = new double[INITIAL_EPISODE_LENGTH];
+
+  /** Previous first visit of the same state, or -1. */
+  private int[] previousVisits = new int[INITIAL_EPISODE_LENGTH];
+
+  private int numVisits = 0;
+
+  /**
+   * Most recent state from which an action was chosen and for which a return
+   * has not yet been given.
+   */
+  private State lastState;
+
+  /** Position of the most recent action in the actions of lastState. */
+  private int lastActionIndex;
+
+  public SharedMonteCarloAgent(double e,
+                               ConcurrentActionValues values,
+                               RandomSource random) {
+    EPSILON = e;
+    this.values = values;
+    this.random = random;
+  }
+
+  @Override
+  public String getName() {
+    return "MonteC";
+  }
+
+  @Override
+  public void initializeBeforeNewGame() {
+    episodeStates.clear();
+    numVisits = 0;
+    lastState = null;
+  }
+
+  @Override
+  public Action chooseAction(State state) {
+    List<Action> actions = state.getActions();
+    int greedy = values.greedyAction(state);
+
+    if (greedy < 0 || random.nextDouble() < EPSILON) {
+      // Random actions (including the greedy one) share probability epsilon,
+      // and all actions are random if the state has no greedy action yet
+      lastActionIndex = random.nextInt(actions.size());
+    } else {
+      lastActionIndex = greedy;
+    }
+
+    lastState = state;
+    return actions.get(lastActionIndex);
+  }
+
+  @Override
+  public Action chooseActionES(State state, Action action) {
+    lastState = state;
+    lastActionIndex = state.getActions().indexOf(action);
+    return action;
+  }
+
+  /** Keeps the return received for the most recent action until gameOver. */
+  @Override
+  public void receiveReturn(double amount) {
+    if (lastState == null) {
+      return;  // the other player ended the game before this agent moved
+    }
+
+    int numStates = episodeStates.size();
+    int index = episodeStates.add(lastState);
+
+    if (index == numStates) {
+      // First time this state was visited in this episode
+      if (index == lastVisits.length) {
+        lastVisits = Arrays.copyOf(lastVisits, 2 * index);
+      }
+
+      lastVisits[index] = -1;
+    }
+
+    for (int v = lastVisits[index] ; v >= 0 ; v = previousVisits[v]) {
+      if (visitActions[v] == lastActionIndex) {
+        // Not the first time this action was chosen at this state, so no
+        // need to keep the given return
+        return;
+      }
+    }
+
+    addVisit(index, amount);
+  }
+
+  /** Adds the returns of the episode to the shared action-value function. */
+  @Override
+  public void gameOver() {
+    values.addReturns(visitStates, visitActions, visitReturns, numVisits);
+  }
+
+  /**
+   * Returns the number of states for which the agents sharing the store have
+   * a policy that is not arbitrary.
+   */
+  public int getPolicySize() {
+    return values.size();
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /** Keeps the given return as a first visit of the most recent action. */
+  private void addVisit(int stateIndex, double amount) {
+    if (numVisits == visitStates.length) {
+      int capacity = 2 * numVisits;
+      visitStates = Arrays.copyOf(visitStates, capacity);
+      visitActions = Arrays.copyOf(visitActions, capacity);
+      visitReturns = Arrays.copyOf(visitReturns, capacity);
+      previousVisits = Arrays.copyOf(previousVisits, capacity);
+    }
+
+    visitStates[numVisits] = lastState;
+    visitActions[numVisits] = lastActionIndex;
+    visitReturns[numVisits] = amount;
+    previousVisits[numVisits] = lastVisits[stateIndex];
+    lastVisits[stateIndex] = numVisits;
+    numVisits++;
+  }
+}
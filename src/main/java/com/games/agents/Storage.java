@@ -0,0 +1,21 @@
+package com.games.agents;
+
+/** Ways in which an agent can store its action-value function and policy. */
+public enum Storage {
+
+  /** Maps from states to maps from actions to values. */
+  HASH_MAPS,
+
+  /**
+   * A {@link TabularActionValues} table, where each state is interned to a row
+   * and each action is identified by its position in the state's actions.
+   */
+  TABULAR,
+
+  /**
+   * A {@link TabularActionValues} table that only keeps the greedy action of
+   * each state, where an epsilon-soft policy is followed by choosing a random
+   * action with probability epsilon and the greedy action otherwise.
+   */
+  TABULAR_GREEDY
+}
@@ -0,0 +1,310 @@
+package com.games.agents;
+
+import com.games.general.State;
+import com.games.general.StateIndex;
+
+import java.util.Arrays;
+
+/**
+ * Action-value function, visit counts and policy of a Monte Carlo agent stored
+ * in primitive arrays.
+ * <p>
+ * Every state is interned to an int row when it is first given a return. A
+ * row owns a contiguous slice of the value, count and probability arrays with
+ * one slot per action, where an action is identified by its position in the
+ * state's {@link State#getActions()} list. Updating a (state, action) pair
+ * therefore costs one hash lookup and boxes nothing.
+ * <p>
+ * The table also records the (state, action) pairs first visited in the
+ * current episode and their returns, which replaces the per-episode map of
+ * the agents.
+ */
+public final class TabularActionValues {
+
+  private static final int INITIAL_ROWS = 64;
+  private static final int INITIAL_SLOTS = 512;
+  private static final int INITIAL_EPISODE_LENGTH = 16;
+
+  /** Row of every state that has been given a return. */
+  private final StateIndex rows = new StateIndex();
+
+  /** Index of the first slot of each row. */
+  private int[] rowOffsets = new int[INITIAL_ROWS];
+
+  /** Number of slots (i.e. actions) of each row. */
+  private int[] rowLengths = new int[INITIAL_ROWS];
+
+  /**
+   * Position of the action with the highest value among those with at least
+   * one return in each row, or -1 if no action of the row has a return.
+   * <p>
+   * Ties go to the later action, since states tend to offer their least
+   * useful action (e.g. "pass" in Chung Toi) first.
+   */
+  private int[] greedyActions = new int[INITIAL_ROWS];
+
+  /** Expected return of each slot. */
+  private double[] values = new double[INITIAL_SLOTS];
+
+  /** Number of returns averaged into each slot. */
+  private int[] counts = new int[INITIAL_SLOTS];
+
+  /** Last episode in which each slot was visited, 0 if never. */
+  private int[] lastVisits = new int[INITIAL_SLOTS];
+
+  /**
+   * Probability of choosing each slot's action under the policy, or null if
+   * the policy is only given by {@link #greedyActions}.
+   */
+  private double[] probabilities;
+
+  /** Number of slots in use. */
+  private int slots = 0;
+
+  /** Number of rows with a greedy action. */
+  private int policySize = 0;
+
+  /** Number of the current episode, starting at 1. */
+  private int episode = 0;
+
+  /** Row, action and return of each slot first visited in this episode. */
+  private int[] episodeRows = new int[INITIAL_EPISODE_LENGTH];
+  private int[] episodeActions = new int[INITIAL_EPISODE_LENGTH];
+  private double[] episodeReturns = new double[INITIAL_EPISODE_LENGTH];
+  private int episodeLength = 0;
+
+  /**
+   * Creates an empty table.
+   *
+   * @param withProbabilities whether to store the probability of every action
+   *                          rather than only the best action of each state
+   */
+  public TabularActionValues(boolean withProbabilities) {
+    if (withProbabilities) {
+      probabilities = new double[INITIAL_SLOTS];
+    }
+  }
+
+  /** Returns the row of the given state, or -1 if it has none. */
+  public int row(State s) {
+    return rows.get(s);
+  }
+
+  /** Returns the row of the given state, adding one first if needed. */
+  public int addRow(State s) {
+    int numRows = rows.size();
+    int row = rows.add(s);
+
+    if (row < numRows) {
+      return row;
+    }
+
+    if (row == rowOffsets.length) {
+      rowOffsets = Arrays.copyOf(rowOffsets, 2 * row);
+      rowLengths = Arrays.copyOf(rowLengths, 2 * row);
+      greedyActions = Arrays.copyOf(greedyActions, 2 * row);
+    }
+
+    int length = s.getActions().size();
+    ensureSlots(slots + length);
+
+    rowOffsets[row] = slots;
+    rowLengths[row] = length;
+    greedyActions[row] = -1;
+    slots += length;
+    return row;
+  }
+
+  /** Returns the state of the given row. */
+  public State state(int row) {
+    return rows.state(row);
+  }
+
+  /** Returns the number of rows. */
+  public int size() {
+    return rows.size();
+  }
+
+  /** Returns the number of rows with a greedy action. */
+  public int policySize() {
+    return policySize;
+  }
+
+  /** Returns the expected return of the given action in the given row. */
+  public double value(int row, int action) {
+    return values[rowOffsets[row] + action];
+  }
+
+  /** Returns the number of returns averaged into the given action's value. */
+  public int count(int row, int action) {
+    return counts[rowOffsets[row] + action];
+  }
+
+  /** Returns the position of the best action of the given row, or -1. */
+  public int greedyAction(int row) {
+    return greedyActions[row];
+  }
+
+  /** Clears the record of the (state, action) pairs visited in an episode. */
+  public void startEpisode() {
+    episode++;
+    episodeLength = 0;
+  }
+
+  /**
+   * Records the return of the action at the given position in the given
+   * state's actions, unless the pair was already visited in this episode.
+   */
+  public void recordReturn(State s, int action, double amount) {
+    int row = addRow(s);
+    int slot = rowOffsets[row] + action;
+
+    if (lastVisits[slot] == episode) {
+      // Not the first time this action was chosen at this state, so no need
+      // to record the given return
+      return;
+    }
+
+    lastVisits[slot] = episode;
+
+    if (episodeLength == episodeRows.length) {
+      episodeRows = Arrays.copyOf(episodeRows, 2 * episodeLength);
+      episodeActions = Arrays.copyOf(episodeActions, 2 * episodeLength);
+      episodeReturns = Arrays.copyOf(episodeReturns, 2 * episodeLength);
+    }
+
+    episodeRows[episodeLength] = row;
+    episodeActions[episodeLength] = action;
+    episodeReturns[episodeLength] = amount;
+    episodeLength++;
+  }
+
+  /** Returns the number of (state, action) pairs visited in this episode. */
+  public int episodeLength() {
+    return episodeLength;
+  }
+
+  /** Returns the row of the i-th (state, action) pair visited. */
+  public int episodeRow(int i) {
+    return episodeRows[i];
+  }
+
+  /**
+   * Averages the return of every (state, action) pair visited in this episode
+   * into its value and updates the greedy action of its row.
+   */
+  public void evaluateEpisode() {
+    for (int i = 0 ; i < episodeLength ; i++) {
+      addReturn(episodeRows[i], episodeActions[i], episodeReturns[i]);
+    }
+  }
+
+  /**
+   * Averages the given return of the given action into its value and updates
+   * the greedy action of the given row, regardless of the current episode.
+   */
+  public void addReturn(int row, int action, double amount) {
+    int slot = rowOffsets[row] + action;
+    int count = counts[slot];
+    double returnSum = count * values[slot] + amount;
+    double oldValue = values[slot];
+    values[slot] = returnSum / (count + 1);
+    counts[slot] = count + 1;
+    updateGreedyAction(row, action, oldValue);
+  }
+
+  /**
+   * Sets the policy of the given row to choose its best action with
+   * probability 1 - epsilon + epsilon / n and every other action with
+   * probability epsilon / n, where n is the number of actions.
+   */
+  public void setEpsilonSoftPolicy(int row, int best, double epsilon) {
+    int offset = rowOffsets[row];
+    int length = rowLengths[row];
+    double randomProb = epsilon / length;  // probability of sub-optimal action
+
+    for (int a = 0 ; a < length ; a++) {
+      probabilities[offset + a] =
+          a == best ? 1 - epsilon + randomProb : randomProb;
+    }
+  }
+
+  /** Returns the probability of choosing the given action in the given row. */
+  public double probability(int row, int action) {
+    return probabilities[rowOffsets[row] + action];
+  }
+
+  /**
+   * Returns the position of the action chosen from the given row by the
+   * policy's probabilities, where u is uniformly distributed in [0, 1).
+   */
+  public int sampleAction(int row, double u) {
+    int offset = rowOffsets[row];
+    int last = rowLengths[row] - 1;
+    double cumulative = 0.0;
+
+    for (int a = 0 ; a < last ; a++) {
+      cumulative += probabilities[offset + a];
+
+      if (u < cumulative) {
+        return a;
+      }
+    }
+
+    return last;
+  }
+
+  /**
+   * Updates the greedy action of the given row after the value of the given
+   * action changed from the given old value.
+   */
+  private void updateGreedyAction(int row, int action, double oldValue) {
+    int offset = rowOffsets[row];
+    int greedy = greedyActions[row];
+
+    if (greedy < 0) {
+      greedyActions[row] = action;
+      policySize++;
+
+    } else if (greedy == action) {
+      // The greedy action can only be overtaken if its value decreased
+      if (values[offset + action] < oldValue) {
+        greedyActions[row] = findGreedyAction(row);
+      }
+
+    } else if (values[offset + action] > values[offset + greedy]
+               || (values[offset + action] == values[offset + greedy]
+                   && action > greedy)) {
+      greedyActions[row] = action;
+    }
+  }
+
+  /** Returns the greedy action of the given row by scanning all of them. */
+  private int findGreedyAction(int row) {
+    int offset = rowOffsets[row];
+    int best = -1;
+    double bestValue = -Double.MAX_VALUE;
+
+    for (int a = 0 ; a < rowLengths[row] ; a++) {
+      if (counts[offset + a] > 0 && values[offset + a] >= bestValue) {
+        bestValue = values[offset + a];
+        best = a;
+      }
+    }
+
+    return best;
+  }
+
+  private void ensureSlots(int needed) {
+    if (needed <= values.length) return;
+
+    int capacity = Math.max(needed, 2 * values.length);
+    values = Arrays.copyOf(values, capacity);
+    counts = Arrays.copyOf(counts, capacity);
+    lastVisits = Arrays.copyOf(lastVisits, capacity);
+
+    if (probabilities != null) {
+      probabilities = Arrays.copyOf(probabilities, capacity);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.games.chungtoi;
+
+import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+
+/**
+ * Game of Chung Toi where the the first player is chosen randomly. The first
+ * player always uses X tokens and the second player always uses O tokens.
+ * The symmetry of states is eliminated by the canonical form of the grid in
+ * {@link ChungToiStateWithSymmetricEquality}.
+ */
+public final class ChungToiGameWithSymmetricEquality extends ChungToiGame {
+
+  public ChungToiGameWithSymmetricEquality(Agent a1, Agent a2) {
+    this(a1, a2, SplittableRandomSource.PER_THREAD);
+  }
+
+  public ChungToiGameWithSymmetricEquality(Agent a1, Agent a2, RandomSource random) {
+    super(a1, a2, random, ChungToiStateWithSymmetricEquality.initialState());
+  }
+}
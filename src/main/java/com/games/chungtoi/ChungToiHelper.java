@@ -1,5 +1,8 @@
 package com.games.chungtoi;
 
+import com.games.general.Zobrist;
+
+import java.util.ArrayList;
 import java.util.List;
 
 public class ChungToiHelper {
@@ -43,6 +46,27 @@ public class ChungToiHelper {
   /** Number of tokens each player can put down. */
   public static final int TOKENS_PER_PLAYER = 3;
 
+  /**
+   * First ID of "put" actions, which are numbered by board index and then
+   * token type (see {@link ChungToiPutAction#id}).
+   */
+  public static final int PUT_ID_OFFSET = 0;
+
+  /**
+   * First ID of "move" actions, which are numbered by start index, end index
+   * and whether the token is rotated (see {@link ChungToiMoveAction#id}).
+   */
+  public static final int MOVE_ID_OFFSET = PUT_ID_OFFSET + GRID_SIZE * 4;
+
+  /** ID of the "pass" action. */
+  public static final int PASS_ID = MOVE_ID_OFFSET + GRID_SIZE * GRID_SIZE * 2;
+
+  /**
+   * Number of distinct action IDs, including the unused IDs of the moves that
+   * neither move nor rotate a token.
+   */
+  public static final int NUM_ACTION_IDS = PASS_ID + 1;
+
   /** Return for an action that causes the game to end and results in a win. */
   public static final int WIN_RETURN = 1;
 
@@ -55,6 +79,218 @@ public class ChungToiHelper {
   /** Return for an action that does not cause the game to end. */
   public static final int GAME_IN_PROGRESS_RETURN = 0;
 
+  /** Number of bits used by each cell of a packed board. */
+  public static final int BITS_PER_CELL = 3;
+
+  /** Mask of the bits of a single cell of a packed board. */
+  public static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+  /**
+   * Bit of a packed board that is set if it is O's turn to move and clear if
+   * it is X's turn.
+   */
+  public static final long O_TO_MOVE = 1L << (GRID_SIZE * BITS_PER_CELL);
+
+  /** Cell codes used in a packed board, indexed by {@link TokenType#ordinal}. */
+  private static final int[] CODES = new int[] { 1, 2, 3, 4, 0 };
+
+  /** Token types indexed by their cell code in a packed board. */
+  private static final TokenType[] TOKEN_TYPES = new TokenType[] {
+    TokenType.NONE,
+    TokenType.X_NORMAL,
+    TokenType.X_DIAGONAL,
+    TokenType.O_NORMAL,
+    TokenType.O_DIAGONAL
+  };
+
+  /** Masks of the three rows, three columns and two diagonals. */
+  public static final int[] WIN_LINES = new int[] {
+    0b000000111, 0b000111000, 0b111000000,  // rows
+    0b001001001, 0b010010010, 0b100100100,  // columns
+    0b100010001, 0b001010100                // diagonals
+  };
+
+  /**
+   * The eight symmetries of the grid (the identity, the reflections along the
+   * vertical axis, horizontal axis, major diagonal and minor diagonal, and the
+   * three rotations) as permutations of the cell indices, where cell {@code i}
+   * of the transformed grid holds the token in cell {@code SYMMETRIES[s][i]}
+   * of the original grid.
+   * <p>
+   * The symmetries map rows and columns to rows and columns and diagonals to
+   * diagonals, so tokens keep their orientation and every legal move has a
+   * legal symmetrical move.
+   */
+  public static final int[][] SYMMETRIES = new int[][] {
+    {0, 1, 2, 3, 4, 5, 6, 7, 8},  // identity
+    {6, 7, 8, 3, 4, 5, 0, 1, 2},  // vertical flip
+    {2, 1, 0, 5, 4, 3, 8, 7, 6},  // horizontal flip
+    {8, 7, 6, 5, 4, 3, 2, 1, 0},  // vertical and horizontal flip
+    {0, 3, 6, 1, 4, 7, 2, 5, 8},  // major diagonal flip
+    {6, 3, 0, 7, 4, 1, 8, 5, 2},  // major diagonal and horizontal flip
+    {8, 5, 2, 7, 4, 1, 6, 3, 0},  // minor diagonal flip
+    {2, 5, 8, 1, 4, 7, 0, 3, 6}   // minor diagonal and horizontal flip
+  };
+
+  /** Masks of the win lines through each cell, indexed by cell. */
+  public static final int[][] LINES_THROUGH = new int[GRID_SIZE][];
+
+  static {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int count = 0;
+
+      for (int line : WIN_LINES) {
+        if ((line & (1 << i)) != 0) count++;
+      }
+
+      LINES_THROUGH[i] = new int[count];
+
+      for (int line : WIN_LINES) {
+        if ((line & (1 << i)) != 0) LINES_THROUGH[i][--count] = line;
+      }
+    }
+  }
+
+  /**
+   * Returns the code of the given token type in a packed board, which is 0 for
+   * an empty cell, 1 or 2 for an X token and 3 or 4 for an O token, where odd
+   * codes are normal tokens and even codes are diagonal tokens.
+   */
+  public static int code(TokenType t) {
+    return CODES[t.ordinal()];
+  }
+
+  /** Returns the token type with the given code in a packed board. */
+  public static TokenType tokenType(int code) {
+    return TOKEN_TYPES[code];
+  }
+
+  /** Returns the code of the cell at the given index of a packed board. */
+  public static int cellCode(long board, int index) {
+    return (int) ((board >>> (index * BITS_PER_CELL)) & CELL_MASK);
+  }
+
+  /** Returns the given board with the cell at the given index replaced. */
+  public static long withCellCode(long board, int index, int code) {
+    int shift = index * BITS_PER_CELL;
+    return (board & ~(CELL_MASK << shift)) | ((long) code << shift);
+  }
+
+  /**
+   * Returns the packed board that results from applying the given permutation
+   * of {@link #SYMMETRIES} to the cells of the given packed board, keeping its
+   * next player.
+   */
+  public static long transform(long board, int[] permutation) {
+    long transformed = board & O_TO_MOVE;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      transformed |= (long) cellCode(board, permutation[i]) << (i * BITS_PER_CELL);
+    }
+
+    return transformed;
+  }
+
+  /**
+   * Returns the smallest of the packed boards that are symmetrical to the
+   * given packed board, which is the same for all boards in a symmetry class.
+   */
+  public static long canonicalBoard(long board) {
+    long canonical = board;
+
+    for (int s = 1 ; s < SYMMETRIES.length ; s++) {
+      canonical = Math.min(canonical, transform(board, SYMMETRIES[s]));
+    }
+
+    return canonical;
+  }
+
+  /**
+   * Returns the index in {@link #SYMMETRIES} of a permutation that turns the
+   * given packed board into {@link #canonicalBoard}.
+   */
+  public static int canonicalSymmetry(long board) {
+    long canonical = board;
+    int symmetry = 0;
+
+    for (int s = 1 ; s < SYMMETRIES.length ; s++) {
+      long transformed = transform(board, SYMMETRIES[s]);
+
+      if (transformed < canonical) {
+        canonical = transformed;
+        symmetry = s;
+      }
+    }
+
+    return symmetry;
+  }
+
+  /**
+   * Returns the index of the cell that the given cell moves to when the given
+   * permutation of {@link #SYMMETRIES} is applied to a board.
+   */
+  public static int transformIndex(int index, int[] permutation) {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      if (permutation[i] == index) return i;
+    }
+    return -1;
+  }
+
+  /** Returns the code of the given token after it has been rotated. */
+  public static int rotatedCode(int code) {
+    // Odd (normal) and even (diagonal) codes of the same player are adjacent
+    return (code % 2 == 1) ? code + 1 : code - 1;
+  }
+
+  /** Salt that distinguishes Chung Toi Zobrist keys from other games'. */
+  private static final long ZOBRIST_SALT = 2;
+
+  /** Zobrist keys indexed by cell and then cell code. */
+  private static final long[][] ZOBRIST_KEYS =
+      Zobrist.table(ZOBRIST_SALT, GRID_SIZE, TOKEN_TYPES.length);
+
+  /** Zobrist key of O being the next player. */
+  public static final long O_TO_MOVE_KEY =
+      Zobrist.key(ZOBRIST_SALT, GRID_SIZE, 1);
+
+  /** Returns the Zobrist key of the given cell code at the given index. */
+  public static long zobristKey(int index, int code) {
+    return ZOBRIST_KEYS[index][code];
+  }
+
+  /** Returns the Zobrist hash of the given packed board. */
+  public static long zobristHash(long board) {
+    long hash = (board & O_TO_MOVE) != 0 ? O_TO_MOVE_KEY : 0L;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      hash ^= zobristKey(i, cellCode(board, i));
+    }
+
+    return hash;
+  }
+
+  /** Packs the given grid and next player into a board. */
+  public static long pack(List<TokenType> grid, Player next) {
+    long board = (next == Player.O) ? O_TO_MOVE : 0L;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      board = withCellCode(board, i, code(grid.get(i)));
+    }
+
+    return board;
+  }
+
+  /** Unpacks the cells of the given board into a grid. */
+  public static List<TokenType> unpack(long board) {
+    List<TokenType> grid = new ArrayList<>(GRID_SIZE);
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      grid.add(tokenType(cellCode(board, i)));
+    }
+
+    return grid;
+  }
+
   public static String getBoardIndexName(int index) {
     switch (index) {
       case 0 : return "top-left";
@@ -1,9 +1,31 @@
 package com.games.chungtoi;
 
+import static com.games.chungtoi.ChungToiHelper.GRID_SIZE;
+import static com.games.chungtoi.ChungToiHelper.MOVE_ID_OFFSET;
+
 import com.games.general.Action;
 
 public class ChungToiMoveAction implements Action {
 
+  /** Shared instances of all "move" actions, indexed by ID. */
+  private static final ChungToiMoveAction[] INSTANCES =
+      new ChungToiMoveAction[GRID_SIZE * GRID_SIZE * 2];
+
+  static {
+    for (int start = 0 ; start < GRID_SIZE ; start++) {
+      for (int end = 0 ; end < GRID_SIZE ; end++) {
+        for (boolean rotate : new boolean[] { false, true }) {
+          if (start == end && !rotate) {
+            continue;  // not an action
+          }
+
+          ChungToiMoveAction a = new ChungToiMoveAction(start, end, rotate);
+          INSTANCES[a.id - MOVE_ID_OFFSET] = a;
+        }
+      }
+    }
+  }
+
   /** Location of token on the board. */
   public final int startIndex;
 
@@ -13,10 +35,38 @@ public class ChungToiMoveAction implements Action {
   /** Whether or not to rotate the token after moving it. */
   public final boolean rotateToken;
 
+  /**
+   * Dense ID of this action, which is unique among all legal Chung Toi
+   * actions (see {@link ChungToiHelper#MOVE_ID_OFFSET}).
+   */
+  public final int id;
+
+  /**
+   * Creates the action that moves the token at the given start index to the
+   * given end index, rotating it if required. The two indices are the same if
+   * the token is only rotated.
+   *
+   * @throws IllegalArgumentException if an index is not on the board, or the
+   *                                  token is neither moved nor rotated
+   */
   public ChungToiMoveAction(int start, int end, boolean rotate) {
+    checkArguments(start, end, rotate);
     this.startIndex = start;
     this.endIndex = end;
     this.rotateToken = rotate;
+    this.id = MOVE_ID_OFFSET + (start * GRID_SIZE + end) * 2 + (rotate ? 1 : 0);
+  }
+
+  /**
+   * Returns the shared instance of the action that moves the token at the
+   * given start index to the given end index, rotating it if required.
+   *
+   * @throws IllegalArgumentException if an index is not on the board, or the
+   *                                  token is neither moved nor rotated
+   */
+  public static ChungToiMoveAction of(int start, int end, boolean rotate) {
+    checkArguments(start, end, rotate);
+    return INSTANCES[(start * GRID_SIZE + end) * 2 + (rotate ? 1 : 0)];
   }
 
   @Override
@@ -37,7 +87,7 @@ public class ChungToiMoveAction implements Action {
 
   @Override
   public int hashCode() {
-    return 2^startIndex * 3^endIndex * 5^(rotateToken ? 1 : 0);
+    return id;
   }
 
   @Override
@@ -59,4 +109,26 @@ public class ChungToiMoveAction implements Action {
 
     System.out.print(builder.toString());
   }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Throws if the given indices and rotation are not those of a legal action,
+   * so that every action has its own ID.
+   */
+  private static void checkArguments(int start, int end, boolean rotate) {
+    if (start < 0 || start >= GRID_SIZE) {
+      throw new IllegalArgumentException("Index not on the board: " + start);
+    }
+
+    if (end < 0 || end >= GRID_SIZE) {
+      throw new IllegalArgumentException("Index not on the board: " + end);
+    }
+
+    if (start == end && !rotate) {
+      throw new IllegalArgumentException(
+          "Token must be moved to another index or rotated");
+    }
+  }
 }
@@ -1,22 +1,29 @@
 package com.games.chungtoi;
 
+import static com.games.chungtoi.ChungToiHelper.PASS_ID;
+
 import com.games.general.Action;
 
 public class ChungToiPassAction implements Action {
 
-  /** Place on the board to put the token. */
-  private static ChungToiPassAction passActionInstance;
+  /** The only instance of this action. */
+  private static final ChungToiPassAction passActionInstance =
+      new ChungToiPassAction();
+
+  /** Dense ID of this action (see {@link ChungToiHelper#PASS_ID}). */
+  public final int id = PASS_ID;
 
   private ChungToiPassAction() {} // prevent instantiation
 
   public static ChungToiPassAction getInstance() {
-    if (passActionInstance == null) {
-      passActionInstance = new ChungToiPassAction();
-    }
-
     return passActionInstance;
   }
 
+  @Override
+  public int hashCode() {
+    return id;
+  }
+
   @Override
   public void print() {
     System.out.print("pass");
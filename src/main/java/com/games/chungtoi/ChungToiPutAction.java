@@ -1,19 +1,67 @@
 package com.games.chungtoi;
 
+import static com.games.chungtoi.ChungToiHelper.GRID_SIZE;
+import static com.games.chungtoi.ChungToiHelper.PUT_ID_OFFSET;
+
 import com.games.chungtoi.ChungToiHelper.TokenType;
 import com.games.general.Action;
 
 public class ChungToiPutAction implements Action {
 
+  /** Number of token types that can be put on the board. */
+  private static final int PUT_TOKEN_TYPES = 4;
+
+  /** Shared instances of all legal "put" actions, indexed by ID. */
+  private static final ChungToiPutAction[] INSTANCES =
+      new ChungToiPutAction[GRID_SIZE * PUT_TOKEN_TYPES];
+
+  static {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      for (TokenType t : TokenType.values()) {
+        if (t != TokenType.NONE) {
+          ChungToiPutAction a = new ChungToiPutAction(t, i);
+          INSTANCES[a.id - PUT_ID_OFFSET] = a;
+        }
+      }
+    }
+  }
+
   /** Token to put on the board. */
   public final TokenType tokenType;
 
   /** Place on the board to put the token. */
   public final int index;
 
+  /**
+   * Dense ID of this action, which is unique among all legal Chung Toi
+   * actions (see {@link ChungToiHelper#PUT_ID_OFFSET}).
+   */
+  public final int id;
+
+  /**
+   * Creates the action that puts the given X or O token at the given index.
+   *
+   * @throws IllegalArgumentException if the token is {@link TokenType#NONE}
+   *                                  or the index is not on the board
+   */
   public ChungToiPutAction(TokenType type, int index) {
+    checkArguments(type, index);
     this.tokenType = type;
     this.index = index;
+    // Ordinals 0 to 3 are the X and O token types
+    this.id = PUT_ID_OFFSET + index * PUT_TOKEN_TYPES + type.ordinal();
+  }
+
+  /**
+   * Returns the shared instance of the action that puts the given X or O token
+   * at the given index.
+   *
+   * @throws IllegalArgumentException if the token is {@link TokenType#NONE}
+   *                                  or the index is not on the board
+   */
+  public static ChungToiPutAction of(TokenType type, int index) {
+    checkArguments(type, index);
+    return INSTANCES[index * PUT_TOKEN_TYPES + type.ordinal()];
   }
 
   @Override
@@ -32,17 +80,7 @@ public class ChungToiPutAction implements Action {
 
   @Override
   public int hashCode() {
-    int hash = 2^index;
-
-    switch (tokenType) {
-      case X_NORMAL:   hash *= 3; break;
-      case X_DIAGONAL: hash *= 5; break;
-      case O_NORMAL:   hash *= 7; break;
-      case O_DIAGONAL: hash *= 11; break;
-      case NONE:       hash *= 13; break;
-    }
-
-    return hash;
+    return id;
   }
 
   @Override
@@ -52,4 +90,21 @@ public class ChungToiPutAction implements Action {
                    + ChungToiHelper.getBoardIndexName(index));
     System.out.print(builder.toString());
   }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Throws if the given token and index are not those of a legal action, so
+   * that every action has its own ID.
+   */
+  private static void checkArguments(TokenType type, int index) {
+    if (type == TokenType.NONE) {
+      throw new IllegalArgumentException("Cannot put a token of type NONE");
+    }
+
+    if (index < 0 || index >= GRID_SIZE) {
+      throw new IllegalArgumentException("Index not on the board: " + index);
+    }
+  }
 }
@@ -0,0 +1,75 @@
+package com.games.chungtoi;
+
+import static com.games.chungtoi.ChungToiHelper.DRAW_RETURN;
+import static com.games.chungtoi.ChungToiHelper.GAME_IN_PROGRESS_RETURN;
+import static com.games.chungtoi.ChungToiHelper.LOSS_RETURN;
+import static com.games.chungtoi.ChungToiHelper.WIN_RETURN;
+
+import com.games.general.Action;
+import com.games.general.GameRules;
+import com.games.general.RandomSource;
+
+/**
+ * Rules of Chung Toi, where the first player uses X tokens and the second
+ * player uses O tokens. The game is a draw if both players pass in a row.
+ */
+public final class ChungToiRules implements GameRules<ChungToiState> {
+
+  /** The only pass action, so passes are recognised by reference. */
+  private static final Action PASS = ChungToiPassAction.getInstance();
+
+  /** Canonical empty grid of the variant of the game. */
+  private final ChungToiState initialState;
+
+  public ChungToiRules(ChungToiState initialState) {
+    this.initialState = initialState;
+  }
+
+  @Override
+  public ChungToiState initialState(RandomSource random) {
+    return initialState;
+  }
+
+  @Override
+  public boolean hasExploringStarts() {
+    return false;
+  }
+
+  @Override
+  public int outcome(ChungToiState state,
+                     Action action,
+                     Action previousAction) {
+    return outcome(state, bothPassed(previousAction, action));
+  }
+
+  @Override
+  public int finalReturn(int outcome, int player) {
+    if (outcome == DRAW) {
+      return DRAW_RETURN;
+    }
+
+    return outcome == player ? WIN_RETURN : LOSS_RETURN;
+  }
+
+  @Override
+  public int gameInProgressReturn() {
+    return GAME_IN_PROGRESS_RETURN;
+  }
+
+  /**
+   * Returns the outcome of a game that reached the given state, where the
+   * game is a draw if it is not won and both players just passed.
+   */
+  static int outcome(ChungToiState state, boolean bothPassed) {
+    switch (state.getWinner()) {
+      case X:  return FIRST_PLAYER_WON;
+      case O:  return SECOND_PLAYER_WON;
+      default: return bothPassed ? DRAW : GAME_NOT_OVER;
+    }
+  }
+
+  /** Returns whether both of the given actions are passes. */
+  static boolean bothPassed(Action action1, Action action2) {
+    return action1 == PASS && action2 == PASS;
+  }
+}
@@ -1,38 +1,116 @@
 package com.games.chungtoi;
 
 import static com.games.chungtoi.ChungToiHelper.GRID_SIZE;
+import static com.games.chungtoi.ChungToiHelper.O_TO_MOVE;
 import static com.games.chungtoi.ChungToiHelper.TOKENS_PER_PLAYER;
+import static com.games.chungtoi.ChungToiHelper.WIN_LINES;
 
 import com.games.chungtoi.ChungToiHelper.TokenType;
 import com.games.chungtoi.ChungToiHelper.Player;
 import com.games.chungtoi.ChungToiHelper.Winner;
 import com.games.general.Action;
+import com.games.general.InternTable;
 import com.games.general.State;
+import com.games.general.Zobrist;
 
 import com.google.common.annotations.VisibleForTesting;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-
-/** State of a game of Chung Toi. */
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * State of a game of Chung Toi.
+ * <p>
+ * States are interned in a single table for all games and threads, which is
+ * never cleared, and each state keeps the successors it has led to. Every
+ * state ever reached therefore stays in memory for the life of the process.
+ * That is up to about 415,000 reachable states, each with its list of actions
+ * and an array of successors, which take roughly 100 MB once all of them have
+ * been reached.
+ */
 public class ChungToiState implements State {
 
+  /** Grid side length. */
+  private static final int SIDE = 3;
+
+  /** Number of distinct empty-cell masks. */
+  private static final int EMPTY_MASKS = 1 << GRID_SIZE;
+
+  /**
+   * "Put" actions indexed by player, then board index, each holding the
+   * normal and the diagonal token.
+   */
+  private static final ChungToiPutAction[][][] PUT_ACTIONS =
+      new ChungToiPutAction[2][GRID_SIZE][];
+
+  /**
+   * "Move" actions of a token, indexed by its board index, its orientation
+   * (0 = normal, 1 = diagonal) and the mask of empty cells on the board.
+   */
+  private static final ChungToiMoveAction[][][][] MOVE_ACTIONS =
+      new ChungToiMoveAction[GRID_SIZE][2][EMPTY_MASKS][];
+
+  /** Row and column steps of normal (horizontal/vertical) moves. */
+  private static final int[][] NORMAL_DIRECTIONS =
+      new int[][] { {0, -1}, {0, 1}, {-1, 0}, {1, 0} };
+
+  /** Row and column steps of diagonal moves. */
+  private static final int[][] DIAGONAL_DIRECTIONS =
+      new int[][] { {-1, -1}, {-1, 1}, {1, -1}, {1, 1} };
+
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<ChungToiState> STATES = new InternTable<>();
+
+  /** Canonical state with an empty grid. */
+  private static final ChungToiState INITIAL;
+
+  static {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      PUT_ACTIONS[0][i] = new ChungToiPutAction[] {
+        ChungToiPutAction.of(TokenType.X_NORMAL, i),
+        ChungToiPutAction.of(TokenType.X_DIAGONAL, i)
+      };
+      PUT_ACTIONS[1][i] = new ChungToiPutAction[] {
+        ChungToiPutAction.of(TokenType.O_NORMAL, i),
+        ChungToiPutAction.of(TokenType.O_DIAGONAL, i)
+      };
+
+      for (int empty = 0 ; empty < EMPTY_MASKS ; empty++) {
+        MOVE_ACTIONS[i][0][empty] = buildMoveActions(i, NORMAL_DIRECTIONS, empty);
+        MOVE_ACTIONS[i][1][empty] = buildMoveActions(i, DIAGONAL_DIRECTIONS, empty);
+      }
+    }
+
+    // Created last, since its actions are looked up in the tables above
+    INITIAL = STATES.intern(new ChungToiState());
+  }
+
   /**
-   * Chung Toi grid, where the list indices represent the board as:
+   * Chung Toi grid and next player packed into a long, as described in
+   * {@link ChungToiHelper#code}, where the cell indices represent the board as:
    *    0 | 1 | 2
    *   -----------
    *    3 | 4 | 5
    *   -----------
    *    6 | 7 | 8
    */
-  private final List<TokenType> grid;
+  private final long board;
 
-  /** List of possible actions to take from this state. */
-  private List<Action> actions;
+  /**
+   * Zobrist hash of {@link #board}, as computed by
+   * {@link ChungToiHelper#zobristHash}.
+   */
+  private final long hash;
 
-  /** Player whose turn it is to move from this state. */
-  private Player nextTurn;
+  /**
+   * List of possible actions to take from this state, or null until
+   * {@link #getActions()} is first called. Volatile, since a state can be
+   * shared by several threads, so that a thread that sees the list also sees
+   * its contents and {@link #successors}.
+   */
+  private volatile List<Action> actions;
 
   /**
    * Winning token type (or draw) if this is a terminal state, otherwise
@@ -41,87 +119,57 @@ public class ChungToiState implements State {
    */
   private Winner winner = null;
 
-
-  // CONSTRUCTORS
-
-  /** Creates a state with an empty grid. */
-  public ChungToiState() {
-    grid = new ArrayList<>(Collections.nCopies(GRID_SIZE, TokenType.NONE));
-    nextTurn = Player.X;
-    computeActions();
-    isTerminalState();  // ignore result
-  }
-
   /**
-   * Creates the state that results from applying the given "move" action at
-   * the given state.
+   * Canonical state that results from each action in {@link #actions}, indexed
+   * by the position of the action, or null until the action is first applied.
+   * Created along with {@link #actions}.
    */
-  private ChungToiState(ChungToiState oldState, ChungToiMoveAction action) {
-    grid = new ArrayList<>(oldState.grid);
-    TokenType type = oldState.grid.get(action.startIndex);
-    grid.set(action.startIndex, TokenType.NONE);
-
-    if (action.rotateToken) {
-      switch(type) {
-        case X_NORMAL:   grid.set(action.endIndex, TokenType.X_DIAGONAL); break;
-        case X_DIAGONAL: grid.set(action.endIndex, TokenType.X_NORMAL); break;
-        case O_NORMAL:   grid.set(action.endIndex, TokenType.O_DIAGONAL); break;
-        case O_DIAGONAL: grid.set(action.endIndex, TokenType.O_NORMAL); break;
-        case NONE:       break;  // should not reach here
-      }
-    } else {
-      grid.set(action.endIndex, type);
-    }
-
-    switch (oldState.nextTurn) {
-      case X: nextTurn = Player.O; break;
-      case O: nextTurn = Player.X; break;
-    }
-
-    computeActions();
-    isTerminalState();  // ignore result
-  }
+  private AtomicReferenceArray<State> successors;
 
   /**
-   * Creates the state that results from applying the given "pass" action at
-   * the given state.
+   * Index of the cell where the last action left a token, or -1 if there was
+   * no such action or the whole grid must be checked for a win. If the state
+   * before the action was not terminal, a line completed by the action goes
+   * through this cell, so {@link #isTerminalState()} only checks those lines.
    */
-  private ChungToiState(ChungToiState oldState, ChungToiPassAction action) {
-    grid = new ArrayList<>(oldState.grid);
+  private final int lastIndex;
 
-    switch (oldState.nextTurn) {
-      case X: nextTurn = Player.O; break;
-      case O: nextTurn = Player.X; break;
-    }
 
-    computeActions();
-    isTerminalState();  // ignore result
+  // CONSTRUCTORS
+
+  /** Creates a state with an empty grid. */
+  public ChungToiState() {
+    this(0L, ChungToiHelper.zobristHash(0L));
+  }
+
+  /** Creates a state with the given packed board and its Zobrist hash. */
+  protected ChungToiState(long board, long hash) {
+    this(board, hash, -1);
   }
 
   /**
-   * Creates the state that results from applying the given "put" action at
-   * the given state.
+   * Creates a state with the given packed board, its Zobrist hash and the
+   * index of the cell where the last action left a token.
    */
-  private ChungToiState(ChungToiState oldState, ChungToiPutAction action) {
-    grid = new ArrayList<>(oldState.grid);
-    grid.set(action.index, action.tokenType);
-
-    switch (oldState.nextTurn) {
-      case X: nextTurn = Player.O; break;
-      case O: nextTurn = Player.X; break;
-    }
-
-    computeActions();
-    isTerminalState();  // ignore result
+  protected ChungToiState(long board, long hash, int lastIndex) {
+    this.board = board;
+    this.hash = hash;
+    this.lastIndex = lastIndex;
   }
 
   /** Creates a state with the given grid and the given next player. */
   @VisibleForTesting
   ChungToiState(List<TokenType> g, Player next) {
-    grid = new ArrayList<>(g);
-    nextTurn = next;
-    computeActions();
-    isTerminalState();  // ignore result
+    this(ChungToiHelper.pack(g, next),
+         ChungToiHelper.zobristHash(ChungToiHelper.pack(g, next)));
+  }
+
+  /**
+   * Returns the canonical state with an empty grid, which is shared by all
+   * games.
+   */
+  public static ChungToiState initialState() {
+    return INITIAL;
   }
 
 
@@ -129,60 +177,61 @@ public class ChungToiState implements State {
 
   @Override
   public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
     if (o == null) {
       return false;
     }
 
-    if (!ChungToiState.class.isAssignableFrom(o.getClass())) {
+    // Each variant has its own canonical states, so a state only equals a
+    // state of the same variant
+    if (this.getClass() != o.getClass()) {
       return false;
     }
 
     final ChungToiState other = (ChungToiState) o;
-
-    for (int i = 0 ; i < GRID_SIZE ; i++) {
-      if (this.grid.get(i) != other.grid.get(i)) {
-        return false;
-      }
-    }
-
-    return this.nextTurn == other.nextTurn;
+    return this.hash == other.hash && this.board == other.board;
   }
 
   @Override
   public int hashCode() {
-    int hash = 3 * grid.get(0).hashCode();
-    hash +=    5 * grid.get(1).hashCode();
-    hash +=    7 * grid.get(2).hashCode();
-    hash +=   11 * grid.get(3).hashCode();
-    hash +=   13 * grid.get(4).hashCode();
-    hash +=   17 * grid.get(5).hashCode();
-    hash +=   19 * grid.get(6).hashCode();
-    hash +=   23 * grid.get(7).hashCode();
-    hash +=   29 * grid.get(8).hashCode();
-    return hash;
+    return Zobrist.fold(hash);
   }
 
 
   // IMPLEMENTATIONS OF STATE INTERFACE METHODS
 
+  /**
+   * Returns the canonical state that results from applying the given action to
+   * this state, which is only created the first time the action is applied.
+   */
   @Override
   public State applyAction(Action action) {
-    if (ChungToiMoveAction.class.isAssignableFrom(action.getClass())){
-      return new ChungToiState(this, (ChungToiMoveAction) action);
+    int i = indexOfAction(action);
 
-    } else if (ChungToiPassAction.class.isAssignableFrom(action.getClass())){
-      return new ChungToiState(this, (ChungToiPassAction) action);
+    if (i < 0) {
+      return successor(action);
+    }
 
-    } else if (ChungToiPutAction.class.isAssignableFrom(action.getClass())){
-      return new ChungToiState(this, (ChungToiPutAction) action);
+    State next = successors.get(i);
 
-    } else {
-      return null;
+    if (next == null) {
+      next = successor(action);
+      successors.set(i, next);
     }
+
+    return next;
   }
 
+  /**
+   * Returns the list of all actions that can be taken from this state, which
+   * is computed the first time it is needed.
+   */
   @Override
   public List<Action> getActions() {
+    computeActions();
     return actions;
   }
 
@@ -197,43 +246,37 @@ public class ChungToiState implements State {
       }
     }
 
-    if (grid.get(0) != TokenType.NONE) {
-      if (ChungToiHelper.threeInARow(grid.get(0), grid.get(1), grid.get(2))
-          || ChungToiHelper.threeInARow(grid.get(0), grid.get(4), grid.get(8))
-          || ChungToiHelper.threeInARow(grid.get(0), grid.get(3), grid.get(6))) {
-        switch (grid.get(0)) {
-          case X_NORMAL:   // fall through
-          case X_DIAGONAL: winner = Winner.X; return true;
-          case O_NORMAL:   // fall through
-          case O_DIAGONAL: winner = Winner.O; return true;
-          case NONE: break;  // will not reach this case
+    if (lastIndex >= 0) {
+      // Only the player who made the last action can have completed a line,
+      // so only the cells of the lines through the last cell are read
+      boolean xMovedLast = (board & O_TO_MOVE) != 0;
+
+      for (int line : ChungToiHelper.LINES_THROUGH[lastIndex]) {
+        if (hasLine(line, xMovedLast)) {
+          winner = xMovedLast ? Winner.X : Winner.O;
+          return true;
         }
       }
-    }
 
-    if (grid.get(4) != TokenType.NONE) {
-      if (ChungToiHelper.threeInARow(grid.get(3), grid.get(4), grid.get(5))
-          || ChungToiHelper.threeInARow(grid.get(1), grid.get(4), grid.get(7))
-          || ChungToiHelper.threeInARow(grid.get(2), grid.get(4), grid.get(6))) {
-        switch (grid.get(4)) {
-          case X_NORMAL:   // fall through
-          case X_DIAGONAL: winner = Winner.X; return true;
-          case O_NORMAL:   // fall through
-          case O_DIAGONAL: winner = Winner.O; return true;
-          case NONE: break;  // will not reach this case
-        }
+    } else {
+      int xCells = 0;
+      int oCells = 0;
+
+      for (int i = 0 ; i < GRID_SIZE ; i++) {
+        int code = ChungToiHelper.cellCode(board, i);
+        if (code == 1 || code == 2) xCells |= 1 << i;
+        if (code == 3 || code == 4) oCells |= 1 << i;
       }
-    }
 
-    if (grid.get(8) != TokenType.NONE) {
-      if (ChungToiHelper.threeInARow(grid.get(6), grid.get(7), grid.get(8))
-          || ChungToiHelper.threeInARow(grid.get(2), grid.get(5), grid.get(8))) {
-        switch (grid.get(8)) {
-          case X_NORMAL:   // fall through
-          case X_DIAGONAL: winner = Winner.X; return true;
-          case O_NORMAL:   // fall through
-          case O_DIAGONAL: winner = Winner.O; return true;
-          case NONE: break;  // will not reach this case
+      for (int line : WIN_LINES) {
+        if ((xCells & line) == line) {
+          winner = Winner.X;
+          return true;
+        }
+
+        if ((oCells & line) == line) {
+          winner = Winner.O;
+          return true;
         }
       }
     }
@@ -244,300 +287,178 @@ public class ChungToiState implements State {
 
   @Override
   public void print() {
-    ChungToiHelper.print(this.grid);
+    ChungToiHelper.print(ChungToiHelper.unpack(this.board));
   }
 
   /**
-   * Returns the winner of the game, if any.
-   * <p>
-   * Can only be called after {@link #isTerminalState()}.
+   * Returns the winner of the game, if any, which is computed the first time
+   * it is needed.
    *
    * @return winner of the game, if any
    */
   Winner getWinner() {
+    isTerminalState();  // ignore result
     return winner;
   }
 
+  /** Returns the packed board of this state. */
+  long getBoard() {
+    return board;
+  }
+
+
+  // HELPER METHODS
+
+  /**
+   * Returns the canonical instance of the state that results from applying the
+   * given action at this state, or null if the action is not recognised.
+   */
+  private State successor(Action action) {
+    // A terminal state has no actions, so a line may have been there already
+    boolean incremental = !isTerminalState();
+    long next = board ^ O_TO_MOVE;
+    long nextHash = hash ^ ChungToiHelper.O_TO_MOVE_KEY;
+
+    if (ChungToiMoveAction.class.isAssignableFrom(action.getClass())){
+      ChungToiMoveAction move = (ChungToiMoveAction) action;
+      int code = ChungToiHelper.cellCode(board, move.startIndex);
+      int endCode = move.rotateToken ? ChungToiHelper.rotatedCode(code) : code;
+      next = ChungToiHelper.withCellCode(next, move.startIndex, 0);
+      next = ChungToiHelper.withCellCode(next, move.endIndex, endCode);
+      nextHash ^= ChungToiHelper.zobristKey(move.startIndex, code)
+                  ^ ChungToiHelper.zobristKey(move.endIndex, endCode);
+      return nextState(next, nextHash, incremental ? move.endIndex : -1);
+
+    } else if (ChungToiPassAction.class.isAssignableFrom(action.getClass())){
+      return nextState(next, nextHash, -1);
+
+    } else if (ChungToiPutAction.class.isAssignableFrom(action.getClass())){
+      ChungToiPutAction put = (ChungToiPutAction) action;
+      int code = ChungToiHelper.code(put.tokenType);
+      next = ChungToiHelper.withCellCode(next, put.index, code);
+      nextHash ^= ChungToiHelper.zobristKey(put.index, code);
+      return nextState(next, nextHash, incremental ? put.index : -1);
+
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether X (or O if not x) has a token on every cell of the given
+   * line, which is a mask of cells.
+   */
+  private boolean hasLine(int line, boolean x) {
+    for (int cells = line ; cells != 0 ; cells &= cells - 1) {
+      int code =
+          ChungToiHelper.cellCode(board, Integer.numberOfTrailingZeros(cells));
+
+      // Codes 1 and 2 belong to X, codes 3 and 4 belong to O
+      if (code == 0 || (code <= 2) != x) return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the position of the given action in {@link #actions}, or -1 if it
+   * is not there. Actions are usually the shared instances in the list, so
+   * they are compared by reference before {@code equals()} is called.
+   */
+  private int indexOfAction(Action action) {
+    List<Action> actions = getActions();
+
+    for (int i = 0 ; i < actions.size() ; i++) {
+      if (actions.get(i) == action) return i;
+    }
+
+    return actions.indexOf(action);
+  }
 
-  // PRIVATE HELPER METHODS
+  /**
+   * Returns the canonical instance of the state with the given packed board and
+   * its Zobrist hash that results from applying an action at this state, which
+   * left a token at the given index (or -1 to check the whole grid for a win).
+   */
+  protected ChungToiState nextState(long board, long hash, int lastIndex) {
+    return STATES.intern(new ChungToiState(board, hash, lastIndex));
+  }
 
   /**
    * Populates {@link #actions} with all actions that can be taken from this
-   * state.
+   * state, and creates {@link #successors} to hold the state each leads to.
    */
   private void computeActions() {
     // Actions are only computed once
     if (actions != null) return;
 
-    actions = new ArrayList<>();
-    actions.add(ChungToiPassAction.getInstance());  // always offer this
+    // Codes 1 and 2 belong to X, codes 3 and 4 belong to O
+    int player = (board & O_TO_MOVE) == 0 ? 0 : 1;
+    int firstCode = 2 * player + 1;
+    int empty = 0;
+    int ownTokens = 0;
 
-    // Check if next player has put down all three pieces
-    int count = 0; // X's turn if diff = 0, O's turn if diff = 1
-
-    for (TokenType t : grid) {
-      switch (t) {
-        case X_NORMAL:    // fall through
-        case X_DIAGONAL:  if (nextTurn == Player.X) count += 1; break;
-        case O_NORMAL:    // fall through
-        case O_DIAGONAL:  if (nextTurn == Player.O) count += 1; break;
-        case NONE: break;
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int code = ChungToiHelper.cellCode(board, i);
+      if (code == 0) {
+        empty |= 1 << i;
+      } else if (code == firstCode || code == firstCode + 1) {
+        ownTokens |= 1 << i;
       }
     }
 
+    List<Action> list = new ArrayList<>();
+    list.add(ChungToiPassAction.getInstance());  // always offer this
+
     // If not all pieces have been put down, only offer "put" actions
-    if (count < TOKENS_PER_PLAYER) {
+    if (Integer.bitCount(ownTokens) < TOKENS_PER_PLAYER) {
       for (int i = 0; i < GRID_SIZE ; i++) {
-        if (grid.get(i) == TokenType.NONE) {
-          switch (nextTurn) {
-            case X:
-              actions.add(new ChungToiPutAction(TokenType.X_NORMAL, i));
-              actions.add(new ChungToiPutAction(TokenType.X_DIAGONAL, i));
-              break;
-            case O:
-              actions.add(new ChungToiPutAction(TokenType.O_NORMAL, i));
-              actions.add(new ChungToiPutAction(TokenType.O_DIAGONAL, i));
-              break;
-          }
+        if ((empty & (1 << i)) != 0) {
+          Collections.addAll(list, PUT_ACTIONS[player][i]);
         }
       }
 
-      return;
-    }
-
-    // All pieces have been put down, so check which pieces can be moved/rotated
-    for (int i = 0; i < GRID_SIZE ; i++) {
-      switch (grid.get(i)) {
-        case X_NORMAL:
-          // fall through
-
-        case X_DIAGONAL:
-          if (nextTurn == Player.X) {
-            getActionsForIndex(i);
-          }
-          break;
-
-        case O_NORMAL:
-          // fall through
-
-        case O_DIAGONAL:
-          if (nextTurn == Player.O) {
-            getActionsForIndex(i);
-          }
-          break;
-
-        case NONE: break;
+    } else {
+      // All pieces have been put down, so check which pieces can be
+      // moved/rotated
+      for (int i = 0; i < GRID_SIZE ; i++) {
+        if ((ownTokens & (1 << i)) != 0) {
+          int orientation = (ChungToiHelper.cellCode(board, i) - firstCode);
+          Collections.addAll(list, MOVE_ACTIONS[i][orientation][empty]);
+        }
       }
     }
+
+    // Only publish the list once it and its successors are complete
+    successors = new AtomicReferenceArray<>(list.size());
+    actions = list;
   }
 
   /**
-   * Adds to {@link #actions} all "move" actions that are posssible from this
-   * state.
+   * Returns all "move" actions of the token at the given index when it slides
+   * in the given directions across the given mask of empty cells.
    */
-  private void getActionsForIndex(int i) {
-    actions.add(new ChungToiMoveAction(i, i, true));
+  private static ChungToiMoveAction[] buildMoveActions(
+      int index, int[][] directions, int empty) {
+    List<ChungToiMoveAction> moves = new ArrayList<>();
+    moves.add(ChungToiMoveAction.of(index, index, true));
     /* Don't add the equivalent action with "false" because this means doing
        nothing, which is the purpose of the "pass" action */
 
-    TokenType tokenType = grid.get(i);
-    List<Integer> endIndices = new ArrayList<>();
-
-    switch (i) {
-      case 0 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(1) == TokenType.NONE) {
-            endIndices.add(1);
-            if (grid.get(2) == TokenType.NONE) endIndices.add(2);
-          }
-          // Vertically
-          if (grid.get(3) == TokenType.NONE) {
-            endIndices.add(3);
-            if (grid.get(6) == TokenType.NONE) endIndices.add(6);
-          }
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(8) == TokenType.NONE) endIndices.add(8);
-          }
-        }
-        break;
-
-      case 1 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(0) == TokenType.NONE) endIndices.add(0);
-          if (grid.get(2) == TokenType.NONE) endIndices.add(2);
-          // Vertically
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(7) == TokenType.NONE) endIndices.add(7);
-          }
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(3) == TokenType.NONE) endIndices.add(3);
-          if (grid.get(5) == TokenType.NONE) endIndices.add(5);
-        }
-        break;
-
-      case 2 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(1) == TokenType.NONE) {
-            endIndices.add(1);
-            if (grid.get(0) == TokenType.NONE) endIndices.add(0);
-          }
-          // Vertically
-          if (grid.get(5) == TokenType.NONE) {
-            endIndices.add(5);
-            if (grid.get(8) == TokenType.NONE) endIndices.add(8);
-          }
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(6) == TokenType.NONE) endIndices.add(6);
-          }
-        }
-        break;
-
-      case 3 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(5) == TokenType.NONE) endIndices.add(5);
-          }
-          // Vertically
-          if (grid.get(0) == TokenType.NONE) endIndices.add(0);
-          if (grid.get(6) == TokenType.NONE) endIndices.add(6);
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(1) == TokenType.NONE) endIndices.add(1);
-          if (grid.get(7) == TokenType.NONE) endIndices.add(7);
-        }
-        break;
-
-      case 4 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(3) == TokenType.NONE) endIndices.add(3);
-          if (grid.get(5) == TokenType.NONE) endIndices.add(5);
-          // Vertically
-          if (grid.get(1) == TokenType.NONE) endIndices.add(1);
-          if (grid.get(7) == TokenType.NONE) endIndices.add(7);
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(0) == TokenType.NONE) endIndices.add(0);
-          if (grid.get(2) == TokenType.NONE) endIndices.add(2);
-          if (grid.get(6) == TokenType.NONE) endIndices.add(6);
-          if (grid.get(8) == TokenType.NONE) endIndices.add(8);
-        }
-        break;
-
-      case 5 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(3) == TokenType.NONE) endIndices.add(3);
-          }
-          // Vertically
-          if (grid.get(2) == TokenType.NONE) endIndices.add(2);
-          if (grid.get(8) == TokenType.NONE) endIndices.add(8);
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(1) == TokenType.NONE) endIndices.add(1);
-          if (grid.get(7) == TokenType.NONE) endIndices.add(7);
-        }
-        break;
-
-      case 6 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(7) == TokenType.NONE) {
-            endIndices.add(7);
-            if (grid.get(8) == TokenType.NONE) endIndices.add(8);
-          }
-          // Vertically
-          if (grid.get(3) == TokenType.NONE) {
-            endIndices.add(3);
-            if (grid.get(0) == TokenType.NONE) endIndices.add(0);
-          }
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(2) == TokenType.NONE) endIndices.add(2);
-          }
-        }
-        break;
-
-      case 7 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(6) == TokenType.NONE) endIndices.add(6);
-          if (grid.get(8) == TokenType.NONE) endIndices.add(8);
-          // Vertically
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(1) == TokenType.NONE) endIndices.add(1);
-          }
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(3) == TokenType.NONE) endIndices.add(3);
-          if (grid.get(5) == TokenType.NONE) endIndices.add(5);
-        }
-        break;
-
-      case 8 :
-        // Can move horizontally/vertically
-        if (tokenType == TokenType.X_NORMAL || tokenType == TokenType.O_NORMAL) {
-          // Horizontally
-          if (grid.get(7) == TokenType.NONE) {
-            endIndices.add(7);
-            if (grid.get(6) == TokenType.NONE) endIndices.add(6);
-          }
-          // Vertically
-          if (grid.get(5) == TokenType.NONE) {
-            endIndices.add(5);
-            if (grid.get(2) == TokenType.NONE) endIndices.add(2);
-          }
-        }
-        // Can move diagonally
-        if (tokenType == TokenType.X_DIAGONAL || tokenType == TokenType.O_DIAGONAL) {
-          if (grid.get(4) == TokenType.NONE) {
-            endIndices.add(4);
-            if (grid.get(0) == TokenType.NONE) endIndices.add(0);
-          }
-        }
-        break;
-
-      default:
-        break;
+    for (int[] d : directions) {
+      int row = index / SIDE + d[0];
+      int col = index % SIDE + d[1];
+
+      while (row >= 0 && row < SIDE && col >= 0 && col < SIDE
+             && (empty & (1 << (row * SIDE + col))) != 0) {
+        int end = row * SIDE + col;
+        moves.add(ChungToiMoveAction.of(index, end, false));
+        moves.add(ChungToiMoveAction.of(index, end, true));
+        row += d[0];
+        col += d[1];
+      }
     }
 
-    for (int end : endIndices) {
-      actions.add(new ChungToiMoveAction(i, end, false));
-      actions.add(new ChungToiMoveAction(i, end, true));
-    }
+    return moves.toArray(new ChungToiMoveAction[moves.size()]);
   }
 }
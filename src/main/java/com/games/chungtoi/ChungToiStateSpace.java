@@ -0,0 +1,175 @@
+package com.games.chungtoi;
+
+import static com.games.chungtoi.ChungToiHelper.GRID_SIZE;
+import static com.games.chungtoi.ChungToiHelper.O_TO_MOVE;
+import static com.games.chungtoi.ChungToiHelper.TOKENS_PER_PLAYER;
+
+import com.games.general.State;
+import com.games.general.StateSpace;
+
+/**
+ * Space of all states of a game of Chung Toi, which has a state for every way
+ * of placing up to three tokens of each player on the grid, in either
+ * orientation, with either player to move.
+ * <p>
+ * The states are grouped by player to move, then by the numbers x and o of X
+ * and O tokens. Within a group, a state is ranked by the set of cells of its X
+ * tokens among all cells, then the set of cells of its O tokens among the
+ * cells left, and finally the orientations of its tokens in cell order. Each
+ * set of k cells is ranked in colexicographic order, which is the sum of
+ * C(c_j, j) over its cells c_1 < ... < c_k.
+ * <p>
+ * Players can pass while putting down tokens, so either player can be to move
+ * with any numbers of tokens. The only states that cannot be reached are those
+ * in which the player to move has a line, since the game ends as soon as a
+ * line is completed.
+ */
+public final class ChungToiStateSpace implements StateSpace {
+
+  /** Binomial coefficients C(n, k) for n and k up to the grid size. */
+  private static final int[][] BINOMIAL = new int[GRID_SIZE + 1][GRID_SIZE + 1];
+
+  /**
+   * First rank, among the states with a given player to move, of the states
+   * with x X tokens and o O tokens, indexed by x and o.
+   */
+  private static final int[][] OFFSETS =
+      new int[TOKENS_PER_PLAYER + 1][TOKENS_PER_PLAYER + 1];
+
+  /** Number of states with each player to move. */
+  private static final int STATES_PER_PLAYER;
+
+  static {
+    for (int n = 0 ; n <= GRID_SIZE ; n++) {
+      BINOMIAL[n][0] = 1;
+
+      for (int k = 1 ; k <= n ; k++) {
+        BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+      }
+    }
+
+    int offset = 0;
+
+    for (int x = 0 ; x <= TOKENS_PER_PLAYER ; x++) {
+      for (int o = 0 ; o <= TOKENS_PER_PLAYER ; o++) {
+        OFFSETS[x][o] = offset;
+        offset += groupSize(x, o);
+      }
+    }
+
+    STATES_PER_PLAYER = offset;
+  }
+
+  @Override
+  public int size() {
+    return 2 * STATES_PER_PLAYER;
+  }
+
+  @Override
+  public int rank(State s) {
+    long board = ((ChungToiState) s).getBoard();
+    int x = 0;
+    int o = 0;
+    int xCells = 0;  // rank of the set of cells of the X tokens
+    int oCells = 0;  // rank of the set of cells of the O tokens
+    int orientations = 0;
+    int cellsLeft = 0;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int code = ChungToiHelper.cellCode(board, i);
+
+      // Codes 1 and 2 belong to X, codes 3 and 4 belong to O
+      if (code == 1 || code == 2) {
+        x++;
+        xCells += BINOMIAL[i][x];
+      } else {
+        if (code == 3 || code == 4) {
+          o++;
+          oCells += BINOMIAL[cellsLeft][o];
+        }
+
+        cellsLeft++;
+      }
+
+      // Codes 2 and 4 are diagonal tokens
+      if (code != 0) {
+        orientations = (orientations << 1) | (code == 2 || code == 4 ? 1 : 0);
+      }
+    }
+
+    int cells = xCells * BINOMIAL[GRID_SIZE - x][o] + oCells;
+    int rank = OFFSETS[x][o] + (cells << (x + o)) + orientations;
+    return ((board & O_TO_MOVE) == 0) ? rank : STATES_PER_PLAYER + rank;
+  }
+
+  @Override
+  public State unrank(int rank) {
+    long board = (rank < STATES_PER_PLAYER) ? 0L : O_TO_MOVE;
+    rank %= STATES_PER_PLAYER;
+
+    int x = 0;
+    int o = 0;
+
+    while (rank >= OFFSETS[x][o] + groupSize(x, o)) {
+      if (++o > TOKENS_PER_PLAYER) {
+        o = 0;
+        x++;
+      }
+    }
+
+    rank -= OFFSETS[x][o];
+    int orientations = rank & ((1 << (x + o)) - 1);
+    int cells = rank >>> (x + o);
+    int xCells = cellSet(cells / BINOMIAL[GRID_SIZE - x][o], x, GRID_SIZE);
+    int oCells = cellSet(cells % BINOMIAL[GRID_SIZE - x][o], o, GRID_SIZE - x);
+    int token = x + o;
+    int cellsLeft = 0;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int firstCode;
+
+      if ((xCells & (1 << i)) != 0) {
+        firstCode = 1;
+      } else if ((oCells & (1 << cellsLeft++)) != 0) {
+        firstCode = 3;
+      } else {
+        continue;
+      }
+
+      token--;
+      int code = firstCode + ((orientations >>> token) & 1);
+      board = ChungToiHelper.withCellCode(board, i, code);
+    }
+
+    return new ChungToiState(board, ChungToiHelper.zobristHash(board));
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /** Returns the number of states with x X tokens and o O tokens. */
+  private static int groupSize(int x, int o) {
+    return BINOMIAL[GRID_SIZE][x] * BINOMIAL[GRID_SIZE - x][o] << (x + o);
+  }
+
+  /**
+   * Returns the mask of the set of k of n cells with the given colexicographic
+   * rank.
+   */
+  private static int cellSet(int rank, int k, int n) {
+    int cells = 0;
+    int c = n - 1;
+
+    for (int j = k ; j > 0 ; j--) {
+      while (BINOMIAL[c][j] > rank) {
+        c--;
+      }
+
+      cells |= 1 << c;
+      rank -= BINOMIAL[c][j];
+      c--;
+    }
+
+    return cells;
+  }
+}
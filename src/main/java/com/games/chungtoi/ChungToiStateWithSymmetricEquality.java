@@ -0,0 +1,108 @@
+package com.games.chungtoi;
+
+import com.games.chungtoi.ChungToiHelper.Player;
+import com.games.chungtoi.ChungToiHelper.TokenType;
+import com.games.general.InternTable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.List;
+
+/**
+ * State of a game of Chung Toi that is considered equal to another state if
+ * they are symmetrical along the vertical axis, horizontal axis, major
+ * diagonal, minor diagonal, or a combination of these.
+ * <p>
+ * Every state holds the grid with the smallest packed board among those that
+ * are symmetrical to it, so the game is played on that grid from then on.
+ * <p>
+ * These states have an intern table of their own, which is never cleared
+ * either. It holds only the canonical grids, so about an eighth of the states
+ * kept by {@link ChungToiState}.
+ */
+public final class ChungToiStateWithSymmetricEquality extends ChungToiState {
+
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<ChungToiStateWithSymmetricEquality> STATES =
+      new InternTable<>();
+
+  /** Canonical state with an empty grid. */
+  private static final ChungToiStateWithSymmetricEquality INITIAL =
+      STATES.intern(new ChungToiStateWithSymmetricEquality());
+
+  // CONSTRUCTORS
+
+  /** Creates a state with an empty grid. */
+  public ChungToiStateWithSymmetricEquality() {
+    // The empty grid is already in canonical form
+    this(0L, ChungToiHelper.zobristHash(0L));
+  }
+
+  /** Creates a state with the given grid and the given next player. */
+  @VisibleForTesting
+  ChungToiStateWithSymmetricEquality(List<TokenType> g, Player next) {
+    this(ChungToiHelper.canonicalBoard(ChungToiHelper.pack(g, next)));
+  }
+
+  /** Creates a state with the given canonical packed board. */
+  private ChungToiStateWithSymmetricEquality(long canonicalBoard) {
+    this(canonicalBoard, ChungToiHelper.zobristHash(canonicalBoard));
+  }
+
+  /**
+   * Creates a state with the given canonical packed board and its Zobrist
+   * hash.
+   */
+  private ChungToiStateWithSymmetricEquality(long canonicalBoard, long hash) {
+    super(canonicalBoard, hash);
+  }
+
+  /**
+   * Creates a state with the given canonical packed board, its Zobrist hash
+   * and the index of the cell of that board where the last action left a
+   * token.
+   */
+  private ChungToiStateWithSymmetricEquality(long canonicalBoard,
+                                             long hash,
+                                             int lastIndex) {
+    super(canonicalBoard, hash, lastIndex);
+  }
+
+  /**
+   * Returns the canonical state with an empty grid, which is shared by all
+   * games.
+   */
+  public static ChungToiStateWithSymmetricEquality initialState() {
+    return INITIAL;
+  }
+
+
+  // HELPER METHOD
+
+  /**
+   * Returns the canonical instance of the state with the canonical form of the
+   * given packed board, recomputing the Zobrist hash and moving the given
+   * index only if the canonical form is a different board.
+   */
+  @Override
+  protected ChungToiState nextState(long board, long hash, int lastIndex) {
+    int[] symmetry =
+        ChungToiHelper.SYMMETRIES[ChungToiHelper.canonicalSymmetry(board)];
+    long canonicalBoard = ChungToiHelper.transform(board, symmetry);
+
+    if (canonicalBoard == board) {
+      return STATES.intern(
+          new ChungToiStateWithSymmetricEquality(board, hash, lastIndex));
+    }
+
+    if (lastIndex >= 0) {
+      lastIndex = ChungToiHelper.transformIndex(lastIndex, symmetry);
+    }
+
+    return STATES.intern(
+        new ChungToiStateWithSymmetricEquality(
+            canonicalBoard,
+            ChungToiHelper.zobristHash(canonicalBoard),
+            lastIndex));
+  }
+}
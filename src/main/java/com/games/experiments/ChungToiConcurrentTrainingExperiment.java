@@ -0,0 +1,26 @@
+package com.games.experiments;
+
+import static com.games.experiments.ExperimentHelper.GameType;
+import static com.games.experiments.ExperimentHelper.saveConcurrentTrainingResultsInCSV;
+import static com.games.experiments.ExperimentHelper.seed;
+
+import java.io.IOException;
+
+/**
+ * Main class for training agents that share what they learn at Chung Toi on
+ * more and more threads, while recording the number of games played per
+ * second with a lock-free shared store, a sharded one and a pipelined one.
+ */
+public final class ChungToiConcurrentTrainingExperiment {
+
+  public static void main(String[] args) throws IOException {
+    saveConcurrentTrainingResultsInCSV(
+        GameType.CHUNG_TOI,
+        0.10,      /* epsilon */
+        100*1000,  /* number of games */
+        Runtime.getRuntime().availableProcessors(), /* maximum threads */
+        4,         /* number of shards of the sharded store */
+        64,        /* episodes between snapshots of the pipelined store */
+        seed(args) /* seed of random choices */);
+  }
+}
@@ -0,0 +1,379 @@
+package com.games.experiments;
+
+import com.games.agents.MonteCarloAgent;
+import com.games.chungtoi.ChungToiPassAction;
+import com.games.chungtoi.ChungToiState;
+import com.games.chungtoi.ChungToiStateSpace;
+import com.games.chungtoi.ChungToiStateWithSymmetricEquality;
+import com.games.experiments.ExperimentHelper.GameType;
+import com.games.general.Action;
+import com.games.general.EnumeratedStateSpace;
+import com.games.general.State;
+import com.games.general.StateSpace;
+import com.games.nim.NimConfig;
+import com.games.nim.NimState;
+import com.games.nim.NimStateSpace;
+import com.games.nim.NimStateWithSymmetricEquality;
+import com.games.tictactoe.TicTacToeHelper.Winner;
+import com.games.tictactoe.TicTacToeNormalState;
+import com.games.tictactoe.TicTacToeState;
+import com.games.tictactoe.TicTacToeStateWithLimitedActions;
+import com.games.tictactoe.TicTacToeStateWithSymmetricEquality;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Computes the exact probabilities that a Monte Carlo agent following its
+ * current policy wins, loses and draws a game against a random agent, which
+ * chooses uniformly among the available actions.
+ * <p>
+ * Every position reachable from the initial state is a node whose value is
+ * the probability of each result of the game from there. The value of a node
+ * is the sum over the actions of the player to move of the probability of the
+ * action times the result it leads to, which is either the end of the game or
+ * the value of the next node. The values are computed by sweeping over the
+ * nodes, children first, until they stop changing. The games of Tic-Tac-Toe
+ * and Nim never revisit a node, so the first sweep is exact. In Chung Toi the
+ * players can move tokens back and forth, so the sweeps iterate to a fixed
+ * point.
+ * <p>
+ * Games with exploring starts are not supported, since their first move is
+ * not chosen by the agent's policy.
+ */
+final class ExactEvaluator {
+
+  /** Indices of the results in the arrays returned by {@link #evaluate()}. */
+  static final int WIN = 0;
+  static final int LOSS = 1;
+  static final int DRAW = 2;
+
+  /** Largest change in a value at which the values count as a fixed point. */
+  private static final double TOLERANCE = 1e-12;
+
+  /** Maximum number of sweeps, in case the values converge very slowly. */
+  private static final int MAX_SWEEPS = 100 * 1000;
+
+  /** Position in a game, from which the player to move chooses an action. */
+  private static final class Node {
+    final State state;
+    final boolean agentToMove;
+    final boolean lastActionWasPass;
+
+    boolean expanded = false;
+
+    /** Position of this node in depth-first post-order, or -1 until known. */
+    int position = -1;
+
+    /** Probability of each result right after this node's move. */
+    final double[] ending = new double[3];
+
+    /** Nodes reached by this node's moves that do not end the game. */
+    Node[] children;
+
+    /** Probability of the move that leads to each child. */
+    double[] childProbabilities;
+
+    Node(State state, boolean agentToMove, boolean lastActionWasPass) {
+      this.state = state;
+      this.agentToMove = agentToMove;
+      this.lastActionWasPass = lastActionWasPass;
+    }
+  }
+
+  private final GameType type;
+  private final MonteCarloAgent agent;
+
+  /** Space of the states of the game, which ranks the states of the nodes. */
+  private final StateSpace space;
+
+  /**
+   * Nodes found so far, indexed by whether the agent is to move and whether
+   * the last action was a pass, and then by the rank of their state.
+   */
+  private Node[] nodes;
+
+  /**
+   * Creates an evaluator of the given agent at the given type of game.
+   *
+   * @throws IllegalArgumentException if the game has exploring starts
+   */
+  ExactEvaluator(GameType type, MonteCarloAgent agent) {
+    if (type.hasExploringStarts()) {
+      throw new IllegalArgumentException(
+          "Games with exploring starts cannot be evaluated: " + type);
+    }
+
+    this.type = type;
+    this.agent = agent;
+    this.space = stateSpace();
+  }
+
+  /**
+   * Returns the probabilities that the agent wins, loses and draws, indexed by
+   * {@link #WIN}, {@link #LOSS} and {@link #DRAW}, where the agent is equally
+   * likely to go first or second.
+   */
+  double[] evaluate() {
+    double[] first = evaluate(true /* agent goes first */);
+    double[] second = evaluate(false /* agent goes second */);
+    double[] results = new double[3];
+
+    for (int r = 0 ; r < 3 ; r++) {
+      results[r] = (first[r] + second[r]) / 2;
+    }
+
+    return results;
+  }
+
+  /**
+   * Returns the probabilities that the agent wins, loses and draws when it
+   * goes first or second.
+   */
+  double[] evaluate(boolean agentGoesFirst) {
+    nodes = new Node[4 * space.size()];
+    Node root = node(initialState(), agentGoesFirst, false);
+    List<Node> order = expandAll(root);
+    int numNodes = order.size();
+
+    // The graph is copied into arrays, since the sweeps visit every edge many
+    // times when there are cycles
+    int[] childStarts = new int[numNodes + 1];
+    double[] endings = new double[3 * numNodes];
+
+    for (int i = 0 ; i < numNodes ; i++) {
+      Node n = order.get(i);
+      childStarts[i + 1] = childStarts[i] + n.children.length;
+      System.arraycopy(n.ending, 0, endings, 3 * i, 3);
+    }
+
+    int[] children = new int[childStarts[numNodes]];
+    double[] childProbabilities = new double[childStarts[numNodes]];
+
+    for (int i = 0 ; i < numNodes ; i++) {
+      Node n = order.get(i);
+
+      for (int c = 0 ; c < n.children.length ; c++) {
+        children[childStarts[i] + c] = n.children[c].position;
+        childProbabilities[childStarts[i] + c] = n.childProbabilities[c];
+      }
+    }
+
+    double[] values = new double[3 * numNodes];
+
+    for (int sweep = 0 ; sweep < MAX_SWEEPS ; sweep++) {
+      double maxChange = sweep(childStarts,
+                               children,
+                               childProbabilities,
+                               endings,
+                               values);
+      if (maxChange < TOLERANCE) {
+        break;
+      }
+    }
+
+    int r = 3 * root.position;
+    return Arrays.copyOfRange(values, r, r + 3);
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Finds all nodes reachable from the given one and returns them in depth-
+   * first post-order, so that every child comes before its parent unless they
+   * are on a cycle.
+   */
+  private List<Node> expandAll(Node root) {
+    List<Node> order = new ArrayList<>();
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+
+    while (!stack.isEmpty()) {
+      Node n = stack.peek();
+
+      if (!n.expanded) {
+        expand(n);
+
+        for (Node child : n.children) {
+          if (!child.expanded) {
+            stack.push(child);
+          }
+        }
+
+      } else {
+        stack.pop();
+
+        if (n.position < 0) {
+          n.position = order.size();
+          order.add(n);
+        }
+      }
+    }
+
+    return order;
+  }
+
+  /** Computes the results and children of the moves from the given node. */
+  private void expand(Node n) {
+    n.expanded = true;
+
+    List<Action> actions = n.state.getActions();
+    double[] probabilities;
+
+    if (n.agentToMove) {
+      probabilities = agent.getActionProbabilities(n.state);
+    } else {
+      probabilities = new double[actions.size()];
+      Arrays.fill(probabilities, 1.0 / actions.size());
+    }
+
+    List<Node> children = new ArrayList<>();
+    List<Double> childProbabilities = new ArrayList<>();
+
+    for (int i = 0 ; i < actions.size() ; i++) {
+      Action a = actions.get(i);
+      State next = n.state.applyAction(a);
+      boolean pass = a instanceof ChungToiPassAction;
+
+      if (next.isTerminalState()) {
+        int result = moverResult(next);
+
+        if (!n.agentToMove && result != DRAW) {
+          result = (result == WIN) ? LOSS : WIN;
+        }
+
+        n.ending[result] += probabilities[i];
+
+      } else if (pass && n.lastActionWasPass) {
+        // Both players passed, which means the game is a draw
+        n.ending[DRAW] += probabilities[i];
+
+      } else {
+        children.add(node(next, !n.agentToMove, pass));
+        childProbabilities.add(probabilities[i]);
+      }
+    }
+
+    n.children = children.toArray(new Node[children.size()]);
+    n.childProbabilities = new double[children.size()];
+
+    for (int i = 0 ; i < n.childProbabilities.length ; i++) {
+      n.childProbabilities[i] = childProbabilities.get(i);
+    }
+  }
+
+  /**
+   * Recomputes the value of every node in post-order and returns the largest
+   * change in a value, where the children of node i are at positions
+   * childStarts[i] to childStarts[i + 1] - 1 of children, and the results of
+   * node i are at positions 3i to 3i + 2 of endings and values.
+   */
+  private static double sweep(int[] childStarts,
+                              int[] children,
+                              double[] childProbabilities,
+                              double[] endings,
+                              double[] values) {
+    double maxChange = 0.0;
+
+    for (int i = 0 ; i < childStarts.length - 1 ; i++) {
+      double win = endings[3*i + WIN];
+      double loss = endings[3*i + LOSS];
+      double draw = endings[3*i + DRAW];
+
+      for (int c = childStarts[i] ; c < childStarts[i + 1] ; c++) {
+        int child = 3 * children[c];
+        double p = childProbabilities[c];
+        win += p * values[child + WIN];
+        loss += p * values[child + LOSS];
+        draw += p * values[child + DRAW];
+      }
+
+      maxChange = Math.max(maxChange, Math.abs(win - values[3*i + WIN]));
+      maxChange = Math.max(maxChange, Math.abs(loss - values[3*i + LOSS]));
+      maxChange = Math.max(maxChange, Math.abs(draw - values[3*i + DRAW]));
+      values[3*i + WIN] = win;
+      values[3*i + LOSS] = loss;
+      values[3*i + DRAW] = draw;
+    }
+
+    return maxChange;
+  }
+
+  /** Returns the node with the given state and flags, creating it if needed. */
+  private Node node(State s, boolean agentToMove, boolean lastActionWasPass) {
+    int key = (agentToMove ? 2 : 0) + (lastActionWasPass ? 1 : 0);
+    int index = key * space.size() + space.rank(s);
+
+    if (nodes[index] == null) {
+      nodes[index] = new Node(s, agentToMove, lastActionWasPass);
+    }
+
+    return nodes[index];
+  }
+
+  /**
+   * Returns the result of a game that ended at the given state for the player
+   * who made the last move.
+   */
+  private int moverResult(State terminal) {
+    switch (type) {
+      case CHUNG_TOI:  // fall through
+      case CHUNG_TOI_SYMMETRIC_EQUALITY:
+        // Only the player who moves can complete a line of their tokens
+        return WIN;
+      case NIM:  // fall through
+      case NIM_SYMMETRIC_EQUALITY:
+        // The player who takes the last token loses
+        return LOSS;
+      case TIC_TAC_TOE_NORMAL:  // fall through
+      case TIC_TAC_TOE_LIMITED_ACTIONS:  // fall through
+      case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
+        return ((TicTacToeState) terminal).getWinner() == Winner.DRAW ? DRAW
+                                                                       : WIN;
+      default:
+        throw new IllegalArgumentException("Unsupported game type: " + type);
+    }
+  }
+
+  private StateSpace stateSpace() {
+    switch (type) {
+      case CHUNG_TOI:
+        return new ChungToiStateSpace();
+      case NIM:
+        return new NimStateSpace(NimConfig.DEFAULT);
+      case CHUNG_TOI_SYMMETRIC_EQUALITY:  // fall through
+      case NIM_SYMMETRIC_EQUALITY:  // fall through
+      case TIC_TAC_TOE_NORMAL:  // fall through
+      case TIC_TAC_TOE_LIMITED_ACTIONS:  // fall through
+      case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
+        return new EnumeratedStateSpace(initialState());
+      default:
+        throw new IllegalArgumentException("Unsupported game type: " + type);
+    }
+  }
+
+  private State initialState() {
+    switch (type) {
+      case CHUNG_TOI:
+        return new ChungToiState();
+      case CHUNG_TOI_SYMMETRIC_EQUALITY:
+        return new ChungToiStateWithSymmetricEquality();
+      case NIM:
+        return new NimState();
+      case NIM_SYMMETRIC_EQUALITY:
+        return new NimStateWithSymmetricEquality();
+      case TIC_TAC_TOE_LIMITED_ACTIONS:
+        return new TicTacToeStateWithLimitedActions();
+      case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
+        return new TicTacToeStateWithSymmetricEquality();
+      case TIC_TAC_TOE_NORMAL:
+        return new TicTacToeNormalState();
+      default:
+        throw new IllegalArgumentException("Unsupported game type: " + type);
+    }
+  }
+}
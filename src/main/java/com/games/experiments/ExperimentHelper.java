@@ -3,20 +3,41 @@ package com.games.experiments;
 import com.games.agents.MonteCarloAgent;
 import com.games.agents.MonteCarloESAgent;
 import com.games.agents.RandomAgent;
-import com.games.chungtoi.ChungToiGame;
+import com.games.agents.ConcurrentActionValues;
+import com.games.agents.SharedActionValues;
+import com.games.agents.PipelinedActionValues;
+import com.games.agents.ShardedActionValues;
+import com.games.agents.SharedMonteCarloAgent;
+import com.games.agents.Storage;
+import com.games.chungtoi.ChungToiRules;
+import com.games.chungtoi.ChungToiState;
+import com.games.chungtoi.ChungToiStateWithSymmetricEquality;
+import com.games.general.Agent;
 import com.games.general.Game;
+import com.games.general.GameRules;
+import com.games.general.GameStats;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
 import com.games.general.State;
-import com.games.nim.NimGame;
-import com.games.nim.NimGameES;
-import com.games.tictactoe.TicTacToeGameWithLimitedActions;
-import com.games.tictactoe.TicTacToeGameWithSymmetricEquality;
-import com.games.tictactoe.TicTacToeNormalGame;
+import com.games.general.TurnBasedGame;
+import com.games.general.VectorizedGame;
+import com.games.nim.NimConfig;
+import com.games.nim.NimRules;
+import com.games.tictactoe.TicTacToeNormalState;
+import com.games.tictactoe.TicTacToeRules;
+import com.games.tictactoe.TicTacToeStateWithLimitedActions;
+import com.games.tictactoe.TicTacToeStateWithSymmetricEquality;
 
 import com.opencsv.CSVWriter;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public final class ExperimentHelper {
 
@@ -26,22 +47,57 @@ public final class ExperimentHelper {
   private static final String EPSILON_TEST_RESULTS_FILE_NAME =
       "./%s_EpsilonResults_%dTrainingGames_%dTestGames.csv";
 
+  private static final String EPSILON_EXACT_RESULTS_FILE_NAME =
+      "./%s_EpsilonResults_%dTrainingGames_Exact.csv";
+
   private static final String PERFORMANCE_RESULTS_FILE_NAME =
       "./%s_PerformanceResults_Epsilon%.2f_%dGames_WithPolicySize.csv";
 
+  private static final String CONCURRENT_TRAINING_RESULTS_FILE_NAME =
+      "./%s_ConcurrentTrainingResults_Epsilon%.2f_%dGames.csv";
+
+  /** Number of batches of returns that each shard's queue can hold. */
+  private static final int SHARD_QUEUE_CAPACITY = 1024;
+
+  /** Number of episodes that the buffer of the pipelined store can hold. */
+  private static final int PIPELINE_BUFFER_CAPACITY = 1024;
+
+  /** Number of episodes the learner of the pipelined store takes at once. */
+  private static final int PIPELINE_BATCH_SIZE = 64;
+
   private static final String EPSILON_HEADER = "Epsilon";
   private static final String NUM_GAMES_HEADER = "NumGames";
   private static final String WIN_HEADER  ="%sWin";
   private static final String LOSS_HEADER ="%sLoss";
   private static final String DRAW_HEADER ="%sDraw";
   private static final String POLICY_STATES_HEADER = "StatesInPolicy";
+  private static final String THREADS_HEADER = "Threads";
+  private static final String STORE_HEADER = "Store";
+  private static final String GAMES_PER_SECOND_HEADER = "GamesPerSecond";
 
   private ExperimentHelper() {}  // restrict instantiation
 
+  /**
+   * Returns the seed given as the first command-line argument, or a random
+   * seed (which is printed so that the run can be repeated) if there is none.
+   */
+  static long seed(String[] args) {
+    if (args.length > 0) {
+      return Long.parseLong(args[0]);
+    }
+
+    long seed = new SplittableRandom().nextLong();
+    System.out.println("Seed: " + seed);
+    return seed;
+  }
+
   enum GameType {
     CHUNG_TOI ("ChungToi"),
+    CHUNG_TOI_SYMMETRIC_EQUALITY ("ChungToiSymmetricEquality"),
     NIM ("Nim"),
     NIM_ES ("NimExploringStarts"),
+    NIM_SYMMETRIC_EQUALITY ("NimSymmetricEquality"),
+    NIM_ES_SYMMETRIC_EQUALITY ("NimExploringStartsSymmetricEquality"),
     TIC_TAC_TOE_NORMAL ("TicTacToeNormal"),
     TIC_TAC_TOE_LIMITED_ACTIONS ("TicTacToeLimitedActions"),
     TIC_TAC_TOE_SYMMETRIC_EQUALITY ("TicTacToeSymmetricEquality");
@@ -55,6 +111,11 @@ public final class ExperimentHelper {
     public String toString() {
       return this.name;
     }
+
+    /** Returns whether games of this type start with a random action. */
+    boolean hasExploringStarts() {
+      return this == NIM_ES || this == NIM_ES_SYMMETRIC_EQUALITY;
+    }
   }
 
   /**
@@ -69,6 +130,8 @@ public final class ExperimentHelper {
    * @param numGames         number of games to play
    * @param debug            whether or not to print debugging statements to the
    *                         console
+   * @param seed             seed of all random choices made by the agents and
+   *                         games
    */
   static void saveEpsilonTrainingResultsInCSV(
       GameType type,
@@ -76,7 +139,8 @@ public final class ExperimentHelper {
       double epsilonEnd,
       double epsilonPrecision,
       int numGames,
-      boolean debug) throws IOException {
+      boolean debug,
+      long seed) throws IOException {
 
     String fileName = String.format(EPSILON_TRAINING_RESULTS_FILE_NAME,
                                     type.toString(),
@@ -101,69 +165,18 @@ public final class ExperimentHelper {
 
       csvWriter.writeNext(headerRecord);
 
-      iterate_epsilon:
-      for (double epsilon = epsilonStart ;
-           epsilon <= epsilonEnd + (epsilonPrecision/10);  // for floating-point error
-           epsilon += epsilonPrecision) {
-
-        if (debug) {
-          System.out.println();
-          System.out.println("-------------------------------------------");
-          System.out.println("-------------------------------------------");
-          System.out.println("NEW EPSILON VALUE: " + epsilon);
-        }
-
-        if (epsilon > epsilonEnd) {  // due to floating-point error
-          epsilon = epsilonEnd;
-        }
-
-        int[] wins = new int[3];  // index 0 is draw, 1 is agent1, 2 is agent2
-        Game game = null;
-        MonteCarloAgent mcAgent = new MonteCarloAgent(epsilon, debug);
-        RandomAgent randAgent = new RandomAgent();
-
-        for (int gameNum = 1 ; gameNum <= numGames ; gameNum++) {
-          if (debug) {
-            System.out.println();
-            System.out.println("-------------------------------------------");
-            System.out.println("GAME #" + gameNum);
-            System.out.println("-------------------------------------------");
-            System.out.println();
-          }
-
-          switch (type) {
-            case CHUNG_TOI:
-              game = new ChungToiGame(mcAgent, randAgent);
-              break;
-            case NIM:
-              game = new NimGame(mcAgent, randAgent);
-              break;
-            case NIM_ES:
-              break iterate_epsilon;
-            case TIC_TAC_TOE_NORMAL:
-              game = new TicTacToeNormalGame(mcAgent, randAgent);
-              break;
-            case TIC_TAC_TOE_LIMITED_ACTIONS:
-              game = new TicTacToeGameWithLimitedActions(mcAgent, randAgent);
-              break;
-            case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
-              game = new TicTacToeGameWithSymmetricEquality(mcAgent, randAgent);
-              break;
-          }
-
-          int winner = game.play();
-          if (winner == -1) System.out.println("ERROR");
-          wins[winner]++;
-        }
-
-        csvWriter.writeNext(new String[] {
-          String.valueOf(epsilon),
-          String.valueOf(wins[1]),
-          String.valueOf(wins[2]),
-          String.valueOf(wins[0]),
-          String.valueOf(mcAgent.getPolicy().size())});
-       }
-     }
+      for (String[] row : playEpsilonValues(type,
+                                             epsilonStart,
+                                             epsilonEnd,
+                                             epsilonPrecision,
+                                             0,  /* no training games */
+                                             numGames,
+                                             false /* sample test games */,
+                                             debug,
+                                             seed)) {
+        csvWriter.writeNext(row);
+      }
+    }
   }
 
   /**
@@ -179,6 +192,8 @@ public final class ExperimentHelper {
    * @param testGames        number of games to test on (i.e. save results for)
    * @param debug            whether or not to print debugging statements to the
    *                         console
+   * @param seed             seed of all random choices made by the agents and
+   *                         games
    */
   static void saveEpsilonTestResultsInCSV(
       GameType type,
@@ -187,7 +202,8 @@ public final class ExperimentHelper {
       double epsilonPrecision,
       int trainingGames,
       int testGames,
-      boolean debug) throws IOException {
+      boolean debug,
+      long seed) throws IOException {
 
     String fileName = String.format(EPSILON_TEST_RESULTS_FILE_NAME,
                                     type.toString(),
@@ -213,101 +229,84 @@ public final class ExperimentHelper {
 
       csvWriter.writeNext(headerRecord);
 
-      iterate_epsilon:
-      for (double epsilon = epsilonStart ;
-           epsilon <= epsilonEnd + (epsilonPrecision/10);  // for floating-point error
-           epsilon += epsilonPrecision) {
+      for (String[] row : playEpsilonValues(type,
+                                             epsilonStart,
+                                             epsilonEnd,
+                                             epsilonPrecision,
+                                             trainingGames,
+                                             testGames,
+                                             false /* sample test games */,
+                                             debug,
+                                             seed)) {
+        csvWriter.writeNext(row);
+      }
+    }
+  }
 
-        if (debug) {
-          System.out.println();
-          System.out.println("-------------------------------------------");
-          System.out.println("-------------------------------------------");
-          System.out.println("NEW EPSILON VALUE: " + epsilon);
-        }
+  /**
+   * Trains a Monte Carlo agent on the given type of game against a random agent
+   * the given number of times, repeating for each value of epsilon in the given
+   * range (inclusive), and saves the exact probabilities that the trained
+   * policy wins, loses and draws against the random agent in a CSV file.
+   * <p>
+   * Unlike {@link #saveEpsilonTestResultsInCSV}, no test games are played, so
+   * the results have no sampling error and the agent does not keep learning
+   * while it is tested. Games with exploring starts are not supported.
+   *
+   * @param type             type of two-player game to play
+   * @param epsilonStart     smallest epsilon value to try
+   * @param epsilonEnd       largest epsilon value to try
+   * @param epsilonPrecision difference between consecutive values tried
+   * @param trainingGames    number of games to train with
+   * @param debug            whether or not to print debugging statements to the
+   *                         console
+   * @param seed             seed of all random choices made by the agents and
+   *                         games
+   */
+  static void saveEpsilonExactResultsInCSV(
+      GameType type,
+      double epsilonStart,
+      double epsilonEnd,
+      double epsilonPrecision,
+      int trainingGames,
+      boolean debug,
+      long seed) throws IOException {
 
-        if (epsilon > epsilonEnd) {  // due to floating-point error
-          epsilon = epsilonEnd;
-        }
+    String fileName = String.format(EPSILON_EXACT_RESULTS_FILE_NAME,
+                                    type.toString(),
+                                    trainingGames);
 
-        int[] wins = new int[3];  // index 0 is draw, 1 is agent1, 2 is agent2
-        Game game = null;
-        MonteCarloAgent mcAgent = new MonteCarloAgent(epsilon, debug);
-        RandomAgent randAgent = new RandomAgent();
-
-        for (int gameNum = 1 ; gameNum <= trainingGames ; gameNum++) {
-          if (debug) {
-            System.out.println();
-            System.out.println("-------------------------------------------");
-            System.out.println("TRAINING GAME #" + gameNum);
-            System.out.println("-------------------------------------------");
-            System.out.println();
-          }
-
-          switch (type) {
-            case CHUNG_TOI:
-              game = new ChungToiGame(mcAgent, randAgent);
-              break;
-            case NIM:
-              game = new NimGame(mcAgent, randAgent);
-              break;
-            case NIM_ES:
-              break iterate_epsilon;
-            case TIC_TAC_TOE_NORMAL:
-              game = new TicTacToeNormalGame(mcAgent, randAgent);
-              break;
-            case TIC_TAC_TOE_LIMITED_ACTIONS:
-              game = new TicTacToeGameWithLimitedActions(mcAgent, randAgent);
-              break;
-            case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
-              game = new TicTacToeGameWithSymmetricEquality(mcAgent, randAgent);
-              break;
-          }
-
-          game.play();
-        }
+    try (
+      CSVWriter csvWriter = new CSVWriter(
+          Files.newBufferedWriter(Paths.get(fileName)),
+          CSVWriter.DEFAULT_SEPARATOR,
+          CSVWriter.NO_QUOTE_CHARACTER,
+          CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+          CSVWriter.DEFAULT_LINE_END);
+    ) {
+      // Headers of CSV file
+      String[] headerRecord = new String[] {
+          EPSILON_HEADER,
+          String.format(WIN_HEADER,  type.toString()),
+          String.format(LOSS_HEADER, type.toString()),
+          String.format(DRAW_HEADER, type.toString()),
+          POLICY_STATES_HEADER
+        };
 
-        for (int gameNum = 1 ; gameNum <= testGames ; gameNum++) {
-          if (debug) {
-            System.out.println();
-            System.out.println("-------------------------------------------");
-            System.out.println("TEST GAME #" + gameNum);
-            System.out.println("-------------------------------------------");
-            System.out.println();
-          }
-
-          switch (type) {
-            case CHUNG_TOI:
-              game = new ChungToiGame(mcAgent, randAgent);
-              break;
-            case NIM:
-              game = new NimGame(mcAgent, randAgent);
-              break;
-            case NIM_ES:
-              break iterate_epsilon;
-            case TIC_TAC_TOE_NORMAL:
-              game = new TicTacToeNormalGame(mcAgent, randAgent);
-              break;
-            case TIC_TAC_TOE_LIMITED_ACTIONS:
-              game = new TicTacToeGameWithLimitedActions(mcAgent, randAgent);
-              break;
-            case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
-              game = new TicTacToeGameWithSymmetricEquality(mcAgent, randAgent);
-              break;
-          }
-
-          int winner = game.play();
-          if (winner == -1) System.out.println("ERROR");
-          wins[winner]++;
-        }
+      csvWriter.writeNext(headerRecord);
 
-        csvWriter.writeNext(new String[] {
-          String.valueOf(epsilon),
-          String.valueOf(wins[1]),
-          String.valueOf(wins[2]),
-          String.valueOf(wins[0]),
-          String.valueOf(mcAgent.getPolicy().size())});
-       }
-     }
+      for (String[] row : playEpsilonValues(type,
+                                             epsilonStart,
+                                             epsilonEnd,
+                                             epsilonPrecision,
+                                             trainingGames,
+                                             0    /* test games */,
+                                             true /* exact results */,
+                                             debug,
+                                             seed)) {
+        csvWriter.writeNext(row);
+      }
+    }
   }
 
   /**
@@ -321,13 +320,16 @@ public final class ExperimentHelper {
    * @param resultInterval number of games between datapoints saved to CSV file
    * @param debug          whether or not to print debugging statements to the
    *                       console
+   * @param seed           seed of all random choices made by the agents and
+   *                       games
    */
   static void savePerformanceResultsInCSV(
       GameType type,
       double epsilon,
       int numGames,
       int resultInterval,
-      boolean debug) throws IOException {
+      boolean debug,
+      long seed) throws IOException {
 
     String fileName = String.format(PERFORMANCE_RESULTS_FILE_NAME,
                                     type.toString(),
@@ -353,50 +355,410 @@ public final class ExperimentHelper {
 
       csvWriter.writeNext(headerRecord);
 
-      int[] wins = new int[3]; // index 0 is draw, 1 is agent1, 2 is agent2
-      Game game = null;
-      boolean exploringStarts = false;
-      MonteCarloAgent mcAgent = new MonteCarloAgent(epsilon, debug);
-      MonteCarloESAgent mcAgentES = new MonteCarloESAgent(debug);
-      RandomAgent randAgent = new RandomAgent();
-
-      for (int gamesSoFar = 1 ; gamesSoFar <= numGames ; gamesSoFar++) {
-        switch (type) {
-          case CHUNG_TOI:
-            game = new ChungToiGame(mcAgent, randAgent);
-            break;
-          case NIM:
-            game = new NimGame(mcAgent, randAgent);
-            break;
-          case NIM_ES:
-            game = new NimGameES(mcAgentES, randAgent);
-            exploringStarts = true;
-            break;
-          case TIC_TAC_TOE_NORMAL:
-            game = new TicTacToeNormalGame(mcAgent, randAgent);
-            break;
-          case TIC_TAC_TOE_LIMITED_ACTIONS:
-            game = new TicTacToeGameWithLimitedActions(mcAgent, randAgent);
-            break;
-          case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
-            game = new TicTacToeGameWithSymmetricEquality(mcAgent, randAgent);
-            break;
+      RandomSource random = new SplittableRandomSource(seed);
+      GameStats stats = new GameStats();
+      boolean exploringStarts = type.hasExploringStarts();
+      MonteCarloAgent mcAgent = new MonteCarloAgent(
+          epsilon, debug, Storage.TABULAR_GREEDY, random.split());
+      MonteCarloESAgent mcAgentES =
+          new MonteCarloESAgent(debug, Storage.TABULAR, random.split());
+      RandomAgent randAgent = new RandomAgent(random.split());
+
+      // One game is reset after each episode rather than created for it
+      Game game = newGame(type,
+                          exploringStarts ? mcAgentES : mcAgent,
+                          randAgent,
+                          random);
+
+      for (int gamesSoFar = 0 ; gamesSoFar < numGames ; ) {
+        int n = Math.min(resultInterval - gamesSoFar % resultInterval,
+                         numGames - gamesSoFar);
+        int unfinished = stats.unfinished();
+        game.playMany(n, stats);
+        gamesSoFar += n;
+
+        if (stats.unfinished() > unfinished) {
+          throw new IllegalStateException(
+              (stats.unfinished() - unfinished) + " game(s) did not finish");
         }
 
-        int winner = game.play();
-        if (winner == -1) System.out.println("ERROR");
-        wins[winner]++;
-
         if (gamesSoFar % resultInterval == 0)
           csvWriter.writeNext(new String[] {
             String.valueOf(gamesSoFar),
-            String.valueOf(wins[1]),
-            String.valueOf(wins[2]),
-            String.valueOf(wins[0]),
-            String.valueOf(exploringStarts ? mcAgentES.getPolicy().size()
-                                           : mcAgent.getPolicy().size())
+            String.valueOf(stats.wins(1)),
+            String.valueOf(stats.wins(2)),
+            String.valueOf(stats.draws()),
+            String.valueOf(exploringStarts ? mcAgentES.getPolicySize()
+                                           : mcAgent.getPolicySize())
           });
       }
     }
   }
+
+  /**
+   * Trains Monte Carlo agents that share one action-value function on 1, 2,
+   * 4, ... threads up to the given number, each time from scratch, and saves
+   * the number of games per second and the size of the policy in a CSV file.
+   * Each number of threads is tried with a {@link SharedActionValues} store,
+   * a {@link ShardedActionValues} store and a {@link PipelinedActionValues}
+   * store.
+   *
+   * @param type       type of two-player game to play
+   * @param epsilon    value of epsilon to use for the Monte Carlo agents
+   * @param numGames   number of games to play with each number of threads
+   * @param maxThreads largest number of threads to try
+   * @param numShards  number of shards of the sharded store, each of which
+   *                   has a thread of its own on top of the playing threads
+   * @param publishInterval number of episodes learned by the pipelined store
+   *                   between two published snapshots of its policy
+   * @param seed       seed of all random choices made by the agents and games
+   */
+  static void saveConcurrentTrainingResultsInCSV(
+      GameType type,
+      double epsilon,
+      int numGames,
+      int maxThreads,
+      int numShards,
+      int publishInterval,
+      long seed) throws IOException {
+
+    String fileName = String.format(CONCURRENT_TRAINING_RESULTS_FILE_NAME,
+                                    type.toString(),
+                                    epsilon,
+                                    numGames);
+
+    try (
+      CSVWriter csvWriter = new CSVWriter(
+          Files.newBufferedWriter(Paths.get(fileName)),
+          CSVWriter.DEFAULT_SEPARATOR,
+          CSVWriter.NO_QUOTE_CHARACTER,
+          CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+          CSVWriter.DEFAULT_LINE_END);
+    ) {
+      // Headers of CSV file
+      String[] headerRecord = new String[] {
+          THREADS_HEADER,
+          STORE_HEADER,
+          GAMES_PER_SECOND_HEADER,
+          POLICY_STATES_HEADER
+        };
+
+      csvWriter.writeNext(headerRecord);
+
+      for (int threads = 1 ; threads <= maxThreads ; threads *= 2) {
+        csvWriter.writeNext(timeConcurrentTraining(
+            type, new SharedActionValues(), epsilon, numGames, threads, seed));
+
+        try (ShardedActionValues values =
+                 new ShardedActionValues(numShards, SHARD_QUEUE_CAPACITY)) {
+          csvWriter.writeNext(timeConcurrentTraining(
+              type, values, epsilon, numGames, threads, seed));
+        }
+
+        try (PipelinedActionValues values =
+                 new PipelinedActionValues(PIPELINE_BUFFER_CAPACITY,
+                                           PIPELINE_BATCH_SIZE,
+                                           publishInterval)) {
+          csvWriter.writeNext(timeConcurrentTraining(
+              type, values, epsilon, numGames, threads, seed));
+        }
+      }
+    }
+  }
+
+  /**
+   * Trains Monte Carlo agents that share the given action-value function on
+   * the given number of threads and returns the CSV row of the number of
+   * games per second and the size of the policy.
+   */
+  private static String[] timeConcurrentTraining(
+      GameType type,
+      ConcurrentActionValues values,
+      double epsilon,
+      int numGames,
+      int numThreads,
+      long seed) {
+    long start = System.nanoTime();
+    trainConcurrently(type,
+                      values,
+                      epsilon,
+                      numGames,
+                      numThreads,
+                      new SplittableRandomSource(seed));
+    values.awaitReturns();
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    return new String[] {
+      String.valueOf(numThreads),
+      values.getClass().getSimpleName(),
+      String.format("%.0f", numGames / seconds),
+      String.valueOf(values.size())
+    };
+  }
+
+  /**
+   * Makes Monte Carlo agents play the given type of game against random agents
+   * on the given number of threads, splitting the given number of games among
+   * them, where all the Monte Carlo agents learn into the given action-value
+   * function at the same time.
+   * <p>
+   * Each thread has its own agents, game and stream of random numbers split
+   * from the given source in order of thread. Since the agents read what the
+   * other threads have learnt so far, the results with more than one thread
+   * depend on how the threads interleave.
+   *
+   * @param type       type of two-player game to play
+   * @param values     action-value function shared by the Monte Carlo agents
+   * @param epsilon    value of epsilon to use for the Monte Carlo agents
+   * @param numGames   total number of games to play
+   * @param numThreads number of threads to play on
+   * @param root       source from which the threads' sources are split
+   */
+  static void trainConcurrently(GameType type,
+                                ConcurrentActionValues values,
+                                double epsilon,
+                                int numGames,
+                                int numThreads,
+                                RandomSource root) {
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    ForkJoinPool pool = new ForkJoinPool(numThreads);
+
+    try {
+      for (int t = 0 ; t < numThreads ; t++) {
+        int games = numGames / numThreads + (t < numGames % numThreads ? 1 : 0);
+        RandomSource random = root.split();
+        tasks.add(pool.submit(() -> {
+          SharedMonteCarloAgent mcAgent =
+              new SharedMonteCarloAgent(epsilon, values, random.split());
+          RandomAgent randAgent = new RandomAgent(random.split());
+          newGame(type, mcAgent, randAgent, random)
+              .playMany(games, new GameStats());
+        }));
+      }
+
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Makes a Monte Carlo agent play the given type of game against a random
+   * agent for each value of epsilon in the given range (inclusive) and returns
+   * the CSV rows of the results in order of epsilon.
+   * <p>
+   * The epsilon values share no state, so each one is played as a separate
+   * task in a fork-join pool, with its own stream of random numbers split from
+   * the seed in order of epsilon. The results are therefore the same however
+   * the tasks are scheduled. If debug is true, the tasks run on one thread so
+   * that the debugging statements of different games are not interleaved.
+   *
+   * @param type             type of two-player game to play
+   * @param epsilonStart     smallest epsilon value to try
+   * @param epsilonEnd       largest epsilon value to try
+   * @param epsilonPrecision difference between consecutive values tried
+   * @param trainingGames    number of games to train with
+   * @param testGames        number of games to test on (i.e. save results for)
+   * @param exact            whether to save the exact probabilities of each
+   *                         result under the trained policy instead of playing
+   *                         test games
+   * @param debug            whether or not to print debugging statements to the
+   *                         console
+   * @param seed             seed of all random choices made by the agents and
+   *                         games
+   * @return                 one row per epsilon value
+   */
+  private static List<String[]> playEpsilonValues(
+      GameType type,
+      double epsilonStart,
+      double epsilonEnd,
+      double epsilonPrecision,
+      int trainingGames,
+      int testGames,
+      boolean exact,
+      boolean debug,
+      long seed) {
+
+    List<String[]> rows = new ArrayList<>();
+
+    if (type.hasExploringStarts()) {
+      return rows;  // epsilon is ignored with exploring starts
+    }
+
+    RandomSource root = new SplittableRandomSource(seed);
+    List<ForkJoinTask<String[]>> tasks = new ArrayList<>();
+    ForkJoinPool pool = debug ? new ForkJoinPool(1) : new ForkJoinPool();
+
+    try {
+      for (double e = epsilonStart ;
+           e <= epsilonEnd + (epsilonPrecision/10);  // for floating-point error
+           e += epsilonPrecision) {
+        double epsilon = Math.min(e, epsilonEnd);  // due to floating-point error
+        RandomSource random = root.split();
+        tasks.add(pool.submit(() -> playEpsilonValue(
+            type, epsilon, trainingGames, testGames, exact, debug, random)));
+      }
+
+      for (ForkJoinTask<String[]> task : tasks) {
+        rows.add(task.join());
+      }
+
+    } finally {
+      pool.shutdown();
+    }
+
+    return rows;
+  }
+
+  /**
+   * Makes a Monte Carlo agent with the given epsilon play the given type of
+   * game against a random agent and returns the CSV row of the results of the
+   * test games, or of the exact probabilities of each result if exact is true.
+   */
+  private static String[] playEpsilonValue(GameType type,
+                                           double epsilon,
+                                           int trainingGames,
+                                           int testGames,
+                                           boolean exact,
+                                           boolean debug,
+                                           RandomSource random) {
+    if (debug) {
+      System.out.println();
+      System.out.println("-------------------------------------------");
+      System.out.println("-------------------------------------------");
+      System.out.println("NEW EPSILON VALUE: " + epsilon);
+    }
+
+    GameStats stats = new GameStats();
+    MonteCarloAgent mcAgent = new MonteCarloAgent(
+        epsilon, debug, Storage.TABULAR_GREEDY, random.split());
+    RandomAgent randAgent = new RandomAgent(random.split());
+    Game game = newGame(type, mcAgent, randAgent, random);
+
+    for (int gameNum = 1 ; gameNum <= trainingGames ; gameNum++) {
+      if (debug) {
+        System.out.println();
+        System.out.println("-------------------------------------------");
+        System.out.println("TRAINING GAME #" + gameNum);
+        System.out.println("-------------------------------------------");
+        System.out.println();
+      }
+
+      game.play();
+      game.reset();
+    }
+
+    if (exact) {
+      double[] results = new ExactEvaluator(type, mcAgent).evaluate();
+
+      return new String[] {
+        String.valueOf(epsilon),
+        String.valueOf(results[ExactEvaluator.WIN]),
+        String.valueOf(results[ExactEvaluator.LOSS]),
+        String.valueOf(results[ExactEvaluator.DRAW]),
+        String.valueOf(mcAgent.getPolicySize())};
+    }
+
+    for (int gameNum = 1 ; gameNum <= testGames ; gameNum++) {
+      if (debug) {
+        System.out.println();
+        System.out.println("-------------------------------------------");
+        System.out.println("TEST GAME #" + gameNum);
+        System.out.println("-------------------------------------------");
+        System.out.println();
+      }
+
+      int winner = game.play();
+      game.reset();
+      if (winner == -1) System.out.println("ERROR");
+      stats.record(winner);
+    }
+
+    return new String[] {
+      String.valueOf(epsilon),
+      String.valueOf(stats.wins(1)),
+      String.valueOf(stats.wins(2)),
+      String.valueOf(stats.draws()),
+      String.valueOf(mcAgent.getPolicySize())};
+  }
+
+  /**
+   * Creates a game of the given type between the given agents, which can be
+   * reset and played again for every episode.
+   */
+  static Game newGame(GameType type,
+                      Agent a1,
+                      Agent a2,
+                      RandomSource random) {
+    return newGame(a1, a2, rules(type), random);
+  }
+
+  /**
+   * Creates a runner that plays games of the given type between the given
+   * agents, advancing the given number of games in lockstep.
+   */
+  static VectorizedGame<?> newVectorizedGame(GameType type,
+                                             Agent a1,
+                                             Agent a2,
+                                             int numSlots,
+                                             RandomSource random) {
+    return new VectorizedGame<>(a1, a2, rules(type), numSlots, random);
+  }
+
+  /**
+   * Creates the rules of the given type of game, from which both
+   * {@link #newGame} and {@link #newVectorizedGame} build their games.
+   */
+  static GameRules<?> rules(GameType type) {
+    switch (type) {
+      case CHUNG_TOI:
+        return new ChungToiRules(ChungToiState.initialState());
+      case CHUNG_TOI_SYMMETRIC_EQUALITY:
+        return new ChungToiRules(
+            ChungToiStateWithSymmetricEquality.initialState());
+      case NIM:
+        return new NimRules(NimConfig.DEFAULT,
+                            false /* without exploring starts */,
+                            false /* without symmetric equality */);
+      case NIM_ES:
+        return new NimRules(NimConfig.DEFAULT,
+                            true /* with exploring starts */,
+                            false /* without symmetric equality */);
+      case NIM_SYMMETRIC_EQUALITY:
+        return new NimRules(NimConfig.DEFAULT,
+                            false /* without exploring starts */,
+                            true /* with symmetric equality */);
+      case NIM_ES_SYMMETRIC_EQUALITY:
+        return new NimRules(NimConfig.DEFAULT,
+                            true /* with exploring starts */,
+                            true /* with symmetric equality */);
+      case TIC_TAC_TOE_NORMAL:
+        return new TicTacToeRules(TicTacToeNormalState.initialState());
+      case TIC_TAC_TOE_LIMITED_ACTIONS:
+        return new TicTacToeRules(
+            TicTacToeStateWithLimitedActions.initialState());
+      case TIC_TAC_TOE_SYMMETRIC_EQUALITY:
+        return new TicTacToeRules(
+            TicTacToeStateWithSymmetricEquality.initialState());
+    }
+
+    return null;
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Creates a game with the given rules between the given agents, whose first
+   * player is chosen by the given source.
+   */
+  private static <S extends State> Game newGame(Agent a1,
+                                                Agent a2,
+                                                GameRules<S> rules,
+                                                RandomSource random) {
+    return new TurnBasedGame<S>(a1, a2, random.nextInt(2), rules, random) {};
+  }
 }
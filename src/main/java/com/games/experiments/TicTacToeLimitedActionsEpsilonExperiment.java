@@ -2,6 +2,7 @@ package com.games.experiments;
 
 import static com.games.experiments.ExperimentHelper.GameType;
 import static com.games.experiments.ExperimentHelper.saveEpsilonTestResultsInCSV;
+import static com.games.experiments.ExperimentHelper.seed;
 
 import java.io.IOException;
 
@@ -19,6 +20,7 @@ public final class TicTacToeLimitedActionsEpsilonExperiment {
                                 0.01,      /* epsilon precision */
                                 10*1000,   /* number of training games */
                                 100*1000,  /* number of test games */
-                                false      /* whether to print debugging stmts */);
+                                false      /* whether to print debugging stmts */,
+                                seed(args) /* seed of random choices */);
   }
 }
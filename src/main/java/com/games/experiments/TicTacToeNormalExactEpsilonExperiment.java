@@ -0,0 +1,25 @@
+package com.games.experiments;
+
+import static com.games.experiments.ExperimentHelper.GameType;
+import static com.games.experiments.ExperimentHelper.saveEpsilonExactResultsInCSV;
+import static com.games.experiments.ExperimentHelper.seed;
+
+import java.io.IOException;
+
+/**
+ * Main class for training agents on normal Tic-Tac-Toe while varying the
+ * learning parameter and computing the exact results of each trained policy
+ * against a random agent to determine the best parameter values.
+ */
+public final class TicTacToeNormalExactEpsilonExperiment {
+
+  public static void main(String[] args) throws IOException {
+    saveEpsilonExactResultsInCSV(GameType.TIC_TAC_TOE_NORMAL,
+                                 0.0,     /* epsilon start */
+                                 1.0,     /* epsilon end */
+                                 0.01,    /* epsilon precision */
+                                 10*1000, /* number of training games */
+                                 false    /* whether to print debugging stmts */,
+                                 seed(args) /* seed of random choices */);
+  }
+}
@@ -2,6 +2,7 @@ package com.games.experiments;
 
 import com.games.agents.MonteCarloAgent;
 import com.games.agents.RandomAgent;
+import com.games.general.GameStats;
 import com.games.general.State;
 import com.games.tictactoe.TicTacToeGameWithLimitedActions;
 import com.games.tictactoe.TicTacToeGameWithSymmetricEquality;
@@ -15,38 +16,25 @@ public final class TicTacToePolicySizeComparison {
   public static void main(String[] args) throws IOException {
     RandomAgent randAgent = new RandomAgent();
 
-    int[] winsN = new int[3]; // index 0 is draw, 1 is agent1, 2 is agent2
+    GameStats statsN = new GameStats();
     MonteCarloAgent mcAgentN = new MonteCarloAgent(0.9, false);
-    TicTacToeNormalGame gameN;
+    TicTacToeNormalGame gameN = new TicTacToeNormalGame(mcAgentN, randAgent);
+    gameN.playMany(100000, statsN);
+    if (statsN.unfinished() > 0) System.out.println("ERROR");
 
-    for (int gamesSoFar = 1 ; gamesSoFar <= 100000 ; gamesSoFar++) {
-      gameN = new TicTacToeNormalGame(mcAgentN, randAgent);
-      int winner = gameN.play();
-      if (winner == -1) System.out.println("ERROR");
-      winsN[winner]++;
-    }
-
-    int[] winsLA = new int[3]; // index 0 is draw, 1 is agent1, 2 is agent2
+    GameStats statsLA = new GameStats();
     MonteCarloAgent mcAgentLA = new MonteCarloAgent(0.9, false);
-    TicTacToeGameWithLimitedActions gameLA;
-
-    for (int gamesSoFar = 1 ; gamesSoFar <= 100000 ; gamesSoFar++) {
-      gameLA = new TicTacToeGameWithLimitedActions(mcAgentLA, randAgent);
-      int winner = gameLA.play();
-      if (winner == -1) System.out.println("ERROR");
-      winsLA[winner]++;
-    }
+    TicTacToeGameWithLimitedActions gameLA =
+        new TicTacToeGameWithLimitedActions(mcAgentLA, randAgent);
+    gameLA.playMany(100000, statsLA);
+    if (statsLA.unfinished() > 0) System.out.println("ERROR");
 
-    int[] winsSE = new int[3]; // index 0 is draw, 1 is agent1, 2 is agent2
+    GameStats statsSE = new GameStats();
     MonteCarloAgent mcAgentSE = new MonteCarloAgent(0.9, false);
-    TicTacToeGameWithSymmetricEquality gameSE;
-
-    for (int gamesSoFar = 1 ; gamesSoFar <= 100000 ; gamesSoFar++) {
-      gameSE = new TicTacToeGameWithSymmetricEquality(mcAgentSE, randAgent);
-      int winner = gameSE.play();
-      if (winner == -1) System.out.println("ERROR");
-      winsSE[winner]++;
-    }
+    TicTacToeGameWithSymmetricEquality gameSE =
+        new TicTacToeGameWithSymmetricEquality(mcAgentSE, randAgent);
+    gameSE.playMany(100000, statsSE);
+    if (statsSE.unfinished() > 0) System.out.println("ERROR");
 
     Set<State> Nstates = mcAgentN.getPolicy().keySet();
     Set<State> LAstates = mcAgentLA.getPolicy().keySet();
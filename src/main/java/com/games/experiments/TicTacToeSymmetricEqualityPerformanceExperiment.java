@@ -2,6 +2,7 @@ package com.games.experiments;
 
 import static com.games.experiments.ExperimentHelper.GameType;
 import static com.games.experiments.ExperimentHelper.savePerformanceResultsInCSV;
+import static com.games.experiments.ExperimentHelper.seed;
 
 import java.io.IOException;
 
@@ -18,6 +19,7 @@ public final class TicTacToeSymmetricEqualityPerformanceExperiment {
                                 1000*1000, /* number of games */
                                 10*1000,   /* result interval */
                                 false      /* whether to print debugging
-                                              stmts */);
+                                              stmts */,
+                                seed(args) /* seed of random choices */);
   }
 }
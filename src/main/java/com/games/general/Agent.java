@@ -8,4 +8,35 @@ public interface Agent {
   Action chooseActionES(State s, Action a);
   void receiveReturn(double amount);
   void gameOver();
+
+  /**
+   * Chooses an action from each of the first n given states, which belong to
+   * different games, as {@link #chooseAction(State)} would one at a time.
+   * <p>
+   * Agents that can look up many states at once should override this method.
+   * The default calls {@link #chooseAction(State)} for each state, so it may
+   * also record each action as the last one taken, as that method does. The
+   * caller must therefore replay each game with
+   * {@link #takeAction(State, Action)} before giving the agent any return.
+   *
+   * @param states states from which to choose
+   * @param out    array into which the chosen actions are written
+   * @param n      number of states
+   */
+  default void chooseActions(State[] states, Action[] out, int n) {
+    for (int i = 0 ; i < n ; i++) {
+      out[i] = chooseAction(states[i]);
+    }
+  }
+
+  /**
+   * Records that the agent took the given action from the given state, as the
+   * action for which the next return is given, without choosing an action.
+   *
+   * @param s state from which the action was taken
+   * @param a action taken
+   */
+  default void takeAction(State s, Action a) {
+    chooseActionES(s, a);
+  }
 }
@@ -0,0 +1,124 @@
+package com.games.general;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue into which any number of threads put elements and from which
+ * a single thread takes them.
+ * <p>
+ * The elements are kept in a ring of slots, each with a sequence number that
+ * says whether it is free to put into or ready to take from, so producers only
+ * compete for the tail with one compare-and-set and never take a lock. The
+ * consumer owns the head and needs no atomic read-modify-write at all.
+ *
+ * @param <E> type of the elements
+ */
+public final class BoundedMpscQueue<E> {
+
+  private final int mask;
+
+  private final AtomicReferenceArray<E> elements;
+
+  /**
+   * Sequence number of each slot: i + 1 if it holds the i-th element put and
+   * that element has not been taken, otherwise the number of the next element
+   * that can be put into it.
+   */
+  private final AtomicLongArray sequences;
+
+  /** Number of elements put so far, including those being put. */
+  private final AtomicLong tail = new AtomicLong();
+
+  /** Number of elements taken so far, only used by the consumer. */
+  private long head = 0;
+
+  /**
+   * Creates an empty queue.
+   *
+   * @param capacity minimum number of elements that the queue can hold, which
+   *                 is rounded up to a power of two
+   */
+  public BoundedMpscQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+
+    int size = Integer.highestOneBit(capacity);
+    size = size < capacity ? 2 * size : size;
+    mask = size - 1;
+    elements = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+
+    for (int i = 0 ; i < size ; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Puts the given element at the tail of the queue unless it is full. Can be
+   * called by any thread.
+   *
+   * @param e element to put
+   * @return  whether the element was put
+   */
+  public boolean offer(E e) {
+    while (true) {
+      long t = tail.get();
+      int slot = (int) t & mask;
+      long sequence = sequences.get(slot);
+
+      if (sequence == t) {
+        if (tail.compareAndSet(t, t + 1)) {
+          elements.lazySet(slot, e);
+          sequences.lazySet(slot, t + 1);  // publishes the element
+          return true;
+        }
+
+      } else if (sequence < t) {
+        // The element put one lap ago has not been taken yet
+        return false;
+      }
+
+      // Otherwise another producer took the slot first, so try the next one
+    }
+  }
+
+  /**
+   * Puts the given element at the tail of the queue, yielding until there is
+   * room for it. Can be called by any thread.
+   *
+   * @param e element to put
+   */
+  public void put(E e) {
+    while (!offer(e)) {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Takes the element at the head of the queue. Must only be called by the
+   * consumer thread.
+   *
+   * @return the element, or null if the queue is empty
+   */
+  public E poll() {
+    int slot = (int) head & mask;
+
+    if (sequences.get(slot) != head + 1) {
+      return null;  // empty, or the next element is still being put
+    }
+
+    E e = elements.get(slot);
+    elements.lazySet(slot, null);
+    sequences.lazySet(slot, head + mask + 1);  // frees the slot
+    head++;
+    return e;
+  }
+
+  /** Returns the number of elements the queue can hold. */
+  public int capacity() {
+    return mask + 1;
+  }
+}
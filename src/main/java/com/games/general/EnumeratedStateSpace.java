@@ -0,0 +1,51 @@
+package com.games.general;
+
+/**
+ * Space of all states that can be reached from the given initial states,
+ * which are found once by applying every action of every non-terminal state.
+ * <p>
+ * States are ranked in breadth-first order, starting with the initial states,
+ * so the space must be small enough to hold every state in memory.
+ */
+public final class EnumeratedStateSpace implements StateSpace {
+
+  private final StateIndex index = new StateIndex();
+
+  /**
+   * Creates the space of states that can be reached from the given initial
+   * states.
+   */
+  public EnumeratedStateSpace(State... initialStates) {
+    for (State s : initialStates) {
+      index.add(s);
+    }
+
+    // The index doubles as the queue of states whose successors are not known
+    for (int i = 0 ; i < index.size() ; i++) {
+      State s = index.state(i);
+
+      if (s.isTerminalState()) {
+        continue;
+      }
+
+      for (Action a : s.getActions()) {
+        index.add(s.applyAction(a));
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return index.size();
+  }
+
+  @Override
+  public int rank(State s) {
+    return index.get(s);
+  }
+
+  @Override
+  public State unrank(int rank) {
+    return index.state(rank);
+  }
+}
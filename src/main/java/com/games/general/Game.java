@@ -1,6 +1,40 @@
 package com.games.general;
 
-/** Interface for a game. */
+/**
+ * Interface for a game.
+ * <p>
+ * A game object can be played many times. Each call to {@link #play()} plays
+ * one game from the start, and {@link #reset()} makes the random choices of
+ * the next game, such as which agent goes first, without creating a new game
+ * object or initial state.
+ */
 public interface Game {
+
+  /**
+   * Plays one game and returns the winning agent.
+   *
+   * @return winning agent (-1 = not over, 0 = draw, 1 = agent 1, 2 = agent 2)
+   */
   int play();
+
+  /**
+   * Makes the random choices of the next game again, as if a new game had
+   * been created between the same agents with the same source of random
+   * numbers.
+   */
+  void reset();
+
+  /**
+   * Plays the given number of games, resetting after each one so that the game
+   * is ready to be played again, and adds their results to the given counters.
+   *
+   * @param n   number of games to play
+   * @param out counters of the results
+   */
+  default void playMany(int n, GameStats out) {
+    for (int i = 0 ; i < n ; i++) {
+      out.record(play());
+      reset();
+    }
+  }
 }
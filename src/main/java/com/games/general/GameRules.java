@@ -0,0 +1,75 @@
+package com.games.general;
+
+/**
+ * Rules of a two-player game in which the players take turns, as needed by a
+ * {@link TurnBasedGame} to play it.
+ * <p>
+ * Outcomes are given from the point of view of the players rather than the
+ * agents: the first player is the one who moves from the initial state.
+ *
+ * @param <S> type of the states of the game
+ */
+public interface GameRules<S extends State> {
+
+  /** Outcome of a game that is not over. */
+  int GAME_NOT_OVER = -1;
+
+  /** Outcome of a game that ended in a draw. */
+  int DRAW = 0;
+
+  /** Outcome of a game won by the player who moved first. */
+  int FIRST_PLAYER_WON = 1;
+
+  /** Outcome of a game won by the player who moved second. */
+  int SECOND_PLAYER_WON = 2;
+
+  /**
+   * Returns the state from which the next game starts, drawing any random
+   * choices from the given source.
+   *
+   * @param random source of any random choices
+   * @return       initial state of the next game
+   */
+  S initialState(RandomSource random);
+
+  /**
+   * Returns whether the first action of each game is chosen at random, so that
+   * the first player learns with exploring starts.
+   *
+   * @return whether the first action is random
+   */
+  boolean hasExploringStarts();
+
+  /**
+   * Returns the outcome of the game after the given action led to the given
+   * state.
+   *
+   * @param state          state after the action
+   * @param action         last action taken
+   * @param previousAction action taken by the other player before that, or
+   *                       null if the last action was the first of the game
+   * @return               {@link #GAME_NOT_OVER}, {@link #DRAW},
+   *                       {@link #FIRST_PLAYER_WON} or
+   *                       {@link #SECOND_PLAYER_WON}
+   */
+  int outcome(S state, Action action, Action previousAction);
+
+  /**
+   * Returns the return received by the given player when the game ends with
+   * the given outcome.
+   *
+   * @param outcome {@link #DRAW}, {@link #FIRST_PLAYER_WON} or
+   *                {@link #SECOND_PLAYER_WON}
+   * @param player  1 (first player) or 2 (second player)
+   * @return        return received by the player
+   */
+  int finalReturn(int outcome, int player);
+
+  /**
+   * Returns the return received by a player after each of their actions that
+   * does not end the game.
+   *
+   * @return return received while the game is in progress
+   */
+  int gameInProgressReturn();
+}
@@ -0,0 +1,44 @@
+package com.games.general;
+
+/**
+ * Counts of the results of games, as returned by {@link Game#play()}. The
+ * counters are allocated once, so that recording a result allocates nothing.
+ */
+public final class GameStats {
+
+  /** Number of games with each result, indexed by the result plus one. */
+  private final int[] counts = new int[4];
+
+  /**
+   * Adds one game with the given result.
+   *
+   * @param winner winning agent (-1 = not over, 0 = draw, 1 = agent 1,
+   *               2 = agent 2)
+   */
+  public void record(int winner) {
+    counts[winner + 1]++;
+  }
+
+  /** Returns the number of games recorded. */
+  public int games() {
+    return counts[0] + counts[1] + counts[2] + counts[3];
+  }
+
+  /** Returns the number of games won by the given agent (1 or 2). */
+  public int wins(int agent) {
+    return counts[agent + 1];
+  }
+
+  /** Returns the number of games that ended in a draw. */
+  public int draws() {
+    return counts[1];
+  }
+
+  /**
+   * Returns the number of games that were recorded as not over, which only
+   * happens if a game has a bug.
+   */
+  public int unfinished() {
+    return counts[0];
+  }
+}
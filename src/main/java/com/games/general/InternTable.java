@@ -0,0 +1,36 @@
+package com.games.general;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of canonical instances of states, where equal states are interned to
+ * the same instance, so that they can be compared by reference.
+ * <p>
+ * Safe to use from several threads at once. If two threads intern equal states
+ * at the same time, both get the instance that was added first.
+ * <p>
+ * A table is never cleared, so every state interned in it stays in memory for
+ * as long as the table does. Tables are meant for games with a bounded number
+ * of states, and each state class that uses one says how large it can grow.
+ */
+public final class InternTable<S extends State> {
+
+  private final ConcurrentHashMap<S, S> states = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the canonical instance of the given state, which is the state
+   * itself if no equal state has been interned before.
+   *
+   * @param s state to intern
+   * @return  canonical instance equal to the state
+   */
+  public S intern(S s) {
+    S canonical = states.putIfAbsent(s, s);
+    return (canonical == null) ? s : canonical;
+  }
+
+  /** Returns the number of states interned so far. */
+  public int size() {
+    return states.size();
+  }
+}
@@ -0,0 +1,24 @@
+package com.games.general;
+
+/**
+ * Source of random numbers for agents, games and states.
+ * <p>
+ * A source is not meant to be shared between threads. Code that hands work to
+ * other threads should give each of them its own source from {@link #split()},
+ * so that no thread waits for another and a run with a given seed always gives
+ * the same results.
+ */
+public interface RandomSource {
+
+  /** Returns a double uniformly distributed in [0, 1). */
+  double nextDouble();
+
+  /** Returns an int uniformly distributed in [0, bound). */
+  int nextInt(int bound);
+
+  /**
+   * Returns a new source whose numbers are independent of this one's, which
+   * advances this source.
+   */
+  RandomSource split();
+}
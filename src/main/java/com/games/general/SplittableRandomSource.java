@@ -0,0 +1,67 @@
+package com.games.general;
+
+import java.util.SplittableRandom;
+
+/** Random source backed by a {@link SplittableRandom}. */
+public final class SplittableRandomSource implements RandomSource {
+
+  /**
+   * Default source, which uses a separate generator for each thread so that
+   * threads never contend for it. Each thread's generator is split from a
+   * randomly seeded root generator.
+   */
+  public static final RandomSource PER_THREAD = new RandomSource() {
+    @Override
+    public double nextDouble() {
+      return CURRENT.get().nextDouble();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+      return CURRENT.get().nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+      return new SplittableRandomSource(CURRENT.get().split());
+    }
+  };
+
+  /** Generator from which each thread's default generator is split. */
+  private static final SplittableRandom ROOT = new SplittableRandom();
+
+  private static final ThreadLocal<SplittableRandom> CURRENT =
+      ThreadLocal.withInitial(SplittableRandomSource::splitRoot);
+
+  private final SplittableRandom random;
+
+  /** Creates a source whose numbers are determined by the given seed. */
+  public SplittableRandomSource(long seed) {
+    random = new SplittableRandom(seed);
+  }
+
+  private SplittableRandomSource(SplittableRandom random) {
+    this.random = random;
+  }
+
+  @Override
+  public double nextDouble() {
+    return random.nextDouble();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return random.nextInt(bound);
+  }
+
+  @Override
+  public RandomSource split() {
+    return new SplittableRandomSource(random.split());
+  }
+
+  private static SplittableRandom splitRoot() {
+    synchronized (ROOT) {
+      return ROOT.split();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.games.general;
+
+import java.util.Arrays;
+
+/**
+ * Map from states to dense indices, where the n-th distinct state added gets
+ * index n.
+ * <p>
+ * Uses open addressing with linear probing over the states' hash codes, so a
+ * lookup costs one hash and usually one {@code equals()} call, and no index is
+ * ever boxed.
+ */
+public final class StateIndex {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** Hash table of states, where null marks an empty slot. */
+  private State[] table = new State[INITIAL_CAPACITY];
+
+  /** Index of the state in the same slot of {@link #table}. */
+  private int[] tableIndices = new int[INITIAL_CAPACITY];
+
+  /** States in the order in which they were added. */
+  private State[] states = new State[INITIAL_CAPACITY];
+
+  /** Number of states added so far. */
+  private int size = 0;
+
+  /**
+   * Returns the index of the given state, or -1 if it has not been added.
+   *
+   * @param s state to look up
+   * @return  index of the state or -1
+   */
+  public int get(State s) {
+    int mask = table.length - 1;
+
+    for (int slot = spread(s.hashCode()) & mask ;
+         table[slot] != null ;
+         slot = (slot + 1) & mask) {
+      if (table[slot] == s || table[slot].equals(s)) {
+        return tableIndices[slot];
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the index of the given state, adding it first if needed.
+   *
+   * @param s state to look up or add
+   * @return  index of the state
+   */
+  public int add(State s) {
+    int mask = table.length - 1;
+    int slot = spread(s.hashCode()) & mask;
+
+    for ( ; table[slot] != null ; slot = (slot + 1) & mask) {
+      if (table[slot] == s || table[slot].equals(s)) {
+        return tableIndices[slot];
+      }
+    }
+
+    int index = size++;
+    table[slot] = s;
+    tableIndices[slot] = index;
+
+    if (index == states.length) {
+      states = Arrays.copyOf(states, 2 * states.length);
+    }
+
+    states[index] = s;
+
+    // Keep the load factor at most one half
+    if (2 * size > table.length) {
+      rehash(2 * table.length);
+    }
+
+    return index;
+  }
+
+  /** Returns the state with the given index. */
+  public State state(int index) {
+    return states[index];
+  }
+
+  /** Returns the number of states added so far. */
+  public int size() {
+    return size;
+  }
+
+  /** Removes all states. */
+  public void clear() {
+    Arrays.fill(table, null);
+    Arrays.fill(states, 0, size, null);
+    size = 0;
+  }
+
+  private void rehash(int capacity) {
+    State[] newTable = new State[capacity];
+    int[] newIndices = new int[capacity];
+    int mask = capacity - 1;
+
+    for (int i = 0 ; i < size ; i++) {
+      int slot = spread(states[i].hashCode()) & mask;
+
+      while (newTable[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+
+      newTable[slot] = states[i];
+      newIndices[slot] = i;
+    }
+
+    table = newTable;
+    tableIndices = newIndices;
+  }
+
+  /** Spreads the bits of a hash code so that low bits pick the slot. */
+  private static int spread(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,35 @@
+package com.games.general;
+
+/**
+ * Set of all states of a game, where each state has a rank between 0 and
+ * {@link #size()} - 1, so that information about states can be kept in arrays
+ * indexed by rank.
+ * <p>
+ * Equal states have the same rank, and {@link #unrank(int)} returns a state
+ * equal to the one that was ranked.
+ */
+public interface StateSpace {
+
+  /**
+   * Returns the number of states, which is one more than the largest rank.
+   *
+   * @return number of states
+   */
+  int size();
+
+  /**
+   * Returns the rank of the given state, or -1 if it is not in this space.
+   *
+   * @param s state to rank
+   * @return  rank of the state or -1
+   */
+  int rank(State s);
+
+  /**
+   * Returns the state with the given rank.
+   *
+   * @param rank rank between 0 and {@link #size()} - 1
+   * @return     state with the given rank
+   */
+  State unrank(int rank);
+}
@@ -0,0 +1,202 @@
+package com.games.general;
+
+import static com.games.general.GameRules.DRAW;
+import static com.games.general.GameRules.GAME_NOT_OVER;
+
+import java.util.List;
+
+/**
+ * Game between two agents that take turns, where the first player is chosen
+ * randomly, and the state, the end of the game and the returns are given by
+ * its {@link GameRules}.
+ * <p>
+ * The agents and the returns at the end of the game are kept in arrays indexed
+ * by player, so that each turn of the loop in {@link #play()} is the same for
+ * both players and for every game.
+ *
+ * @param <S> type of the states of the game
+ */
+public abstract class TurnBasedGame<S extends State> implements Game {
+
+  private final GameRules<S> rules;
+
+  /** Source of the first player and initial state of each game. */
+  private final RandomSource random;
+
+  /** Agents in the order in which they move. */
+  private final Agent[] agents = new Agent[2];
+
+  /** 0 (don't swap order of agents passed to the contructor) or 1 (swap). */
+  private int swapAgentOrder;
+
+  /** Return of each player (second index) for each outcome (first index). */
+  private final int[][] finalReturns = new int[3][2];
+
+  private final int gameInProgressReturn;
+
+  private final boolean exploringStarts;
+
+  /** State from which the next game starts. */
+  private S initialState;
+
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a game between the given agents with the given rules.
+   *
+   * @param a1             first agent passed by the caller
+   * @param a2             second agent passed by the caller
+   * @param swapAgentOrder 0 (a1 moves first) or 1 (a2 moves first)
+   * @param rules          rules of the game
+   * @param random         source of the initial state of each game and of
+   *                       the first player of the games after the first one
+   */
+  protected TurnBasedGame(Agent a1,
+                          Agent a2,
+                          int swapAgentOrder,
+                          GameRules<S> rules,
+                          RandomSource random) {
+    this.rules = rules;
+    this.random = random;
+    this.agents[0] = a1;
+    this.agents[1] = a2;
+    orderAgents(swapAgentOrder);
+
+    for (int outcome = DRAW ; outcome < finalReturns.length ; outcome++) {
+      for (int player = 1 ; player <= 2 ; player++) {
+        finalReturns[outcome][player - 1] = rules.finalReturn(outcome, player);
+      }
+    }
+
+    this.gameInProgressReturn = rules.gameInProgressReturn();
+    this.exploringStarts = rules.hasExploringStarts();
+    this.initialState = rules.initialState(random);
+  }
+
+
+  // IMPLEMENTATIONS OF GAME INTERFACE METHODS
+
+  /**
+   * Plays one game and returns the winning agent.
+   *
+   * @return winning agent (-1 = not over, 0 = draw, 1 = agent 1, 2 = agent 2)
+   */
+  @Override
+  public int play() {
+    agents[0].initializeBeforeNewGame();
+    agents[1].initializeBeforeNewGame();
+
+    S state = initialState;
+    Action previousAction = null;
+    int player = 0;
+
+    while (true) {
+      Agent agent = agents[player];
+      Action action;
+
+      if (exploringStarts && previousAction == null) {
+        // Force first agent to choose random action
+        List<Action> actions = state.getActions();
+        Action randomAction = actions.get(random.nextInt(actions.size()));
+        action = agent.chooseActionES(state, randomAction);
+      } else {
+        action = agent.chooseAction(state);
+      }
+
+      state = applyAction(state, action);
+      int outcome = rules.outcome(state, action, previousAction);
+
+      if (outcome != GAME_NOT_OVER) {
+        return gameOver(outcome);
+      }
+
+      // The other player's last action did not end the game either
+      if (previousAction != null) {
+        agents[1 - player].receiveReturn(gameInProgressReturn);
+      }
+
+      previousAction = action;
+      player = 1 - player;
+    }
+  }
+
+  /**
+   * Chooses the first player and the initial state of the next game, in the
+   * same order as the constructor.
+   */
+  @Override
+  public void reset() {
+    orderAgents(random.nextInt(2));
+    initialState = rules.initialState(random);
+  }
+
+  /**
+   * Returns the agent that moves first (1) or second (2) in the next game.
+   *
+   * @param player 1 or 2
+   * @return       agent that moves in that turn
+   */
+  public Agent getAgent(int player) {
+    return agents[player - 1];
+  }
+
+  /** Returns the state from which the next game starts. */
+  public S getInitialState() {
+    return initialState;
+  }
+
+
+  // HELPER METHODS
+
+  /**
+   * Gives the agents their returns for the given outcome, tells them that the
+   * game is over and returns the winning agent.
+   *
+   * @param outcome outcome of the game, as given by the rules
+   * @return        winning agent (-1 = not over, 0 = draw, 1 = agent 1,
+   *                2 = agent 2)
+   */
+  protected int gameOver(int outcome) {
+    if (outcome != GAME_NOT_OVER) {
+      agents[0].receiveReturn(finalReturns[outcome][0]);
+      agents[1].receiveReturn(finalReturns[outcome][1]);
+    }
+
+    agents[0].gameOver();
+    agents[1].gameOver();
+
+    if (outcome == GAME_NOT_OVER || outcome == DRAW) {
+      return outcome;
+    }
+
+    return swapAgentOrder == 0 ? outcome : 3 - outcome;
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Returns the state that results from applying the given action at the given
+   * state, which always has the type of the game's states.
+   */
+  @SuppressWarnings("unchecked")
+  private S applyAction(S state, Action action) {
+    return (S) state.applyAction(action);
+  }
+
+  /**
+   * Swaps the agents if the given order is not the current one.
+   *
+   * @param swapAgentOrder 0 (order of the agents passed to the constructor) or
+   *                       1 (swapped order)
+   */
+  private void orderAgents(int swapAgentOrder) {
+    if (swapAgentOrder != this.swapAgentOrder) {
+      Agent first = agents[0];
+      agents[0] = agents[1];
+      agents[1] = first;
+      this.swapAgentOrder = swapAgentOrder;
+    }
+  }
+}
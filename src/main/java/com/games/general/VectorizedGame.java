@@ -0,0 +1,336 @@
+package com.games.general;
+
+import static com.games.general.GameRules.DRAW;
+import static com.games.general.GameRules.GAME_NOT_OVER;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runner that plays many games between two agents, advancing a fixed number
+ * of independent games in lockstep, as if each were a {@link TurnBasedGame}
+ * with the same rules.
+ * <p>
+ * Every step, the states of all games in progress are gathered by the agent
+ * to move, and each agent chooses its actions for all of them with a single
+ * call to {@link Agent#chooseActions(State[], Action[], int)}. A Monte Carlo
+ * agent with a tabular storage looks up all the states of a call before it
+ * draws any action, while other agents choose one state at a time. The moves
+ * of each game are kept until it ends, and then the game is replayed to both
+ * agents with {@link Agent#takeAction(State, Action)}, followed by their
+ * returns and {@link Agent#gameOver()}, so that an agent learns from one whole
+ * game at a time. Agents therefore only learn from a game once it is over,
+ * and the games in progress are played with the policy from before it.
+ * <p>
+ * With a single game in progress, the agents and the source of random numbers
+ * see the same calls in the same order as when the games are played one after
+ * another by a {@link TurnBasedGame}, so the results are the same.
+ * <p>
+ * The two agents must be different objects, since each agent is replayed a
+ * whole game at a time.
+ *
+ * @param <S> type of the states of the game
+ */
+public final class VectorizedGame<S extends State> {
+
+  /** Initial capacity of the moves kept for each game. */
+  private static final int INITIAL_MOVES = 16;
+
+  private final GameRules<S> rules;
+
+  /** Source of the first player, initial state and exploring starts. */
+  private final RandomSource random;
+
+  /** Agents in the order in which they were passed to the constructor. */
+  private final Agent[] agents = new Agent[2];
+
+  /** Return of each player (second index) for each outcome (first index). */
+  private final int[][] finalReturns = new int[3][2];
+
+  private final int gameInProgressReturn;
+
+  private final boolean exploringStarts;
+
+  /** Number of games advanced in lockstep. */
+  private final int numSlots;
+
+  /** Current state of the game in each slot. */
+  private final S[] states;
+
+  /** 0 (agent 1 moves first) or 1 (agent 2 moves first) in each slot. */
+  private final int[] swapAgentOrder;
+
+  /** Last action of the game in each slot, or null before the first move. */
+  private final Action[] previousActions;
+
+  /** States from which the moves of the game in each slot were made. */
+  private final State[][] moveStates;
+
+  /** Actions of the moves of the game in each slot. */
+  private final Action[][] moveActions;
+
+  /** Number of moves made in the game in each slot. */
+  private final int[] numMoves;
+
+  /** Slots whose games are in progress, in their first numActive entries. */
+  private final int[] activeSlots;
+
+  private int numActive;
+
+  /** States to be passed to each agent (first index) in the next batch. */
+  private final State[][] batchStates;
+
+  /** Actions chosen by each agent (first index) in the last batch. */
+  private final Action[][] batchActions;
+
+  /** Slot of each state in the batch of each agent (first index). */
+  private final int[][] batchSlots;
+
+  /** Number of states in the batch of each agent. */
+  private final int[] batchSizes = new int[2];
+
+  /** Action to be applied in each slot in the current step. */
+  private final Action[] chosenActions;
+
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a runner of games between the given agents with the given rules.
+   *
+   * @param a1       agent 1
+   * @param a2       agent 2
+   * @param rules    rules of the game
+   * @param numSlots number of games advanced in lockstep
+   * @param random   source of the first player and initial state of each
+   *                 game, and of the first action with exploring starts
+   */
+  @SuppressWarnings("unchecked")
+  public VectorizedGame(Agent a1,
+                        Agent a2,
+                        GameRules<S> rules,
+                        int numSlots,
+                        RandomSource random) {
+    if (numSlots < 1) {
+      throw new IllegalArgumentException("numSlots must be positive");
+    }
+
+    this.rules = rules;
+    this.random = random;
+    this.agents[0] = a1;
+    this.agents[1] = a2;
+
+    for (int outcome = DRAW ; outcome < finalReturns.length ; outcome++) {
+      for (int player = 1 ; player <= 2 ; player++) {
+        finalReturns[outcome][player - 1] = rules.finalReturn(outcome, player);
+      }
+    }
+
+    this.gameInProgressReturn = rules.gameInProgressReturn();
+    this.exploringStarts = rules.hasExploringStarts();
+    this.numSlots = numSlots;
+    // S is erased to State, so an array of states can hold any S
+    this.states = (S[]) new State[numSlots];
+    this.swapAgentOrder = new int[numSlots];
+    this.previousActions = new Action[numSlots];
+    this.moveStates = new State[numSlots][INITIAL_MOVES];
+    this.moveActions = new Action[numSlots][INITIAL_MOVES];
+    this.numMoves = new int[numSlots];
+    this.activeSlots = new int[numSlots];
+    this.batchStates = new State[2][numSlots];
+    this.batchActions = new Action[2][numSlots];
+    this.batchSlots = new int[2][numSlots];
+    this.chosenActions = new Action[numSlots];
+  }
+
+
+  /** Returns the number of games advanced in lockstep. */
+  public int getNumSlots() {
+    return numSlots;
+  }
+
+  /**
+   * Plays the given number of games and adds their results to the given
+   * counters.
+   *
+   * @param n   number of games to play
+   * @param out counters of the results
+   */
+  public void playMany(int n, GameStats out) {
+    int gamesToStart = n;
+    numActive = 0;
+
+    for (int slot = 0 ; slot < numSlots && gamesToStart > 0 ; slot++) {
+      startGame(slot);
+      activeSlots[numActive++] = slot;
+      gamesToStart--;
+    }
+
+    while (numActive > 0) {
+      chooseActions();
+
+      // Iterate backwards so that finished slots can be removed in place
+      for (int i = numActive - 1 ; i >= 0 ; i--) {
+        int slot = activeSlots[i];
+        int winner = step(slot, chosenActions[slot]);
+
+        if (winner == GAME_NOT_OVER) {
+          continue;
+        }
+
+        out.record(winner);
+
+        if (gamesToStart > 0) {
+          startGame(slot);
+          gamesToStart--;
+        } else {
+          activeSlots[i] = activeSlots[--numActive];
+        }
+      }
+    }
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Chooses the first player and the initial state of a new game in the given
+   * slot, in the same order as a {@link TurnBasedGame}.
+   */
+  private void startGame(int slot) {
+    swapAgentOrder[slot] = random.nextInt(2);
+    states[slot] = rules.initialState(random);
+    previousActions[slot] = null;
+    numMoves[slot] = 0;
+  }
+
+  /**
+   * Sets the action to be applied in every active slot, asking each agent for
+   * the actions of all the games in which it is to move at once.
+   */
+  private void chooseActions() {
+    batchSizes[0] = 0;
+    batchSizes[1] = 0;
+
+    for (int i = numActive - 1 ; i >= 0 ; i--) {
+      int slot = activeSlots[i];
+      int agent = agentToMove(slot);
+      State state = states[slot];
+
+      if (exploringStarts && previousActions[slot] == null) {
+        // Force first agent to choose random action
+        List<Action> actions = state.getActions();
+        Action randomAction = actions.get(random.nextInt(actions.size()));
+        chosenActions[slot] = agents[agent].chooseActionES(state, randomAction);
+      } else {
+        int b = batchSizes[agent]++;
+        batchStates[agent][b] = state;
+        batchSlots[agent][b] = slot;
+      }
+    }
+
+    for (int agent = 0 ; agent < 2 ; agent++) {
+      int size = batchSizes[agent];
+
+      if (size == 0) {
+        continue;
+      }
+
+      agents[agent].chooseActions(batchStates[agent],
+                                  batchActions[agent],
+                                  size);
+
+      for (int b = 0 ; b < size ; b++) {
+        chosenActions[batchSlots[agent][b]] = batchActions[agent][b];
+      }
+    }
+  }
+
+  /**
+   * Applies the given action in the given slot and, if that ends the game,
+   * replays it to the agents.
+   *
+   * @return winning agent (-1 = not over, 0 = draw, 1 = agent 1, 2 = agent 2)
+   */
+  private int step(int slot, Action action) {
+    S state = states[slot];
+    Action previousAction = previousActions[slot];
+    recordMove(slot, state, action);
+
+    S next = applyAction(state, action);
+    int outcome = rules.outcome(next, action, previousAction);
+
+    if (outcome == GAME_NOT_OVER) {
+      states[slot] = next;
+      previousActions[slot] = action;
+      return GAME_NOT_OVER;
+    }
+
+    replay(slot, outcome);
+
+    if (outcome == DRAW) {
+      return DRAW;
+    }
+
+    return swapAgentOrder[slot] == 0 ? outcome : 3 - outcome;
+  }
+
+  /**
+   * Replays the finished game in the given slot to each agent: its moves, the
+   * return after each of them and the end of the game, as a
+   * {@link TurnBasedGame} would have while playing it.
+   */
+  private void replay(int slot, int outcome) {
+    State[] slotStates = moveStates[slot];
+    Action[] slotActions = moveActions[slot];
+    int length = numMoves[slot];
+
+    for (int player = 0 ; player < 2 ; player++) {
+      Agent agent = agents[player ^ swapAgentOrder[slot]];
+      agent.initializeBeforeNewGame();
+
+      for (int m = player ; m < length ; m += 2) {
+        agent.takeAction(slotStates[m], slotActions[m]);
+
+        // The other player's next move did not end the game
+        if (m + 2 < length) {
+          agent.receiveReturn(gameInProgressReturn);
+        }
+      }
+
+      agent.receiveReturn(finalReturns[outcome][player]);
+      agent.gameOver();
+    }
+
+    // Let the states and actions of the game be garbage collected
+    Arrays.fill(slotStates, 0, length, null);
+    Arrays.fill(slotActions, 0, length, null);
+  }
+
+  /** Adds the given move to the moves of the game in the given slot. */
+  private void recordMove(int slot, State state, Action action) {
+    int m = numMoves[slot]++;
+
+    if (m == moveStates[slot].length) {
+      moveStates[slot] = Arrays.copyOf(moveStates[slot], 2 * m);
+      moveActions[slot] = Arrays.copyOf(moveActions[slot], 2 * m);
+    }
+
+    moveStates[slot][m] = state;
+    moveActions[slot][m] = action;
+  }
+
+  /** Returns the agent (0 or 1) to move in the game in the given slot. */
+  private int agentToMove(int slot) {
+    return (numMoves[slot] & 1) ^ swapAgentOrder[slot];
+  }
+
+  /**
+   * Returns the state that results from applying the given action at the given
+   * state, which always has the type of the game's states.
+   */
+  @SuppressWarnings("unchecked")
+  private S applyAction(S state, Action action) {
+    return (S) state.applyAction(action);
+  }
+}
@@ -0,0 +1,58 @@
+package com.games.general;
+
+/**
+ * Zobrist keys for hashing game states.
+ * <p>
+ * Keys are derived from a fixed seed, so a state has the same hash code on
+ * every run and states are placed in the same hash buckets every time. A
+ * state's hash is the XOR of the keys of its (slot, value) pairs, which means
+ * it can be updated incrementally when an action changes a few slots.
+ */
+public final class Zobrist {
+
+  /** Seed from which all keys are derived. */
+  private static final long SEED = 0x2545F4914F6CDD1DL;
+
+  /** Increment of the SplitMix64 generator (the 64-bit golden ratio). */
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private Zobrist() {}  // restrict instantiation
+
+  /**
+   * Returns the key of the given value in the given slot of a game whose keys
+   * are distinguished by the given salt.
+   */
+  public static long key(long salt, int slot, int value) {
+    long z = SEED + salt * GOLDEN_GAMMA;
+    z += ((long) slot << 32 | (value & 0xFFFFFFFFL)) * GOLDEN_GAMMA;
+    return mix(z);
+  }
+
+  /**
+   * Returns a table of keys indexed by slot and then value, where value 0 of
+   * every slot has key 0 so that it can stand for an empty slot.
+   */
+  public static long[][] table(long salt, int slots, int values) {
+    long[][] keys = new long[slots][values];
+
+    for (int slot = 0 ; slot < slots ; slot++) {
+      for (int value = 1 ; value < values ; value++) {
+        keys[slot][value] = key(salt, slot, value);
+      }
+    }
+
+    return keys;
+  }
+
+  /** Folds a 64-bit hash into a hash code. */
+  public static int fold(long hash) {
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /** SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
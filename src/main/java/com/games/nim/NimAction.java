@@ -4,15 +4,57 @@ import com.games.general.Action;
 
 public class NimAction implements Action {
 
+  /**
+   * Largest pile and number of tokens for which the IDs of actions are still
+   * unique, since the ID of an action on a larger pile or that takes more
+   * tokens may not fit in an int.
+   */
+  public static final int MAX_UNIQUE_ID_ARGUMENT = 46339;  // (m + 1)^2 <= 2^31
+
   /** Pile from which tokens will be taken. */
   public final int pile;
 
   /** Number of tokens to be taken from the pile. */
   public final int numTokens;
 
+  /**
+   * ID of this action, which is unique among all actions whose pile and number
+   * of tokens are at most {@link #MAX_UNIQUE_ID_ARGUMENT}, whatever the
+   * configuration of the game. IDs are smaller for smaller piles and numbers
+   * of tokens.
+   */
+  public final int id;
+
   public NimAction(int pile, int numTokens) {
+    if (pile < 0) {
+      throw new IllegalArgumentException("pile must not be negative");
+    }
+
+    if (numTokens < 1) {
+      throw new IllegalArgumentException("numTokens must be positive");
+    }
+
     this.pile = pile;
     this.numTokens = numTokens;
+
+    // Szudzik's pairing of the pile and the number of tokens minus one, which
+    // maps every pair with a largest element m to a different ID in [m^2,
+    // (m+1)^2)
+    int tokens = numTokens - 1;
+    this.id = pile >= tokens ? pile * pile + pile + tokens
+                             : tokens * tokens + pile;
+  }
+
+  /**
+   * Returns the shared instance of the action that takes the given number of
+   * tokens from the given pile in a game with the default configuration. See
+   * {@link NimConfig#action(int, int)}.
+   *
+   * @throws IllegalArgumentException if the pile is negative or the number of
+   *                                  tokens is not positive
+   */
+  public static NimAction of(int pile, int numTokens) {
+    return NimConfig.DEFAULT.action(pile, numTokens);
   }
 
   @Override
@@ -31,7 +73,7 @@ public class NimAction implements Action {
 
   @Override
   public int hashCode() {
-    return 2^pile * 3^numTokens;
+    return id;
   }
 
   @Override
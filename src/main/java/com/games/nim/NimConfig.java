@@ -0,0 +1,171 @@
+package com.games.nim;
+
+import static com.games.nim.NimHelper.MAX_TOKENS_PER_PILE;
+import static com.games.nim.NimHelper.NUM_PILES;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Numbers of piles and tokens of a game of Nim, and the layout of the piles of
+ * its states.
+ * <p>
+ * If every pile fits in {@link #bitsPerPile} bits and all piles fit in a long,
+ * pile {@code i} of a state is stored in bits {@code i * bitsPerPile} to
+ * {@code (i + 1) * bitsPerPile - 1} of a single long. Otherwise the piles are
+ * stored in an int array.
+ * <p>
+ * States of games with the default numbers of piles and tokens are interned,
+ * so that each state is only created once. Other games can have too many
+ * states to keep them all.
+ * <p>
+ * Each configuration shares one instance of each action that can be taken in
+ * its games, unless its games have too many actions to keep them all.
+ */
+public final class NimConfig {
+
+  /** Configuration of the game used by the experiments. */
+  public static final NimConfig DEFAULT =
+      new NimConfig(NUM_PILES, MAX_TOKENS_PER_PILE);
+
+  /** Largest number of actions of a game whose actions are shared. */
+  private static final int MAX_SHARED_ACTIONS = 1 << 20;
+
+  /** Number of piles in the game. */
+  public final int numPiles;
+
+  /** Maximum number of tokens in each pile when the game begins. */
+  public final int maxTokensPerPile;
+
+  /** Number of bits used by each pile of a packed state. */
+  final int bitsPerPile;
+
+  /** Whether the piles of a state are packed into a long. */
+  final boolean packed;
+
+  /** Mask of the bits of a single pile of a packed state. */
+  private final long pileMask;
+
+  /** Whether the states of the game are interned. */
+  final boolean interned;
+
+  /**
+   * Shared instance of each action, where the action that takes n tokens from
+   * pile i is at index {@code i * maxTokensPerPile + n - 1}, or null until it
+   * is first asked for. Null if the game has too many actions to share.
+   */
+  private final AtomicReferenceArray<NimAction> actions;
+
+  /**
+   * Creates the configuration of a game with the given numbers of piles and
+   * tokens.
+   *
+   * @throws IllegalArgumentException if there are no piles or no tokens
+   */
+  public NimConfig(int numPiles, int maxTokensPerPile) {
+    if (numPiles < 1) {
+      throw new IllegalArgumentException("numPiles must be positive");
+    }
+
+    if (maxTokensPerPile < 1) {
+      throw new IllegalArgumentException("maxTokensPerPile must be positive");
+    }
+
+    this.numPiles = numPiles;
+    this.maxTokensPerPile = maxTokensPerPile;
+    int bits = Integer.SIZE - Integer.numberOfLeadingZeros(maxTokensPerPile);
+    this.bitsPerPile = Math.max(1, bits);
+    this.packed = numPiles * bitsPerPile <= Long.SIZE;
+    this.pileMask = (1L << bitsPerPile) - 1;
+    this.interned = numPiles == NUM_PILES
+                    && maxTokensPerPile == MAX_TOKENS_PER_PILE;
+    long numActions = (long) numPiles * maxTokensPerPile;
+    this.actions = numActions <= MAX_SHARED_ACTIONS
+                   ? new AtomicReferenceArray<>((int) numActions)
+                   : null;
+  }
+
+  /**
+   * Returns the action that takes the given number of tokens from the given
+   * pile, which is a shared instance if the pile and the number of tokens are
+   * within the limits of this configuration and its actions are shared.
+   *
+   * @throws IllegalArgumentException if the pile is negative or the number of
+   *                                  tokens is not positive
+   */
+  public NimAction action(int pile, int numTokens) {
+    if (pile < 0) {
+      throw new IllegalArgumentException("pile must not be negative");
+    }
+
+    if (numTokens < 1) {
+      throw new IllegalArgumentException("numTokens must be positive");
+    }
+
+    if (actions == null
+        || pile >= numPiles
+        || numTokens > maxTokensPerPile) {
+      return new NimAction(pile, numTokens);
+    }
+
+    int i = pile * maxTokensPerPile + numTokens - 1;
+    NimAction a = actions.get(i);
+
+    if (a == null) {
+      a = new NimAction(pile, numTokens);
+
+      // Another thread may have created the same action first
+      if (!actions.compareAndSet(i, null, a)) {
+        a = actions.get(i);
+      }
+    }
+
+    return a;
+  }
+
+  /** Returns the number of tokens in the given pile of a packed state. */
+  int pile(long packedPiles, int i) {
+    return (int) ((packedPiles >>> (i * bitsPerPile)) & pileMask);
+  }
+
+  /** Returns the given packed piles with the given pile replaced. */
+  long withPile(long packedPiles, int i, int numTokens) {
+    int shift = i * bitsPerPile;
+    return (packedPiles & ~(pileMask << shift)) | ((long) numTokens << shift);
+  }
+
+  /** Packs the given pile sizes into a long. */
+  long pack(int[] pileSizes) {
+    long packedPiles = 0L;
+
+    for (int i = 0 ; i < pileSizes.length ; i++) {
+      packedPiles = withPile(packedPiles, i, pileSizes[i]);
+    }
+
+    return packedPiles;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == null) {
+      return false;
+    }
+
+    if (!NimConfig.class.isAssignableFrom(o.getClass())) {
+      return false;
+    }
+
+    final NimConfig other = (NimConfig) o;
+    return this.numPiles == other.numPiles
+           && this.maxTokensPerPile == other.maxTokensPerPile;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * numPiles + maxTokensPerPile;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d piles of %d tokens", numPiles, maxTokensPerPile);
+  }
+}
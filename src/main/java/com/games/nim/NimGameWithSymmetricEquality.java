@@ -0,0 +1,31 @@
+package com.games.nim;
+
+import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+
+/**
+ * Game of Nim where the first player is chosen randomly. States that only
+ * differ by the order of their piles are made equal by
+ * {@link NimStateWithSymmetricEquality}.
+ */
+public final class NimGameWithSymmetricEquality extends NimGame {
+
+  public NimGameWithSymmetricEquality(Agent a1, Agent a2) {
+    this(a1, a2, SplittableRandomSource.PER_THREAD);
+  }
+
+  public NimGameWithSymmetricEquality(Agent a1, Agent a2, RandomSource random) {
+    this(a1, a2, NimConfig.DEFAULT, random);
+  }
+
+  public NimGameWithSymmetricEquality(
+      Agent a1, Agent a2, NimConfig config, RandomSource random) {
+    super(a1,
+          a2,
+          random,
+          new NimRules(config,
+                       false /* without exploring starts */,
+                       true /* with symmetric equality */));
+  }
+}
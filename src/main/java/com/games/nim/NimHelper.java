@@ -1,5 +1,7 @@
 package com.games.nim;
 
+import com.games.general.Zobrist;
+
 public class NimHelper {
 
   /** Number of piles in the game. */
@@ -17,6 +19,32 @@ public class NimHelper {
   /** Return for an action that does not cause the game to end. */
   public static final int GAME_IN_PROGRESS_RETURN = 0;
 
+  /** Salt that distinguishes Nim Zobrist keys from other games'. */
+  private static final long ZOBRIST_SALT = 3;
+
+  /** Zobrist key of O being the next player. */
+  public static final long O_TO_MOVE_KEY = Zobrist.key(ZOBRIST_SALT, -1, 1);
+
+  /**
+   * Returns the Zobrist key of the given pile holding the given number of
+   * tokens. Keys are computed rather than looked up so that any number of
+   * piles and tokens can be hashed.
+   */
+  public static long zobristKey(int pile, int numTokens) {
+    return numTokens == 0 ? 0L : Zobrist.key(ZOBRIST_SALT, pile, numTokens);
+  }
+
+  /** Returns the Zobrist hash of the given piles and next player. */
+  public static long zobristHash(int[] piles, Player next) {
+    long hash = (next == Player.O) ? O_TO_MOVE_KEY : 0L;
+
+    for (int i = 0 ; i < piles.length ; i++) {
+      hash ^= zobristKey(i, piles[i]);
+    }
+
+    return hash;
+  }
+
   /** Names of the game players. */
   public enum Player {
     X,
@@ -0,0 +1,77 @@
+package com.games.nim;
+
+import static com.games.nim.NimHelper.GAME_IN_PROGRESS_RETURN;
+import static com.games.nim.NimHelper.LOSS_RETURN;
+import static com.games.nim.NimHelper.WIN_RETURN;
+
+import com.games.general.Action;
+import com.games.general.GameRules;
+import com.games.general.RandomSource;
+
+/**
+ * Rules of Nim, where the player who takes the last token loses. A game of
+ * Nim cannot end in a draw.
+ */
+public final class NimRules implements GameRules<NimState> {
+
+  private final NimConfig config;
+
+  /** Whether each game starts from random piles with a random first action. */
+  private final boolean exploringStarts;
+
+  /** Whether the states ignore the order of the piles. */
+  private final boolean symmetricEquality;
+
+  public NimRules(NimConfig config,
+                  boolean exploringStarts,
+                  boolean symmetricEquality) {
+    this.config = config;
+    this.exploringStarts = exploringStarts;
+    this.symmetricEquality = symmetricEquality;
+  }
+
+  @Override
+  public NimState initialState(RandomSource random) {
+    if (!exploringStarts) {
+      return symmetricEquality
+          ? NimStateWithSymmetricEquality.initialState(config)
+          : NimState.initialState(config);
+    }
+
+    NimState state =
+        new NimState(config, true /* with exploring starts */, random);
+
+    // Sort the random initial piles rather than drawing new ones
+    return symmetricEquality ? new NimStateWithSymmetricEquality(state).intern()
+                             : state.intern();
+  }
+
+  @Override
+  public boolean hasExploringStarts() {
+    return exploringStarts;
+  }
+
+  @Override
+  public int outcome(NimState state, Action action, Action previousAction) {
+    return outcome(state);
+  }
+
+  @Override
+  public int finalReturn(int outcome, int player) {
+    return outcome == player ? WIN_RETURN : LOSS_RETURN;
+  }
+
+  @Override
+  public int gameInProgressReturn() {
+    return GAME_IN_PROGRESS_RETURN;
+  }
+
+  /** Returns the outcome of a game that reached the given state. */
+  static int outcome(NimState state) {
+    switch (state.getWinner()) {
+      case X:  return FIRST_PLAYER_WON;
+      case O:  return SECOND_PLAYER_WON;
+      default: return GAME_NOT_OVER;
+    }
+  }
+}
@@ -1,30 +1,65 @@
 package com.games.nim;
 
-import static com.games.nim.NimHelper.NUM_PILES;
-import static com.games.nim.NimHelper.MAX_TOKENS_PER_PILE;
-
 import com.games.nim.NimHelper.Player;
 import com.games.nim.NimHelper.Winner;
 import com.games.general.Action;
+import com.games.general.InternTable;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
 import com.games.general.State;
+import com.games.general.Zobrist;
 
-import com.google.common.annotations.VisibleForTesting;
-
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.List;
-
-/** State of a game of Nim. */
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * State of a game of Nim.
+ * <p>
+ * States of games with the default configuration are interned in a single
+ * table for all games and threads, which is never cleared, so it keeps every
+ * state reached for the life of the process. That is at most 1024 states, one
+ * for each size of the three piles of up to 7 tokens and each player to move.
+ * States of other configurations are not interned, so they are freed along
+ * with the games that reach them.
+ */
 public class NimState implements State {
 
-  /** Number of tokens in each pile. */
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<NimState> STATES = new InternTable<>();
+
+  /** Canonical state with all piles full. */
+  private static final NimState INITIAL = STATES.intern(new NimState());
+
+  /** Numbers of piles and tokens of the game, and the layout of the piles. */
+  protected final NimConfig config;
+
+  /**
+   * Number of tokens in each pile packed as described in {@link NimConfig}, or
+   * 0 if the piles do not fit in a long.
+   */
+  private final long packedPiles;
+
+  /** Number of tokens in each pile, or null if they are packed. */
   private final int[] piles;
 
-  /** List of possible actions to take from this state. */
-  private List<Action> actions;
+  /**
+   * Zobrist hash of {@link #piles} and {@link #nextTurn}, as computed by
+   * {@link NimHelper#zobristHash}.
+   */
+  private final long hash;
+
+  /**
+   * List of possible actions to take from this state, or null until
+   * {@link #getActions()} is first called. The list only has final fields, so
+   * it can be shared by several threads without being volatile.
+   */
+  private PileActions actions;
 
   /** Player whose turn it is to move from this state. */
-  private Player nextTurn;
+  protected Player nextTurn;
 
   /**
    * Winning player if this is a terminal state, otherwise
@@ -38,20 +73,39 @@ public class NimState implements State {
 
   /** Creates a state with all piles full. */
   public NimState() {
-    piles = new int[NUM_PILES];
-    initialisePiles(false /* not with exploring starts */);
-    nextTurn = Player.X;
-    computeActions();
-    isTerminalState();  // ignore result
+    this(NimConfig.DEFAULT);
+  }
+
+  /** Creates a state of a game with the given configuration and full piles. */
+  public NimState(NimConfig config) {
+    this(config, false /* not with exploring starts */, null);
   }
 
   /** Creates a state with all piles full or initialised randomly. */
   public NimState(boolean withExploringStarts) {
-    piles = new int[NUM_PILES];
-    initialisePiles(withExploringStarts);
-    nextTurn = Player.X;
-    computeActions();
-    isTerminalState();  // ignore result
+    this(withExploringStarts, SplittableRandomSource.PER_THREAD);
+  }
+
+  /**
+   * Creates a state with all piles full or initialised randomly by the given
+   * source.
+   */
+  public NimState(boolean withExploringStarts, RandomSource random) {
+    this(NimConfig.DEFAULT, withExploringStarts, random);
+  }
+
+  /**
+   * Creates a state of a game with the given configuration, with all piles
+   * full or initialised randomly by the given source.
+   *
+   * @throws IllegalArgumentException if with exploring starts and the game has
+   *                                  fewer than two piles, since at least two
+   *                                  must start non-empty
+   */
+  public NimState(NimConfig config,
+                  boolean withExploringStarts,
+                  RandomSource random) {
+    this(config, Player.X, initialPiles(config, withExploringStarts, random));
   }
 
   /**
@@ -59,25 +113,62 @@ public class NimState implements State {
    * state.
    */
   private NimState(NimState oldState, NimAction action) {
-    piles = Arrays.copyOf(oldState.piles, oldState.piles.length);
-    piles[action.pile] -= action.numTokens;
+    int oldPile = oldState.pile(action.pile);
+    int newPile = oldPile - action.numTokens;
+
+    config = oldState.config;
+
+    if (config.packed) {
+      packedPiles = config.withPile(oldState.packedPiles, action.pile, newPile);
+      piles = null;
+    } else {
+      packedPiles = 0L;
+      piles = Arrays.copyOf(oldState.piles, oldState.piles.length);
+      piles[action.pile] = newPile;
+    }
+
+    hash = oldState.hash
+           ^ NimHelper.zobristKey(action.pile, oldPile)
+           ^ NimHelper.zobristKey(action.pile, newPile)
+           ^ NimHelper.O_TO_MOVE_KEY;
 
     switch (oldState.nextTurn) {
       case X: nextTurn = Player.O; break;
       case O: nextTurn = Player.X; break;
     }
 
-    computeActions();
-    isTerminalState();  // ignore result
   }
 
   /** Creates a state with the given pile sizes and next player. */
-  @VisibleForTesting
   NimState(Player next, int... pileSizes) {
-    piles = pileSizes;
+    this(new NimConfig(pileSizes.length, maxPile(pileSizes)), next, pileSizes);
+  }
+
+  /**
+   * Creates a state of a game with the given configuration, pile sizes and
+   * next player.
+   */
+  protected NimState(NimConfig config, Player next, int[] pileSizes) {
+    this.config = config;
+
+    if (config.packed) {
+      packedPiles = config.pack(pileSizes);
+      piles = null;
+    } else {
+      packedPiles = 0L;
+      piles = pileSizes;
+    }
+
     nextTurn = next;
-    computeActions();
-    isTerminalState();  // ignore result
+    hash = NimHelper.zobristHash(pileSizes, nextTurn);
+  }
+
+  /**
+   * Returns the state of a game with the given configuration with all piles
+   * full, which is shared by all games if their states are interned.
+   */
+  public static NimState initialState(NimConfig config) {
+    return config.interned ? INITIAL : new NimState(config);
   }
 
 
@@ -85,46 +176,73 @@ public class NimState implements State {
 
   @Override
   public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
     if (o == null) {
       return false;
     }
 
-    if (!NimState.class.isAssignableFrom(o.getClass())) {
+    // Each variant has its own canonical states, so a state only equals a
+    // state of the same variant
+    if (this.getClass() != o.getClass()) {
       return false;
     }
 
     final NimState other = (NimState) o;
-    return Arrays.equals(this.piles, other.piles)
-           && this.nextTurn == other.nextTurn;
+    return this.hash == other.hash
+           && this.nextTurn == other.nextTurn
+           && samePiles(other);
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(piles);
+    return Zobrist.fold(hash);
   }
 
 
   // IMPLEMENTATIONS OF STATE INTERFACE METHODS
 
+  /**
+   * Returns the state that results from applying the given action to this
+   * state, which is only created the first time the action is applied if the
+   * states of the game are interned.
+   */
   @Override
   public State applyAction(Action action) {
-    return new NimState(this, (NimAction) action);
+    computeActions();
+    PileActions actions = this.actions;
+    AtomicReferenceArray<State> successors = actions.successors;
+    int i = (successors == null) ? -1 : actions.indexOf(action);
+
+    if (i < 0) {
+      return successor((NimAction) action);
+    }
+
+    State next = successors.get(i);
+
+    if (next == null) {
+      next = successor((NimAction) action);
+      successors.set(i, next);
+    }
+
+    return next;
   }
 
+  /**
+   * Returns the list of all actions that can be taken from this state, which
+   * is computed the first time it is needed.
+   */
   @Override
   public List<Action> getActions() {
+    computeActions();
     return actions;
   }
 
   @Override
   public boolean isTerminalState() {
-    int totalCount = 0;
-
-    for (int i = 0 ; i < piles.length ; i++) {
-      totalCount += piles[i];
-    }
-
-    if (totalCount > 0) {
+    if (!allPilesEmpty()) {
       winner = Winner.GAME_NOT_OVER;
       return false;
     } else if (nextTurn == Player.X) {
@@ -138,17 +256,17 @@ public class NimState implements State {
 
   @Override
   public void print() {
-    System.out.println(Arrays.toString(piles));
+    System.out.println(Arrays.toString(pileSizes()));
   }
 
   @Override
   public String toString() {
     StringBuilder builder = new StringBuilder();
 
-    for (int i = 0 ; i < piles.length ; i++) {
-      builder.append(piles[i]);
+    for (int i = 0 ; i < config.numPiles ; i++) {
+      builder.append(pile(i));
 
-      if (i < piles.length-1) {
+      if (i < config.numPiles-1) {
         builder.append(" ");
       }
     }
@@ -157,59 +275,230 @@ public class NimState implements State {
   }
 
   /**
-   * Returns the winner of the game, if any.
-   * <p>
-   * Can only be called after {@link #isTerminalState()}.
+   * Returns the winner of the game, if any, which is computed the first time
+   * it is needed.
    *
    * @return winner of the game, if any
    */
   Winner getWinner() {
+    isTerminalState();  // ignore result
     return winner;
   }
 
 
+  /** Returns the number of tokens in the given pile. */
+  public int pile(int i) {
+    return config.packed ? config.pile(packedPiles, i) : piles[i];
+  }
+
+  /** Returns a copy of the number of tokens in each pile. */
+  public int[] pileSizes() {
+    if (!config.packed) {
+      return Arrays.copyOf(piles, piles.length);
+    }
+
+    int[] pileSizes = new int[config.numPiles];
+
+    for (int i = 0 ; i < pileSizes.length ; i++) {
+      pileSizes[i] = config.pile(packedPiles, i);
+    }
+
+    return pileSizes;
+  }
+
+
   // HELPER METHODS
 
   /**
-   * Fills the piles with random numbers of tokens, if with exploring starts,
-   * otherwise fills all piles with the maximum number of tokens.
+   * Returns the canonical instance of this state if the states of the game are
+   * interned, otherwise this state.
+   */
+  NimState intern() {
+    return config.interned ? STATES.intern(this) : this;
+  }
+
+  /**
+   * Returns the state that results from applying the given action at this
+   * state, which is the canonical instance if the states are interned.
+   */
+  protected State successor(NimAction action) {
+    return new NimState(this, action).intern();
+  }
+
+  /**
+   * Returns the initial pile sizes of a game with the given configuration,
+   * which are random if with exploring starts, otherwise all piles are full.
    */
-  private void initialisePiles(boolean withExploringStarts) {
+  private static int[] initialPiles(NimConfig config,
+                                    boolean withExploringStarts,
+                                    RandomSource random) {
+    int[] pileSizes = new int[config.numPiles];
+
     if (withExploringStarts) {
+      if (config.numPiles < 2) {
+        throw new IllegalArgumentException(
+            "Exploring starts need at least two piles");
+      }
+
       int nonEmptyPileCount = 0;
 
       // To ensure game doesn't end after one move
       while (nonEmptyPileCount < 2) {
         nonEmptyPileCount = 0;
 
-        for (int i = 0 ; i < piles.length ; i++) {
-          piles[i] = (int) (Math.random() * (MAX_TOKENS_PER_PILE + 1));
+        for (int i = 0 ; i < pileSizes.length ; i++) {
+          pileSizes[i] = random.nextInt(config.maxTokensPerPile + 1);
 
-          if (piles[i] > 0) {
+          if (pileSizes[i] > 0) {
             nonEmptyPileCount++;
           }
         }
       }
 
     } else {
-      Arrays.fill(piles, MAX_TOKENS_PER_PILE);
+      Arrays.fill(pileSizes, config.maxTokensPerPile);
     }
+
+    return pileSizes;
   }
 
   /**
-   * Populates {@link #actions} with all actions that can be taken from this
-   * state.
+   * Returns the larger of {@link NimHelper#MAX_TOKENS_PER_PILE} and the
+   * largest of the given pile sizes.
+   */
+  private static int maxPile(int[] pileSizes) {
+    int max = NimHelper.MAX_TOKENS_PER_PILE;
+
+    for (int n : pileSizes) {
+      max = Math.max(max, n);
+    }
+
+    return max;
+  }
+
+  /** Returns whether every pile is empty. */
+  private boolean allPilesEmpty() {
+    if (config.packed) {
+      return packedPiles == 0L;
+    }
+
+    for (int n : piles) {
+      if (n > 0) return false;
+    }
+
+    return true;
+  }
+
+  /** Returns whether the given state has the same piles as this state. */
+  private boolean samePiles(NimState other) {
+    if (this.config.numPiles != other.config.numPiles) {
+      return false;
+    }
+
+    if (this.config.packed && other.config.packed
+        && this.config.bitsPerPile == other.config.bitsPerPile) {
+      return this.packedPiles == other.packedPiles;
+    }
+
+    for (int i = 0 ; i < config.numPiles ; i++) {
+      if (this.pile(i) != other.pile(i)) return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Sets {@link #actions} to a view of all actions that can be taken from this
+   * state, which takes 1 to n tokens from each pile of n tokens in turn. The
+   * actions are not stored, but computed from their position in the view.
    */
   protected void computeActions() {
     // Actions are only computed once
     if (actions != null) return;
 
-    actions = new ArrayList<>();
+    actions = new PileActions();
+  }
+
+  /**
+   * List of the actions that can be taken from this state, where the actions
+   * on pile i take up to {@code pile(i)} tokens and come after those on the
+   * piles before it.
+   */
+  private final class PileActions extends AbstractList<Action>
+                                  implements RandomAccess {
+
+    /** Total number of tokens in all piles, which is the number of actions. */
+    private final int size;
+
+    /**
+     * Canonical state that results from each action, indexed by the position
+     * of the action, or null until the action is first applied. Null if the
+     * states of the game are not interned.
+     */
+    final AtomicReferenceArray<State> successors;
+
+    PileActions() {
+      int total = 0;
+
+      for (int i = 0 ; i < config.numPiles ; i++) {
+        total += pile(i);
+      }
+
+      size = total;
+      successors = config.interned ? new AtomicReferenceArray<>(size) : null;
+    }
+
+    @Override
+    public Action get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index);
+      }
+
+      int pile = 0;
+
+      while (index >= pile(pile)) {
+        index -= pile(pile);
+        pile++;
+      }
+
+      return config.action(pile, index + 1);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+      if (o == null || !NimAction.class.isAssignableFrom(o.getClass())) {
+        return -1;
+      }
+
+      NimAction a = (NimAction) o;
 
-    for (int i = 0; i < piles.length ; i++) {
-      for (int n = 1 ; n <= piles[i] ; n++) {
-        actions.add(new NimAction(i, n));
+      if (a.pile < 0 || a.pile >= config.numPiles
+          || a.numTokens < 1 || a.numTokens > pile(a.pile)) {
+        return -1;
       }
+
+      int index = a.numTokens - 1;
+
+      for (int i = 0 ; i < a.pile ; i++) {
+        index += pile(i);
+      }
+
+      return index;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+      return indexOf(o);  // actions are unique
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return indexOf(o) >= 0;
     }
   }
 }
@@ -0,0 +1,90 @@
+package com.games.nim;
+
+import com.games.general.State;
+import com.games.general.StateSpace;
+import com.games.nim.NimHelper.Player;
+
+/**
+ * Space of all states of a game of Nim with a given configuration, which has
+ * a state for every size of every pile up to the maximum and either player
+ * to move.
+ * <p>
+ * A state is ranked by reading its piles as the digits of a number in base
+ * {@code maxTokensPerPile + 1}, after the player to move, so ranking takes no
+ * memory. This includes the states reached by exploring starts, and only a
+ * handful of states cannot be reached from full piles (such as full piles with
+ * O to move).
+ */
+public final class NimStateSpace implements StateSpace {
+
+  private final NimConfig config;
+
+  /** Number of states with each player to move. */
+  private final int statesPerPlayer;
+
+  /**
+   * Creates the space of states of a game with the given configuration.
+   *
+   * @throws IllegalArgumentException if there are more than
+   *                                  {@link Integer#MAX_VALUE} states
+   */
+  public NimStateSpace(NimConfig config) {
+    this.config = config;
+
+    try {
+      int n = 1;
+
+      for (int i = 0 ; i < config.numPiles ; i++) {
+        n = Math.multiplyExact(n, config.maxTokensPerPile + 1);
+      }
+
+      Math.multiplyExact(n, 2);  // check that all ranks fit in an int
+      statesPerPlayer = n;
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(
+          "Too many states to rank in a game of " + config);
+    }
+  }
+
+  @Override
+  public int size() {
+    return 2 * statesPerPlayer;
+  }
+
+  @Override
+  public int rank(State s) {
+    NimState state = (NimState) s;
+
+    if (state.config.numPiles != config.numPiles) {
+      return -1;
+    }
+
+    int rank = 0;
+
+    for (int i = 0 ; i < config.numPiles ; i++) {
+      int pile = state.pile(i);
+
+      if (pile > config.maxTokensPerPile) {
+        return -1;
+      }
+
+      rank = rank * (config.maxTokensPerPile + 1) + pile;
+    }
+
+    return (state.nextTurn == Player.X) ? rank : statesPerPlayer + rank;
+  }
+
+  @Override
+  public State unrank(int rank) {
+    Player next = (rank < statesPerPlayer) ? Player.X : Player.O;
+    int[] pileSizes = new int[config.numPiles];
+    rank %= statesPerPlayer;
+
+    for (int i = config.numPiles - 1 ; i >= 0 ; i--) {
+      pileSizes[i] = rank % (config.maxTokensPerPile + 1);
+      rank /= config.maxTokensPerPile + 1;
+    }
+
+    return new NimState(config, next, pileSizes);
+  }
+}
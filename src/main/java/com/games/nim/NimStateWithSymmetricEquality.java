@@ -0,0 +1,96 @@
+package com.games.nim;
+
+import com.games.general.InternTable;
+import com.games.general.State;
+import com.games.nim.NimHelper.Player;
+
+import java.util.Arrays;
+
+/**
+ * State of a game of Nim that is considered equal to another state if their
+ * piles hold the same numbers of tokens in a different order.
+ * <p>
+ * Every state keeps its piles in ascending order of size, so the game is
+ * played on the sorted piles from then on and the actions of a state refer to
+ * its sorted piles. The number of states is therefore divided by up to the
+ * factorial of the number of piles.
+ * <p>
+ * As with {@link NimState}, only the states of the default configuration are
+ * interned, in a table of their own that is never cleared. It holds at most
+ * 240 states, one for each sorted set of pile sizes and each player to move.
+ */
+public final class NimStateWithSymmetricEquality extends NimState {
+
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<NimStateWithSymmetricEquality> STATES =
+      new InternTable<>();
+
+  /** Canonical state with all piles full. */
+  private static final NimStateWithSymmetricEquality INITIAL =
+      STATES.intern(new NimStateWithSymmetricEquality());
+
+  // CONSTRUCTORS
+
+  /** Creates a state with all piles full. */
+  public NimStateWithSymmetricEquality() {
+    // Full piles are already sorted
+    super();
+  }
+
+  /**
+   * Creates a state of a game with the given configuration and full piles.
+   */
+  public NimStateWithSymmetricEquality(NimConfig config) {
+    // Full piles are already sorted
+    super(config);
+  }
+
+  /** Creates a state with the piles of the given state in ascending order. */
+  public NimStateWithSymmetricEquality(NimState s) {
+    this(s.config, s.nextTurn, sortedPiles(s.pileSizes()));
+  }
+
+  /**
+   * Creates a state of a game with the given configuration, sorted pile sizes
+   * and next player.
+   */
+  private NimStateWithSymmetricEquality(NimConfig config,
+                                        Player next,
+                                        int[] sortedPileSizes) {
+    super(config, next, sortedPileSizes);
+  }
+
+
+  /**
+   * Returns the state of a game with the given configuration with all piles
+   * full, which is shared by all games if their states are interned.
+   */
+  public static NimStateWithSymmetricEquality initialState(NimConfig config) {
+    return config.interned ? INITIAL
+                           : new NimStateWithSymmetricEquality(config);
+  }
+
+
+  // HELPER METHODS
+
+  @Override
+  NimStateWithSymmetricEquality intern() {
+    return config.interned ? STATES.intern(this) : this;
+  }
+
+  @Override
+  protected State successor(NimAction action) {
+    int[] nextPiles = pileSizes();
+    nextPiles[action.pile] -= action.numTokens;
+    Arrays.sort(nextPiles);
+
+    return new NimStateWithSymmetricEquality(
+        config, nextTurn == Player.X ? Player.O : Player.X, nextPiles).intern();
+  }
+
+  /** Sorts the given pile sizes in ascending order and returns them. */
+  private static int[] sortedPiles(int[] pileSizes) {
+    Arrays.sort(pileSizes);
+    return pileSizes;
+  }
+}
@@ -1,20 +1,62 @@
 package com.games.tictactoe;
 
+import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
+
 import com.games.general.Action;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 
 /** Action taken by a player in a game of Tic-Tac-Toe. */
 public final class TicTacToeAction implements Action {
 
+  /** Number of distinct IDs of actions that place an X or an O. */
+  public static final int NUM_IDS = 2 * GRID_SIZE;
+
+  /** Shared instances of all legal actions, indexed by ID. */
+  private static final TicTacToeAction[] INSTANCES =
+      new TicTacToeAction[NUM_IDS];
+
+  static {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      INSTANCES[2 * i] = new TicTacToeAction(i, TokenType.X);
+      INSTANCES[2 * i + 1] = new TicTacToeAction(i, TokenType.O);
+    }
+  }
+
   /** Index on board where the piece is to be placed. */
   public final int index;
 
   /** Type of token to be placed. */
   public final TokenType tokenType;
 
+  /**
+   * Dense ID of this action: twice the index, plus one if the token is an O.
+   * IDs are unique among actions that place an X or an O.
+   */
+  public final int id;
+
+  /**
+   * Creates the action that places the given X or O token at the given index.
+   *
+   * @throws IllegalArgumentException if the token is {@link TokenType#NONE}
+   *                                  or the index is not on the board
+   */
   public TicTacToeAction(int i, TokenType t) {
+    checkArguments(i, t);
     this.index = i;
     this.tokenType = t;
+    this.id = 2 * i + (t == TokenType.O ? 1 : 0);
+  }
+
+  /**
+   * Returns the shared instance of the action that places the given X or O
+   * token at the given index.
+   *
+   * @throws IllegalArgumentException if the token is {@link TokenType#NONE}
+   *                                  or the index is not on the board
+   */
+  public static TicTacToeAction of(int i, TokenType t) {
+    checkArguments(i, t);
+    return INSTANCES[2 * i + (t == TokenType.O ? 1 : 0)];
   }
 
   @Override
@@ -31,15 +73,7 @@ public final class TicTacToeAction implements Action {
 
   @Override
   public int hashCode() {
-    int hash = 2^index;
-
-    switch (tokenType) {
-      case NONE: hash *= 3^0; break;
-      case X:    hash *= 3^1; break;
-      case O:    hash *= 3^2; break;
-    }
-
-    return hash;
+    return id;
   }
 
   @Override
@@ -62,4 +96,21 @@ public final class TicTacToeAction implements Action {
 
     System.out.print(s);
   }
+
+
+  // PRIVATE HELPER METHODS
+
+  /**
+   * Throws if the given index and token are not those of a legal action, so
+   * that every action has its own ID.
+   */
+  private static void checkArguments(int i, TokenType t) {
+    if (t == TokenType.NONE) {
+      throw new IllegalArgumentException("Cannot place a token of type NONE");
+    }
+
+    if (i < 0 || i >= GRID_SIZE) {
+      throw new IllegalArgumentException("Index not on the board: " + i);
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package com.games.tictactoe;
 
 import com.games.general.Agent;
+import com.games.general.RandomSource;
 
 /**
  * Game of Tic-Tac-Toe where the the first player is chosen randomly. The first
@@ -12,7 +13,10 @@ import com.games.general.Agent;
 public final class TicTacToeGameWithLimitedActions extends TicTacToeGame {
 
   public TicTacToeGameWithLimitedActions(Agent a1, Agent a2) {
-    super(a1, a2);
-    state = new TicTacToeStateWithLimitedActions();
+    super(a1, a2, TicTacToeStateWithLimitedActions.initialState());
+  }
+
+  public TicTacToeGameWithLimitedActions(Agent a1, Agent a2, RandomSource random) {
+    super(a1, a2, random, TicTacToeStateWithLimitedActions.initialState());
   }
 }
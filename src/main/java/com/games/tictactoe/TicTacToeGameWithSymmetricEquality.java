@@ -1,6 +1,7 @@
 package com.games.tictactoe;
 
 import com.games.general.Agent;
+import com.games.general.RandomSource;
 
 /**
  * Game of Tic-Tac-Toe where the the first player is chosen randomly. The first
@@ -11,7 +12,10 @@ import com.games.general.Agent;
 public final class TicTacToeGameWithSymmetricEquality extends TicTacToeGame {
 
   public TicTacToeGameWithSymmetricEquality(Agent a1, Agent a2) {
-    super(a1, a2);
-    state = new TicTacToeStateWithSymmetricEquality();
+    super(a1, a2, TicTacToeStateWithSymmetricEquality.initialState());
+  }
+
+  public TicTacToeGameWithSymmetricEquality(Agent a1, Agent a2, RandomSource random) {
+    super(a1, a2, random, TicTacToeStateWithSymmetricEquality.initialState());
   }
 }
@@ -1,7 +1,9 @@
 package com.games.tictactoe;
 
 import com.games.general.Action;
+import com.games.general.Zobrist;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -63,25 +65,212 @@ public final class TicTacToeHelper {
     System.out.println();
   }
 
+  /** Mask of the bits used by one player's tokens in a packed board. */
+  public static final int CELLS_MASK = (1 << GRID_SIZE) - 1;
+
+  /**
+   * Shift of the O occupancy bits in a packed board: bit {@code i} of a packed
+   * board is set if cell {@code i} holds an X and bit {@code i + O_SHIFT} is
+   * set if it holds an O.
+   */
+  public static final int O_SHIFT = GRID_SIZE;
+
+  /** Masks of the three rows, three columns and two diagonals. */
+  public static final int[] WIN_LINES = new int[] {
+    0b000000111, 0b000111000, 0b111000000,  // rows
+    0b001001001, 0b010010010, 0b100100100,  // columns
+    0b100010001, 0b001010100                // diagonals
+  };
+
   /**
-   * Returns a hash code of a Tic-Tac-Toe grid in such a way that two states
-   * have the same hash code if and only if they have the same tokens, or lack
-   * thereof, at the exact same indices (i.e. no symmetry is taken into
-   * account).
+   * The eight symmetries of the grid (the identity, the reflections along the
+   * vertical axis, horizontal axis, major diagonal and minor diagonal, and the
+   * three rotations) as permutations of the cell indices, where cell {@code i}
+   * of the transformed grid holds the token in cell {@code SYMMETRIES[s][i]}
+   * of the original grid.
    */
-  public static int standardHashCode(List<TokenType> grid) {
-    int hash = 3 * grid.get(0).hashCode();
-    hash +=    5 * grid.get(1).hashCode();
-    hash +=    7 * grid.get(2).hashCode();
-    hash +=   11 * grid.get(3).hashCode();
-    hash +=   13 * grid.get(4).hashCode();
-    hash +=   17 * grid.get(5).hashCode();
-    hash +=   19 * grid.get(6).hashCode();
-    hash +=   23 * grid.get(7).hashCode();
-    hash +=   29 * grid.get(8).hashCode();
+  public static final int[][] SYMMETRIES = new int[][] {
+    {0, 1, 2, 3, 4, 5, 6, 7, 8},  // identity
+    {6, 7, 8, 3, 4, 5, 0, 1, 2},  // vertical flip
+    {2, 1, 0, 5, 4, 3, 8, 7, 6},  // horizontal flip
+    {8, 7, 6, 5, 4, 3, 2, 1, 0},  // vertical and horizontal flip
+    {0, 3, 6, 1, 4, 7, 2, 5, 8},  // major diagonal flip
+    {6, 3, 0, 7, 4, 1, 8, 5, 2},  // major diagonal and horizontal flip
+    {8, 5, 2, 7, 4, 1, 6, 3, 0},  // minor diagonal flip
+    {2, 5, 8, 1, 4, 7, 0, 3, 6}   // minor diagonal and horizontal flip
+  };
+
+  /** Masks of the win lines through each cell, indexed by cell. */
+  public static final int[][] LINES_THROUGH = new int[GRID_SIZE][];
+
+  static {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int count = 0;
+
+      for (int line : WIN_LINES) {
+        if ((line & (1 << i)) != 0) count++;
+      }
+
+      LINES_THROUGH[i] = new int[count];
+
+      for (int line : WIN_LINES) {
+        if ((line & (1 << i)) != 0) LINES_THROUGH[i][--count] = line;
+      }
+    }
+  }
+
+  /** Salt that distinguishes Tic-Tac-Toe Zobrist keys from other games'. */
+  private static final long ZOBRIST_SALT = 1;
+
+  /** Zobrist keys indexed by cell and then token (1 = X, 2 = O). */
+  private static final long[][] ZOBRIST_KEYS =
+      Zobrist.table(ZOBRIST_SALT, GRID_SIZE, 3);
+
+  /** Zobrist key of O being the next player. */
+  public static final long O_TO_MOVE_KEY =
+      Zobrist.key(ZOBRIST_SALT, GRID_SIZE, 1);
+
+  /** Returns the Zobrist key of the given token at the given index. */
+  public static long zobristKey(int index, TokenType t) {
+    switch (t) {
+      case X: return ZOBRIST_KEYS[index][1];
+      case O: return ZOBRIST_KEYS[index][2];
+      default: return 0L;
+    }
+  }
+
+  /** Returns the Zobrist hash of the given packed board and next player. */
+  public static long zobristHash(int board, Player next) {
+    long hash = (next == Player.O) ? O_TO_MOVE_KEY : 0L;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      hash ^= zobristKey(i, tokenAt(board, i));
+    }
+
     return hash;
   }
 
+  /**
+   * Returns the bit that represents the given token at the given index in a
+   * packed board.
+   */
+  public static int bit(int index, TokenType t) {
+    switch (t) {
+      case X: return 1 << index;
+      case O: return 1 << (index + O_SHIFT);
+      default: return 0;
+    }
+  }
+
+  /** Returns the token at the given index of a packed board. */
+  public static TokenType tokenAt(int board, int index) {
+    if ((board & (1 << index)) != 0) return TokenType.X;
+    if ((board & (1 << (index + O_SHIFT))) != 0) return TokenType.O;
+    return TokenType.NONE;
+  }
+
+  /** Returns whether the given occupancy mask covers any win line. */
+  public static boolean hasLine(int cells) {
+    for (int line : WIN_LINES) {
+      if ((cells & line) == line) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether the given occupancy mask covers a win line through the
+   * cell at the given index.
+   */
+  public static boolean hasLineThrough(int cells, int index) {
+    for (int line : LINES_THROUGH[index]) {
+      if ((cells & line) == line) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the packed board that results from applying the given permutation
+   * of {@link #SYMMETRIES} to the given packed board.
+   */
+  public static int transform(int board, int[] permutation) {
+    int transformed = 0;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int from = permutation[i];
+      transformed |= ((board >>> from) & 1) << i;
+      transformed |= ((board >>> (from + O_SHIFT)) & 1) << (i + O_SHIFT);
+    }
+
+    return transformed;
+  }
+
+  /**
+   * Returns the smallest of the packed boards that are symmetrical to the
+   * given packed board, which is the same for all boards in a symmetry class.
+   */
+  public static int canonicalBoard(int board) {
+    int canonical = board;
+
+    for (int s = 1 ; s < SYMMETRIES.length ; s++) {
+      canonical = Math.min(canonical, transform(board, SYMMETRIES[s]));
+    }
+
+    return canonical;
+  }
+
+  /**
+   * Returns the index in {@link #SYMMETRIES} of a permutation that turns the
+   * given packed board into {@link #canonicalBoard}.
+   */
+  public static int canonicalSymmetry(int board) {
+    int canonical = board;
+    int symmetry = 0;
+
+    for (int s = 1 ; s < SYMMETRIES.length ; s++) {
+      int transformed = transform(board, SYMMETRIES[s]);
+
+      if (transformed < canonical) {
+        canonical = transformed;
+        symmetry = s;
+      }
+    }
+
+    return symmetry;
+  }
+
+  /**
+   * Returns the index of the cell that the given cell moves to when the given
+   * permutation of {@link #SYMMETRIES} is applied to a board.
+   */
+  public static int transformIndex(int index, int[] permutation) {
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      if (permutation[i] == index) return i;
+    }
+    return -1;
+  }
+
+  /** Packs the given grid into a board of X and O occupancy masks. */
+  public static int pack(List<TokenType> grid) {
+    int board = 0;
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      board |= bit(i, grid.get(i));
+    }
+
+    return board;
+  }
+
+  /** Unpacks the given board into a grid, as indexed in {@link #print}. */
+  public static List<TokenType> unpack(int board) {
+    List<TokenType> grid = new ArrayList<>(GRID_SIZE);
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      grid.add(tokenAt(board, i));
+    }
+
+    return grid;
+  }
+
   public static List<TokenType> flipGridVertically(List<TokenType> g) {
     return Arrays.asList(g.get(6), g.get(7), g.get(8),
                          g.get(3), g.get(4), g.get(5),
@@ -1,6 +1,7 @@
 package com.games.tictactoe;
 
 import com.games.general.Agent;
+import com.games.general.RandomSource;
 import com.google.common.annotations.VisibleForTesting;
 
 /**
@@ -10,13 +11,15 @@ import com.google.common.annotations.VisibleForTesting;
 public final class TicTacToeNormalGame extends TicTacToeGame {
 
   public TicTacToeNormalGame(Agent a1, Agent a2) {
-    super(a1, a2);
-    state = new TicTacToeNormalState();
+    super(a1, a2, TicTacToeNormalState.initialState());
+  }
+
+  public TicTacToeNormalGame(Agent a1, Agent a2, RandomSource random) {
+    super(a1, a2, random, TicTacToeNormalState.initialState());
   }
 
   @VisibleForTesting
   TicTacToeNormalGame(Agent a1, Agent a2, int swapAgentOrder) {
-    super(a1, a2, swapAgentOrder);
-    state = new TicTacToeNormalState();
+    super(a1, a2, swapAgentOrder, TicTacToeNormalState.initialState());
   }
 }
@@ -1,17 +1,26 @@
 package com.games.tictactoe;
 
 import com.games.general.Action;
+import com.games.general.InternTable;
 import com.games.general.State;
 import com.games.tictactoe.TicTacToeHelper.Player;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 
 import com.google.common.annotations.VisibleForTesting;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public final class TicTacToeNormalState extends TicTacToeState {
 
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<TicTacToeNormalState> STATES =
+      new InternTable<>();
+
+  /** Canonical state with an empty grid. */
+  private static final TicTacToeNormalState INITIAL =
+      STATES.intern(new TicTacToeNormalState());
+
+
   // CONSTRUCTORS
 
   /** Creates a state with an empty grid. */
@@ -33,21 +42,25 @@ public final class TicTacToeNormalState extends TicTacToeState {
   /** Creates a state with the given grid and the given next player. */
   @VisibleForTesting
   TicTacToeNormalState(List<TokenType> g, Player next) {
-    // TicTacToeState no-param constructor is automatically called, so reset
-    this.actions = null;
-    this.winner = null;
-
-    grid = new ArrayList<>(g);
+    board = TicTacToeHelper.pack(g);
     nextTurn = next;
-    computeActions();
-    isTerminalState();
+    hash = TicTacToeHelper.zobristHash(board, nextTurn);
+  }
+
+
+  /**
+   * Returns the canonical state with an empty grid, which is shared by all
+   * games.
+   */
+  public static TicTacToeNormalState initialState() {
+    return INITIAL;
   }
 
 
-  // IMPLEMENTATION OF STATE INTERFACE METHOD
+  // HELPER METHOD
 
   @Override
-  public State applyAction(Action a) {
-    return new TicTacToeNormalState(this, (TicTacToeAction) a);
+  protected State successor(TicTacToeAction action) {
+    return STATES.intern(new TicTacToeNormalState(this, action));
   }
 }
@@ -0,0 +1,65 @@
+package com.games.tictactoe;
+
+import static com.games.tictactoe.TicTacToeHelper.DRAW_RETURN;
+import static com.games.tictactoe.TicTacToeHelper.GAME_IN_PROGRESS_RETURN;
+import static com.games.tictactoe.TicTacToeHelper.LOSS_RETURN;
+import static com.games.tictactoe.TicTacToeHelper.WIN_RETURN;
+
+import com.games.general.Action;
+import com.games.general.GameRules;
+import com.games.general.RandomSource;
+
+/**
+ * Rules of Tic-Tac-Toe, where the first player uses X tokens and the second
+ * player uses O tokens.
+ */
+public final class TicTacToeRules implements GameRules<TicTacToeState> {
+
+  /** Canonical empty grid of the variant of the game. */
+  private final TicTacToeState initialState;
+
+  public TicTacToeRules(TicTacToeState initialState) {
+    this.initialState = initialState;
+  }
+
+  @Override
+  public TicTacToeState initialState(RandomSource random) {
+    return initialState;
+  }
+
+  @Override
+  public boolean hasExploringStarts() {
+    return false;
+  }
+
+  @Override
+  public int outcome(TicTacToeState state,
+                     Action action,
+                     Action previousAction) {
+    return outcome(state);
+  }
+
+  @Override
+  public int finalReturn(int outcome, int player) {
+    if (outcome == DRAW) {
+      return DRAW_RETURN;
+    }
+
+    return outcome == player ? WIN_RETURN : LOSS_RETURN;
+  }
+
+  @Override
+  public int gameInProgressReturn() {
+    return GAME_IN_PROGRESS_RETURN;
+  }
+
+  /** Returns the outcome of a game that reached the given state. */
+  static int outcome(TicTacToeState state) {
+    switch (state.getWinner()) {
+      case DRAW: return DRAW;
+      case X:    return FIRST_PLAYER_WON;
+      case O:    return SECOND_PLAYER_WON;
+      default:   return GAME_NOT_OVER;
+    }
+  }
+}
@@ -1,33 +1,48 @@
 package com.games.tictactoe;
 
+import static com.games.tictactoe.TicTacToeHelper.CELLS_MASK;
 import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
+import static com.games.tictactoe.TicTacToeHelper.O_SHIFT;
 
 import com.games.general.Action;
 import com.games.general.State;
+import com.games.general.Zobrist;
 import com.games.tictactoe.TicTacToeHelper.Player;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 import com.games.tictactoe.TicTacToeHelper.Winner;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /** State of a game of Tic-Tac-Toe. */
 public abstract class TicTacToeState implements State {
 
   /**
-   * Tic-Tac-Toe grid, where the list indices represent the board as:
+   * Tic-Tac-Toe grid packed into the X and O occupancy masks described in
+   * {@link TicTacToeHelper#O_SHIFT}, where the cell indices represent the
+   * board as:
    *    0 | 1 | 2
    *   -----------
    *    3 | 4 | 5
    *   -----------
    *    6 | 7 | 8
    */
-  protected List<TokenType> grid;
+  protected int board;
 
-  /** List of possible actions to take from this state. */
-  protected List<Action> actions = null;
+  /**
+   * Zobrist hash of {@link #board} and {@link #nextTurn}, as computed by
+   * {@link TicTacToeHelper#zobristHash}.
+   */
+  protected long hash;
+
+  /**
+   * List of possible actions to take from this state, or null until
+   * {@link #getActions()} is first called. Volatile, since a state can be
+   * shared by several threads, so that a thread that sees the list also sees
+   * its contents.
+   */
+  protected volatile List<Action> actions = null;
 
   /** Player whose turn it is to move from this state. */
   protected Player nextTurn;
@@ -39,25 +54,41 @@ public abstract class TicTacToeState implements State {
    */
   protected Winner winner = null;
 
+  /**
+   * Index of the cell where the player who moved last put their token, or -1
+   * if it is not known, in which case {@link #isTerminalState()} checks every
+   * line for both players.
+   */
+  protected int lastIndex = -1;
+
+  /**
+   * Canonical state that results from each action in {@link #actions}, indexed
+   * by the position of the action, or null until the action is first applied.
+   */
+  private final AtomicReferenceArray<State> successors =
+      new AtomicReferenceArray<>(GRID_SIZE);
+
 
   // CONSTRUCTORS
 
   protected TicTacToeState() {
-    grid = new ArrayList<>(Collections.nCopies(GRID_SIZE, TokenType.NONE));
+    board = 0;
     nextTurn = Player.X;
-    computeActions();
-    isTerminalState();  // ignore result
+    hash = TicTacToeHelper.zobristHash(board, nextTurn);
   }
 
   protected TicTacToeState(TicTacToeState oldState, TicTacToeAction action) {
-    grid = new ArrayList<>(oldState.grid);
-    grid.set(action.index, action.tokenType);
+    board = oldState.board | TicTacToeHelper.bit(action.index, action.tokenType);
+    hash = oldState.hash
+           ^ TicTacToeHelper.zobristKey(action.index, action.tokenType)
+           ^ TicTacToeHelper.O_TO_MOVE_KEY;
     switch (oldState.nextTurn) {
       case X: nextTurn = Player.O; break;
       case O: nextTurn = Player.X; break;
     }
-    computeActions();
-    isTerminalState();  // ignore result
+
+    // A line that was already there is only found by checking every line
+    lastIndex = oldState.isTerminalState() ? -1 : action.index;
   }
 
 
@@ -65,32 +96,66 @@ public abstract class TicTacToeState implements State {
 
   @Override
   public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
     if (o == null) {
       return false;
     }
 
-    if (!TicTacToeState.class.isAssignableFrom(o.getClass())) {
+    // The variants list different actions from the same grid, so a state
+    // only equals a state of the same variant
+    if (this.getClass() != o.getClass()) {
       return false;
     }
 
+    // The actions and the winner follow from the grid and the next player, so
+    // they are not computed here, e.g. for a new state that is being interned
     final TicTacToeState other = (TicTacToeState) o;
 
-    return this.grid.equals(other.grid)
-           && this.actions.equals(other.actions)
-           && this.nextTurn == other.nextTurn
-           && this.winner == other.winner;
+    return this.hash == other.hash
+           && this.board == other.board
+           && this.nextTurn == other.nextTurn;
   }
 
   @Override
   public int hashCode() {
-    return TicTacToeHelper.standardHashCode(this.grid);
+    return Zobrist.fold(hash);
   }
 
 
   // IMPLEMENTATIONS OF STATE INTERFACE METHODS
 
+  /**
+   * Returns the canonical state that results from applying the given action to
+   * this state, which is only created the first time the action is applied.
+   */
+  @Override
+  public State applyAction(Action a) {
+    int i = getActions().indexOf(a);
+
+    if (i < 0) {
+      return successor((TicTacToeAction) a);
+    }
+
+    State next = successors.get(i);
+
+    if (next == null) {
+      next = successor((TicTacToeAction) a);
+      successors.set(i, next);
+    }
+
+    return next;
+  }
+
+  /**
+   * Returns the list of all actions that can be taken from this state, which
+   * is computed the first time it is needed.
+   */
   @Override
   public List<Action> getActions() {
+    computeActions();
     return actions;
   }
 
@@ -113,50 +178,30 @@ public abstract class TicTacToeState implements State {
       }
     }
 
-    if (grid.get(0) != TokenType.NONE) {
-      if (grid.get(0) == grid.get(1) && grid.get(1) == grid.get(2)
-          || grid.get(0) == grid.get(4) && grid.get(4) == grid.get(8)
-          || grid.get(0) == grid.get(3) && grid.get(3) == grid.get(6)) {
-        switch (grid.get(0)) {
-          case X:    winner = Winner.X; return true;
-          case O:    winner = Winner.O; return true;
-          case NONE: break;  // will not reach this case
-        }
-      }
-    }
+    int xCells = board & CELLS_MASK;
+    int oCells = board >>> O_SHIFT;
 
-    if (grid.get(4) != TokenType.NONE) {
-      if (grid.get(3) == grid.get(4) && grid.get(4) == grid.get(5)
-          || grid.get(1) == grid.get(4) && grid.get(4) == grid.get(7)
-          || grid.get(2) == grid.get(4) && grid.get(4) == grid.get(6)) {
-        switch (grid.get(4)) {
-          case X:    winner = Winner.X; return true;
-          case O:    winner = Winner.O; return true;
-          case NONE: break;  // will not reach this case
-        }
-      }
-    }
+    if (lastIndex >= 0) {
+      // Only the player who moved last can have completed a line, and only
+      // through the cell where they put their token
+      boolean xMovedLast = (nextTurn == Player.O);
+      int cells = xMovedLast ? xCells : oCells;
 
-    if (grid.get(8) != TokenType.NONE) {
-      if (grid.get(6) == grid.get(7) && grid.get(7) == grid.get(8)
-          || grid.get(2) == grid.get(5) && grid.get(5) == grid.get(8)) {
-        switch (grid.get(8)) {
-          case X:    winner = Winner.X; return true;
-          case O:    winner = Winner.O; return true;
-          case NONE: break;  // will not reach this case
-        }
+      if (TicTacToeHelper.hasLineThrough(cells, lastIndex)) {
+        winner = xMovedLast ? Winner.X : Winner.O;
+        return true;
       }
-    }
 
-    int occupiedSquares = 0;
+    } else if (TicTacToeHelper.hasLine(xCells)) {
+      winner = Winner.X;
+      return true;
 
-    for (TokenType t : grid) {
-      if (t != TokenType.NONE) {
-        occupiedSquares += 1;
-      }
+    } else if (TicTacToeHelper.hasLine(oCells)) {
+      winner = Winner.O;
+      return true;
     }
 
-    if (occupiedSquares == GRID_SIZE) {
+    if ((xCells | oCells) == CELLS_MASK) {
       winner = Winner.DRAW;
       return true;
     }
@@ -167,22 +212,33 @@ public abstract class TicTacToeState implements State {
 
   @Override
   public void print() {
-    TicTacToeHelper.print(this.grid);
+    TicTacToeHelper.print(TicTacToeHelper.unpack(this.board));
   }
 
   /**
-   * Returns the winner of the game, if any.
-   * <p>
-   * Can only be called after {@link #isTerminalState()}.
+   * Returns the winner of the game, if any, which is computed the first time
+   * it is needed.
    *
    * @return winner of the game, if any
    */
-  Winner getWinner() {
+  public Winner getWinner() {
+    isTerminalState();  // ignore result
     return winner;
   }
 
 
-  // HELPER METHOD
+  // HELPER METHODS
+
+  /**
+   * Returns the canonical instance of the state that results from applying the
+   * given action at this state.
+   */
+  protected abstract State successor(TicTacToeAction action);
+
+  /** Returns the mask of cells that hold neither an X nor an O. */
+  protected int emptyCells() {
+    return ~(board | (board >>> O_SHIFT)) & CELLS_MASK;
+  }
 
   /**
    * Populates {@link #actions} with all actions that can be taken from this
@@ -193,12 +249,16 @@ public abstract class TicTacToeState implements State {
     if (actions != null) return;
 
     TokenType tokenType = (nextTurn == Player.X) ? TokenType.X : TokenType.O;
-    actions = new ArrayList<>();
+    int empty = emptyCells();
+    List<Action> list = new ArrayList<>(Integer.bitCount(empty));
 
     for (int i = 0; i < GRID_SIZE ; i++) {
-      if (grid.get(i) == TokenType.NONE) {
-        actions.add(new TicTacToeAction(i, tokenType));
+      if ((empty & (1 << i)) != 0) {
+        list.add(TicTacToeAction.of(i, tokenType));
       }
     }
+
+    // Only publish the list once it is complete
+    actions = list;
   }
 }
@@ -1,21 +1,19 @@
 package com.games.tictactoe;
 
+import static com.games.tictactoe.TicTacToeHelper.CELLS_MASK;
 import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
-import static com.games.tictactoe.TicTacToeHelper.flipGridAlongMajorDiagonal;
-import static com.games.tictactoe.TicTacToeHelper.flipGridAlongMinorDiagonal;
-import static com.games.tictactoe.TicTacToeHelper.flipGridHorizontally;
-import static com.games.tictactoe.TicTacToeHelper.flipGridVertically;
+import static com.games.tictactoe.TicTacToeHelper.O_SHIFT;
 
 import com.games.general.Action;
+import com.games.general.InternTable;
 import com.games.general.State;
 import com.games.tictactoe.TicTacToeHelper.Player;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 import com.google.common.annotations.VisibleForTesting;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 /**
  * State of a game of Tic-Tac-Toe where the list of possible actions does not
@@ -25,6 +23,75 @@ import java.util.Set;
  */
 public final class TicTacToeStateWithLimitedActions extends TicTacToeState {
 
+  /** Number of distinct grids, where each cell is empty, X or O. */
+  private static final int NUM_GRIDS = 19683;  // 3^9
+
+  /** Number of distinct masks of cells. */
+  private static final int NUM_MASKS = 1 << GRID_SIZE;
+
+  /**
+   * Base-3 value of each mask of cells, i.e. the sum of 3^i over its cells i,
+   * so that a packed board with X cells x and O cells o has the base-3 index
+   * {@code BASE_3[x] + 2 * BASE_3[o]}.
+   */
+  private static final int[] BASE_3 = new int[NUM_MASKS];
+
+  /**
+   * Mask of the cells where a token can be placed without the result being
+   * symmetrical to placing it in an earlier cell, indexed by token (0 = X,
+   * 1 = O) and then by the base-3 index of the board.
+   */
+  private static final short[][] ACTION_CELLS = new short[2][NUM_GRIDS];
+
+  /**
+   * Shared list of the actions that place the given token in each mask of
+   * cells, indexed by token (0 = X, 1 = O) and then by the mask.
+   */
+  private static final List<List<Action>> ACTION_LISTS = new ArrayList<>();
+
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<TicTacToeStateWithLimitedActions> STATES =
+      new InternTable<>();
+
+  /** Canonical state with an empty grid. */
+  private static final TicTacToeStateWithLimitedActions INITIAL;
+
+  static {
+    for (int mask = 0 ; mask < NUM_MASKS ; mask++) {
+      int power = 1;
+
+      for (int i = 0 ; i < GRID_SIZE ; i++) {
+        if ((mask & (1 << i)) != 0) BASE_3[mask] += power;
+        power *= 3;
+      }
+    }
+
+    TokenType[] tokenTypes = new TokenType[] { TokenType.X, TokenType.O };
+
+    for (int t = 0 ; t < tokenTypes.length ; t++) {
+      for (int mask = 0 ; mask < NUM_MASKS ; mask++) {
+        List<Action> list = new ArrayList<>(Integer.bitCount(mask));
+
+        for (int i = 0 ; i < GRID_SIZE ; i++) {
+          if ((mask & (1 << i)) != 0) {
+            list.add(TicTacToeAction.of(i, tokenTypes[t]));
+          }
+        }
+
+        ACTION_LISTS.add(Collections.unmodifiableList(list));
+      }
+
+      for (int grid = 0 ; grid < NUM_GRIDS ; grid++) {
+        ACTION_CELLS[t][grid] = (short) computeActionCells(
+            boardOfIndex(grid), tokenTypes[t]);
+      }
+    }
+
+    // Created last, since its actions are looked up in the tables above
+    INITIAL = STATES.intern(new TicTacToeStateWithLimitedActions());
+  }
+
+
   // CONSTRUCTORS
 
   /** Creates a state with an empty grid. */
@@ -45,27 +112,27 @@ public final class TicTacToeStateWithLimitedActions extends TicTacToeState {
   /** Creates a state with the given grid and the given next player. */
   @VisibleForTesting
   TicTacToeStateWithLimitedActions(List<TokenType> g, Player next) {
-    // TicTacToeState no-param constructor is automatically called, so reset
-    this.actions = null;
-    this.winner = null;
-
-    grid = new ArrayList<>(g);
+    board = TicTacToeHelper.pack(g);
     nextTurn = next;
-    computeActions();
-    isTerminalState();
+    hash = TicTacToeHelper.zobristHash(board, nextTurn);
+  }
+
+  /**
+   * Returns the canonical state with an empty grid, which is shared by all
+   * games.
+   */
+  public static TicTacToeStateWithLimitedActions initialState() {
+    return INITIAL;
   }
 
 
-  // IMPLEMENTATION OF STATE INTERFACE METHOD
+  // HELPER METHODS
 
   @Override
-  public State applyAction(Action a) {
-    return new TicTacToeStateWithLimitedActions(this, (TicTacToeAction) a);
+  protected State successor(TicTacToeAction action) {
+    return STATES.intern(new TicTacToeStateWithLimitedActions(this, action));
   }
 
-
-  // HELPER METHOD
-
   /**
    * Populates {@link #actions} with all actions that can be taken from this
    * state such that no two actions result in states that are symmetrical along
@@ -76,44 +143,54 @@ public final class TicTacToeStateWithLimitedActions extends TicTacToeState {
     // Actions are only computed once
     if (actions != null) return;
 
-    TokenType tokenType = (nextTurn == Player.X) ? TokenType.X : TokenType.O;
-    List<Action> possibleActions = new ArrayList<>();
-    Set<List<TokenType>> possibleNextGrids = new HashSet<>();
+    int t = (nextTurn == Player.X) ? 0 : 1;
+    int grid = BASE_3[board & CELLS_MASK] + 2 * BASE_3[board >>> O_SHIFT];
+    actions = ACTION_LISTS.get(t * NUM_MASKS + ACTION_CELLS[t][grid]);
+  }
+
+  /**
+   * Returns the mask of the empty cells of the given packed board where the
+   * given token can be placed, skipping every cell where the resulting board
+   * is symmetrical to the result of placing it in an earlier cell.
+   */
+  private static int computeActionCells(int board, TokenType tokenType) {
+    int empty = ~(board | (board >>> O_SHIFT)) & CELLS_MASK;
+    int[] nextBoards = new int[GRID_SIZE];  // canonical forms of kept actions
+    int numNextBoards = 0;
+    int cells = 0;
 
     for (int i = 0; i < GRID_SIZE ; i++) {
-      if (grid.get(i) != TokenType.NONE) continue;
-
-      List<TokenType> nextGrid = new ArrayList<>(this.grid);
-      nextGrid.set(i, tokenType);
-
-      List<TokenType> verticalFlip = flipGridVertically(nextGrid);
-      List<TokenType> horizontalFlip = flipGridHorizontally(nextGrid);
-      List<TokenType> verticalAndHorizontalFlip =
-          flipGridHorizontally(flipGridVertically(nextGrid));
-      List<TokenType> majorDiagonalFlip =
-          flipGridAlongMajorDiagonal(nextGrid);
-      List<TokenType> majorDiagonalAndHorizontalFlip =
-          flipGridHorizontally(flipGridAlongMajorDiagonal(nextGrid));
-      List<TokenType> minorDiagonalFlip =
-          flipGridAlongMinorDiagonal(nextGrid);
-      List<TokenType> minorDiagonalAndHorizontalFlip =
-          flipGridHorizontally(flipGridAlongMinorDiagonal(nextGrid));
-
-      if (possibleNextGrids.contains(nextGrid)
-          || possibleNextGrids.contains(verticalFlip)
-          || possibleNextGrids.contains(horizontalFlip)
-          || possibleNextGrids.contains(verticalAndHorizontalFlip)
-          || possibleNextGrids.contains(majorDiagonalFlip)
-          || possibleNextGrids.contains(majorDiagonalAndHorizontalFlip)
-          || possibleNextGrids.contains(minorDiagonalFlip)
-          || possibleNextGrids.contains(minorDiagonalAndHorizontalFlip)) {
-        continue;
+      if ((empty & (1 << i)) == 0) continue;
+
+      int nextBoard = TicTacToeHelper.canonicalBoard(
+          board | TicTacToeHelper.bit(i, tokenType));
+      boolean symmetrical = false;
+
+      for (int n = 0 ; n < numNextBoards ; n++) {
+        symmetrical |= nextBoards[n] == nextBoard;
+      }
+
+      if (!symmetrical) {
+        nextBoards[numNextBoards++] = nextBoard;
+        cells |= 1 << i;
       }
+    }
+
+    return cells;
+  }
+
+  /** Returns the packed board with the given base-3 index. */
+  private static int boardOfIndex(int grid) {
+    int board = 0;
 
-      possibleActions.add(new TicTacToeAction(i, tokenType));
-      possibleNextGrids.add(nextGrid);
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      switch (grid % 3) {
+        case 1: board |= TicTacToeHelper.bit(i, TokenType.X); break;
+        case 2: board |= TicTacToeHelper.bit(i, TokenType.O); break;
+      }
+      grid /= 3;
     }
 
-    actions = possibleActions;
+    return board;
   }
 }
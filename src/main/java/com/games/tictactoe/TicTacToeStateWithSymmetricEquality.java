@@ -1,23 +1,13 @@
 package com.games.tictactoe;
 
-import static com.games.tictactoe.TicTacToeHelper.flipGridAlongMajorDiagonal;
-import static com.games.tictactoe.TicTacToeHelper.flipGridAlongMinorDiagonal;
-import static com.games.tictactoe.TicTacToeHelper.flipGridHorizontally;
-import static com.games.tictactoe.TicTacToeHelper.flipGridVertically;
-import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
-
 import com.games.general.Action;
+import com.games.general.InternTable;
 import com.games.general.State;
 import com.games.tictactoe.TicTacToeHelper.Player;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 import com.google.common.annotations.VisibleForTesting;
 
-import java.lang.Math;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * State of a game of Tic-Tac-Toe that is considered equal to another state if
@@ -26,21 +16,23 @@ import java.util.Set;
  */
 public final class TicTacToeStateWithSymmetricEquality extends TicTacToeState {
 
-  /**
-   * Set of all grids that are symmetrical to this grid along the vertical
-   * axis, horizontal axis, major diagonal, minor diagonal, or a combination of
-   * these, but not including this grid.
-   */
-  private Set<List<TokenType>> symmetricalGrids = new HashSet<>();
+  /** Canonical instances of the states reached so far. */
+  private static final InternTable<TicTacToeStateWithSymmetricEquality> STATES =
+      new InternTable<>();
+
+  /** Canonical state with an empty grid. */
+  private static final TicTacToeStateWithSymmetricEquality INITIAL =
+      STATES.intern(new TicTacToeStateWithSymmetricEquality());
 
 
   // CONSTRUCTORS
 
   /** Creates a state with an empty grid. */
   public TicTacToeStateWithSymmetricEquality() {
-    grid = new ArrayList<>(Collections.nCopies(GRID_SIZE, TokenType.NONE));
+    board = 0;
     nextTurn = Player.X;
-    initialize();
+    hash = TicTacToeHelper.zobristHash(board, nextTurn);
+    convertToCanonicalForm();
   }
 
   /**
@@ -50,80 +42,67 @@ public final class TicTacToeStateWithSymmetricEquality extends TicTacToeState {
   private TicTacToeStateWithSymmetricEquality(
       TicTacToeStateWithSymmetricEquality oldState,
       TicTacToeAction action) {
-    grid = new ArrayList<>(oldState.grid);
-    grid.set(action.index, action.tokenType);
+    board = oldState.board | TicTacToeHelper.bit(action.index, action.tokenType);
+    hash = oldState.hash
+           ^ TicTacToeHelper.zobristKey(action.index, action.tokenType)
+           ^ TicTacToeHelper.O_TO_MOVE_KEY;
 
     switch (oldState.nextTurn) {
       case X: nextTurn = Player.O; break;
       case O: nextTurn = Player.X; break;
     }
 
-    initialize();
+    // A line that was already there is only found by checking every line
+    lastIndex = oldState.isTerminalState() ? -1 : action.index;
+    convertToCanonicalForm();
   }
 
   /** Creates a state with the given grid and the given next player. */
   @VisibleForTesting
   TicTacToeStateWithSymmetricEquality(List<TokenType> g, Player next) {
-    // TicTacToeState no-param constructor is automatically called, so reset
-    this.actions = null;
-    this.winner = null;
-
-    grid = new ArrayList<>(g);
+    board = TicTacToeHelper.pack(g);
     nextTurn = next;
-    initialize();
+    hash = TicTacToeHelper.zobristHash(board, nextTurn);
+    convertToCanonicalForm();
   }
 
 
-  // IMPLEMENTATION OF STATE INTERFACE METHOD
-
-  @Override
-  public State applyAction(Action a) {
-    return new TicTacToeStateWithSymmetricEquality(this, (TicTacToeAction) a);
+  /**
+   * Returns the canonical state with an empty grid, which is shared by all
+   * games.
+   */
+  public static TicTacToeStateWithSymmetricEquality initialState() {
+    return INITIAL;
   }
 
 
-  // PRIVATE HELPER METHODS
+  // HELPER METHOD
 
-  private void initialize() {
-    // TicTacToeState no-param constructor is automatically called, so reset
-    this.actions = null;
-    this.winner = null;
-
-    computeSymmetricalStates();
-    convertToCanonicalForm();
-    computeActions();
-    isTerminalState();
+  @Override
+  protected State successor(TicTacToeAction action) {
+    return STATES.intern(new TicTacToeStateWithSymmetricEquality(this, action));
   }
 
-  /** Populates {@link #symmetricalGrids}. */
-  private void computeSymmetricalStates() {
-    symmetricalGrids.add(flipGridVertically(this.grid));
-    symmetricalGrids.add(flipGridHorizontally(this.grid));
-    symmetricalGrids.add(flipGridHorizontally(flipGridVertically(this.grid)));
-    symmetricalGrids.add(flipGridAlongMajorDiagonal(this.grid));
-    symmetricalGrids.add(flipGridHorizontally(flipGridAlongMajorDiagonal(this.grid)));
-    symmetricalGrids.add(flipGridAlongMinorDiagonal(this.grid));
-    symmetricalGrids.add(flipGridHorizontally(flipGridAlongMinorDiagonal(this.grid)));
-  }
+
+  // PRIVATE HELPER METHOD
 
   /**
    * Replaces the contents of this grid with the contents of the grid that is
-   * symmetrical to it and has the smallest hash code, as computed by
-   * {@link TicTacToeHelper#standardHashCode()}.
+   * symmetrical to it and has the smallest packed board, and recomputes
+   * {@link #hash} and moves {@link #lastIndex} if the contents changed.
    */
   private void convertToCanonicalForm() {
-    List<TokenType> canonicalGrid = new ArrayList<>(this.grid);
-    int minHashCode = TicTacToeHelper.standardHashCode(this.grid);
+    int[] symmetry =
+        TicTacToeHelper.SYMMETRIES[TicTacToeHelper.canonicalSymmetry(board)];
+    int canonicalBoard = TicTacToeHelper.transform(this.board, symmetry);
 
-    for (List<TokenType> g : symmetricalGrids) {
-      int h = TicTacToeHelper.standardHashCode(g);
+    if (canonicalBoard != this.board) {
+      this.board = canonicalBoard;
+      this.hash = TicTacToeHelper.zobristHash(this.board, this.nextTurn);
 
-      if (h < minHashCode) {
-        canonicalGrid = g;
-        minHashCode = h;
+      if (lastIndex >= 0) {
+        lastIndex = TicTacToeHelper.transformIndex(lastIndex, symmetry);
       }
     }
-
-    this.grid = new ArrayList<>(canonicalGrid);
   }
 }
@@ -0,0 +1,126 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+
+import com.games.general.State;
+import com.games.tictactoe.TicTacToeNormalState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Contract that every {@link ConcurrentActionValues} store must follow. The
+ * test of each store extends this class and only adds the behaviour that is
+ * specific to that store.
+ */
+public abstract class ConcurrentActionValuesTest {
+
+  protected ConcurrentActionValues values;
+  protected State state;
+
+  /** Returns a new empty store. */
+  protected abstract ConcurrentActionValues createValues();
+
+  @Before
+  public void setUpValues() {
+    values = createValues();
+    state = new TicTacToeNormalState();
+  }
+
+  @After
+  public void tearDownValues() throws Exception {
+    if (values instanceof AutoCloseable) {
+      ((AutoCloseable) values).close();
+    }
+  }
+
+  @Test
+  public void testGreedyActionFollowsValues() {
+    assertEquals(-1, values.greedyAction(state));
+
+    addReturn(state, 3, 1.0);
+    addReturn(state, 5, 0.0);
+    values.awaitReturns();
+    assertEquals(3, values.greedyAction(state));
+    assertEquals(1, values.size());
+
+    // Action 3 now has value 0.0 and ties go to the later action
+    addReturn(state, 3, -1.0);
+    values.awaitReturns();
+    assertEquals(5, values.greedyAction(state));
+
+    // Actions without a return are never greedy, even if every value is
+    // negative
+    addReturn(state, 5, -1.0);
+    addReturn(state, 3, -1.0);
+    values.awaitReturns();
+    assertEquals(3, values.greedyAction(state));
+  }
+
+  @Test
+  public void testReturnsOfManyStatesAndThreads() throws InterruptedException {
+    // Every state after one move, each in its own row
+    List<State> states = new ArrayList<>();
+
+    for (int i = 0 ; i < state.getActions().size() ; i++) {
+      states.add(state.applyAction(state.getActions().get(i)));
+    }
+
+    List<Thread> threads = new ArrayList<>();
+    int numThreads = 4;
+
+    for (int t = 0 ; t < numThreads ; t++) {
+      Thread thread = new Thread(() -> {
+        State[] episodeStates = states.toArray(new State[states.size()]);
+        int[] actions = new int[episodeStates.length];
+        double[] returns = new double[episodeStates.length];
+
+        for (int i = 0 ; i < episodeStates.length ; i++) {
+          // The last action of each state is the best
+          actions[i] = episodeStates[i].getActions().size() - 1;
+          returns[i] = 1.0;
+        }
+
+        for (int episode = 0 ; episode < 500 ; episode++) {
+          values.addReturns(episodeStates, actions, returns, actions.length);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    values.awaitReturns();
+    assertEquals(states.size(), values.size());
+
+    for (State s : states) {
+      assertEquals(s.getActions().size() - 1, values.greedyAction(s));
+    }
+  }
+
+
+  // PROTECTED HELPER METHODS
+
+  /** Adds a single return to the store under test. */
+  protected void addReturn(State s, int action, double amount) {
+    addReturn(values, s, action, amount);
+  }
+
+  /** Adds a single return to the given store. */
+  protected static void addReturn(ConcurrentActionValues values,
+                                  State s,
+                                  int action,
+                                  double amount) {
+    values.addReturns(new State[] {s},
+                      new int[] {action},
+                      new double[] {amount},
+                      1);
+  }
+}
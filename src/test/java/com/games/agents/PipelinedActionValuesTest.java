@@ -0,0 +1,116 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import com.games.general.Action;
+import com.games.general.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class PipelinedActionValuesTest extends ConcurrentActionValuesTest {
+
+  /**
+   * State whose actions are only returned once the test releases it, which
+   * holds the learner in the middle of adding the state's row.
+   */
+  private static final class GateState implements State {
+    final CountDownLatch reached = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+
+    @Override
+    public State applyAction(Action a) {
+      return this;
+    }
+
+    @Override
+    public List<Action> getActions() {
+      reached.countDown();
+
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      return Collections.singletonList(mock(Action.class));
+    }
+
+    @Override
+    public boolean isTerminalState() {
+      return false;
+    }
+
+    @Override
+    public void print() {
+      System.out.println("gate");
+    }
+  }
+
+  @Override
+  protected ConcurrentActionValues createValues() {
+    return new PipelinedActionValues(4 /* episodes */,
+                                     2 /* batch size */,
+                                     1000 /* publish interval */);
+  }
+
+  @Test
+  public void testPolicyLagsBehindLearner() {
+    addReturn(state, 3, 1.0);
+    values.awaitReturns();
+    assertEquals(3, values.greedyAction(state));
+
+    // Fewer episodes than the publish interval, so nothing is published
+    State next = state.applyAction(state.getActions().get(0));
+
+    for (int episode = 0 ; episode < 100 ; episode++) {
+      addReturn(state, 5, 2.0);
+      addReturn(next, 1, 1.0);
+    }
+
+    assertEquals(3, values.greedyAction(state));
+    assertEquals(-1, values.greedyAction(next));
+    assertEquals(1, values.size());
+
+    values.awaitReturns();
+    assertEquals(5, values.greedyAction(state));
+    assertEquals(1, values.greedyAction(next));
+    assertEquals(2, values.size());
+  }
+
+  @Test
+  public void testPolicyLagsBehindLearnerByAtMostPublishInterval()
+      throws InterruptedException {
+    PipelinedActionValues eager =
+        new PipelinedActionValues(8 /* episodes */,
+                                  64 /* batch size */,
+                                  1 /* publish interval */);
+    GateState first = new GateState();
+    GateState second = new GateState();
+
+    try {
+      addReturn(eager, first, 0, 1.0);
+      first.reached.await();
+
+      // Both episodes are in the buffer before the learner takes its batch
+      addReturn(eager, state, 3, 1.0);
+      addReturn(eager, second, 0, 1.0);
+      first.released.countDown();
+      second.reached.await();
+
+      // The learner is still in its batch but has published each episode
+      assertEquals(3, eager.greedyAction(state));
+      assertEquals(0, eager.greedyAction(first));
+      assertEquals(-1, eager.greedyAction(second));
+
+    } finally {
+      first.released.countDown();
+      second.released.countDown();
+      eager.close();
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+import com.games.tictactoe.TicTacToeNormalState;
+
+import org.junit.Test;
+
+public class RandomAgentTest {
+
+  @Test
+  public void testSameSeedGivesSameChoices() {
+    RandomAgent agent1 = new RandomAgent(new SplittableRandomSource(7));
+    RandomAgent agent2 = new RandomAgent(new SplittableRandomSource(7));
+    State s1 = new TicTacToeNormalState();
+    State s2 = new TicTacToeNormalState();
+
+    while (!s1.isTerminalState()) {
+      s1 = s1.applyAction(agent1.chooseAction(s1));
+      s2 = s2.applyAction(agent2.chooseAction(s2));
+      assertEquals(s1, s2);
+    }
+  }
+}
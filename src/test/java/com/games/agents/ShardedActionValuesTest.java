@@ -0,0 +1,58 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.games.general.State;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ShardedActionValuesTest extends ConcurrentActionValuesTest {
+
+  private static final int NUM_SHARDS = 3;
+
+  private ShardedActionValues sharded;
+
+  @Override
+  protected ConcurrentActionValues createValues() {
+    sharded = new ShardedActionValues(NUM_SHARDS, 4 /* batches */);
+    return sharded;
+  }
+
+  @Test
+  public void testStatesAreSpreadOverShards() {
+    assertEquals(NUM_SHARDS, sharded.getNumShards());
+    Set<Integer> owners = new HashSet<>();
+
+    for (int i = 0 ; i < state.getActions().size() ; i++) {
+      State next = state.applyAction(state.getActions().get(i));
+      int shard = sharded.shardOf(next);
+
+      assertTrue(shard >= 0 && shard < NUM_SHARDS);
+      assertEquals(shard, sharded.shardOf(next));
+      owners.add(shard);
+    }
+
+    assertTrue(owners.size() > 1);
+  }
+
+  @Test
+  public void testReturnsAreLearnedByOwnerShard() {
+    State next = state.applyAction(state.getActions().get(0));
+
+    addReturn(next, 2, 1.0);
+    sharded.awaitReturns();
+
+    // Only the owner of the state has its row
+    assertEquals(1, sharded.size());
+    assertEquals(2, sharded.greedyAction(next));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroShardsAreRejected() {
+    new ShardedActionValues(0 /* shards */, 4 /* batches */);
+  }
+}
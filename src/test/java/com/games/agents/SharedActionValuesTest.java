@@ -0,0 +1,59 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SharedActionValuesTest extends ConcurrentActionValuesTest {
+
+  private static final double DELTA = 1e-9;
+
+  private SharedActionValues shared;
+
+  @Override
+  protected ConcurrentActionValues createValues() {
+    shared = new SharedActionValues();
+    return shared;
+  }
+
+  @Test
+  public void testReturnsAreAveraged() {
+    shared.addReturn(state, 2, 1.0);
+    shared.addReturn(state, 2, 0.0);
+
+    assertEquals(2, shared.count(state, 2));
+    assertEquals(0.5, shared.value(state, 2), DELTA);
+    assertEquals(0, shared.count(state, 3));
+    assertEquals(1, shared.size());
+  }
+
+  @Test
+  public void testConcurrentReturnsAreAllCounted() throws InterruptedException {
+    int numThreads = 4;
+    int returnsPerThread = 10 * 1000;
+    List<Thread> threads = new ArrayList<>();
+
+    for (int t = 0 ; t < numThreads ; t++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0 ; i < returnsPerThread ; i++) {
+          shared.addReturn(state, i % 2, i % 2 == 0 ? 1.0 : -1.0);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(numThreads * returnsPerThread / 2, shared.count(state, 0));
+    assertEquals(numThreads * returnsPerThread / 2, shared.count(state, 1));
+    assertEquals(1.0, shared.value(state, 0), DELTA);
+    assertEquals(-1.0, shared.value(state, 1), DELTA);
+    assertEquals(0, shared.greedyAction(state));
+  }
+}
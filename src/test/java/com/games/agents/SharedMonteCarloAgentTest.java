@@ -0,0 +1,73 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+
+import com.games.general.Action;
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+import com.games.tictactoe.TicTacToeNormalState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedMonteCarloAgentTest {
+
+  private static final double DELTA = 1e-9;
+
+  private SharedActionValues values;
+  private SharedMonteCarloAgent agent;
+  private State state;
+
+  @Before
+  public void setUp() {
+    values = new SharedActionValues();
+    agent = new SharedMonteCarloAgent(
+        0.0 /* epsilon */, values, new SplittableRandomSource(3));
+    state = new TicTacToeNormalState();
+  }
+
+  @Test
+  public void testReturnsAreOnlySharedWhenGameIsOver() {
+    agent.initializeBeforeNewGame();
+    Action action = agent.chooseAction(state);
+    agent.receiveReturn(1.0);
+    assertEquals(0, values.size());
+
+    agent.gameOver();
+    int index = state.getActions().indexOf(action);
+    assertEquals(1, values.count(state, index));
+    assertEquals(1.0, values.value(state, index), DELTA);
+    assertEquals(1, agent.getPolicySize());
+  }
+
+  @Test
+  public void testOnlyFirstVisitIsShared() {
+    Action action = state.getActions().get(4);
+    agent.initializeBeforeNewGame();
+    agent.chooseActionES(state, action);
+    agent.receiveReturn(1.0);
+    agent.chooseActionES(state, state.getActions().get(2));
+    agent.receiveReturn(0.0);
+    agent.chooseActionES(state, action);
+    agent.receiveReturn(-1.0);  // not the first visit, so ignored
+    agent.gameOver();
+
+    assertEquals(1, values.count(state, 4));
+    assertEquals(1.0, values.value(state, 4), DELTA);
+    assertEquals(1, values.count(state, 2));
+    assertEquals(0.0, values.value(state, 2), DELTA);
+  }
+
+  @Test
+  public void testGreedyAgentFollowsSharedValues() {
+    values.addReturn(state, 6, 1.0);
+    values.addReturn(state, 7, -1.0);
+
+    agent.initializeBeforeNewGame();
+    assertEquals(state.getActions().get(6), agent.chooseAction(state));
+
+    // Another agent's returns are seen by the next choice
+    values.addReturn(state, 7, 5.0);
+    assertEquals(state.getActions().get(7), agent.chooseAction(state));
+  }
+}
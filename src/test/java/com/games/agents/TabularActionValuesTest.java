@@ -0,0 +1,91 @@
+package com.games.agents;
+
+import static org.junit.Assert.assertEquals;
+
+import com.games.general.State;
+import com.games.tictactoe.TicTacToeNormalState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TabularActionValuesTest {
+
+  private static final double DELTA = 1e-9;
+
+  private TabularActionValues table;
+  private State state;
+
+  @Before
+  public void setUp() {
+    table = new TabularActionValues(true /* with probabilities */);
+    state = new TicTacToeNormalState();
+    table.startEpisode();
+  }
+
+  @Test
+  public void testFirstVisitReturnsAreAveraged() {
+    table.recordReturn(state, 2, 1.0);
+    table.recordReturn(state, 2, -1.0);  // not the first visit, so ignored
+    table.evaluateEpisode();
+
+    table.startEpisode();
+    table.recordReturn(state, 2, 0.0);
+    table.evaluateEpisode();
+
+    int row = table.row(state);
+    assertEquals(2, table.count(row, 2));
+    assertEquals(0.5, table.value(row, 2), DELTA);
+    assertEquals(0, table.count(row, 3));
+  }
+
+  @Test
+  public void testGreedyActionOnlyConsidersVisitedActions() {
+    assertEquals(0, table.policySize());
+
+    table.recordReturn(state, 4, -1.0);
+    table.evaluateEpisode();
+
+    int row = table.row(state);
+    assertEquals(4, table.greedyAction(row));
+    assertEquals(1, table.policySize());
+  }
+
+  @Test
+  public void testGreedyActionIsOvertakenWhenItsValueDrops() {
+    table.recordReturn(state, 3, 1.0);
+    table.recordReturn(state, 5, 0.0);
+    table.evaluateEpisode();
+
+    int row = table.row(state);
+    assertEquals(3, table.greedyAction(row));
+
+    table.startEpisode();
+    table.recordReturn(state, 3, -1.0);
+    table.evaluateEpisode();
+
+    // Action 3 now has value 0.0 and ties go to the later action
+    assertEquals(5, table.greedyAction(row));
+
+    table.startEpisode();
+    table.recordReturn(state, 0, 1.0);
+    table.evaluateEpisode();
+    assertEquals(0, table.greedyAction(row));
+    assertEquals(1, table.policySize());
+  }
+
+  @Test
+  public void testEpsilonSoftPolicy() {
+    table.recordReturn(state, 1, 1.0);
+    table.evaluateEpisode();
+
+    int row = table.row(state);
+    int n = state.getActions().size();
+    table.setEpsilonSoftPolicy(row, table.greedyAction(row), 0.1);
+
+    assertEquals(0.9 + 0.1 / n, table.probability(row, 1), DELTA);
+    assertEquals(0.1 / n, table.probability(row, 0), DELTA);
+    assertEquals(1, table.sampleAction(row, 0.5));
+    assertEquals(0, table.sampleAction(row, 0.0));
+    assertEquals(n - 1, table.sampleAction(row, 1.0 - 1e-12));
+  }
+}
@@ -92,16 +92,16 @@ public class ChungToiGameTest {
   public void testAgentsNotSwappedInConstructor() {
     ChungToiGame game =
         new ChungToiGame(mockAgent1, mockAgent2, 0 /* no swap */);
-    assertThat(game.agent1, equalTo(mockAgent1));
-    assertThat(game.agent2, equalTo(mockAgent2));
+    assertThat(game.getAgent(1), equalTo(mockAgent1));
+    assertThat(game.getAgent(2), equalTo(mockAgent2));
   }
 
   @Test
   public void testAgentsSwappedInConstructor() {
     ChungToiGame game =
         new ChungToiGame(mockAgent1, mockAgent2, 1 /* swap */);
-    assertThat(game.agent1, equalTo(mockAgent2));
-    assertThat(game.agent2, equalTo(mockAgent1));
+    assertThat(game.getAgent(1), equalTo(mockAgent2));
+    assertThat(game.getAgent(2), equalTo(mockAgent1));
   }
 
   @Test
@@ -1,10 +1,16 @@
 package com.games.chungtoi;
 
+import static com.games.chungtoi.ChungToiHelper.GRID_SIZE;
+import static com.games.chungtoi.ChungToiHelper.NUM_ACTION_IDS;
 import static com.games.chungtoi.ChungToiHelper.TokenType;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 public class ChungToiMoveActionTest {
@@ -36,4 +42,61 @@ public class ChungToiMoveActionTest {
     ChungToiMoveAction action2 = new ChungToiMoveAction(0, 1, false);
     assertThat(action1, not(equalTo(action2)));
   }
+
+  @Test
+  public void testSharedInstanceEquality() {
+    assertThat(ChungToiMoveAction.of(0, 1, true),
+               equalTo(new ChungToiMoveAction(0, 1, true)));
+  }
+
+  @Test
+  public void testIdsAreUniqueAndInRange() {
+    Set<Integer> ids = new HashSet<>();
+
+    for (int start = 0 ; start < GRID_SIZE ; start++) {
+      for (int end = 0 ; end < GRID_SIZE ; end++) {
+        if (start != end) ids.add(ChungToiMoveAction.of(start, end, false).id);
+        ids.add(ChungToiMoveAction.of(start, end, true).id);
+      }
+    }
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      for (TokenType t : TokenType.values()) {
+        if (t != TokenType.NONE) ids.add(ChungToiPutAction.of(t, i).id);
+      }
+    }
+
+    ids.add(ChungToiPassAction.getInstance().id);
+
+    // Only the IDs of moves that neither move nor rotate the token are unused
+    assertThat(ids.size(), equalTo(NUM_ACTION_IDS - GRID_SIZE));
+    assertThat(Collections.min(ids), equalTo(0));
+    assertThat(Collections.max(ids), equalTo(NUM_ACTION_IDS - 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEndIndexOffBoardIsRejected() {
+    new ChungToiMoveAction(0, GRID_SIZE, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStartIndexOffBoardIsRejected() {
+    new ChungToiMoveAction(-1, 0, true);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOffBoardIsRejectedBySharedInstances() {
+    ChungToiMoveAction.of(0, GRID_SIZE, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNeitherMovingNorRotatingIsRejected() {
+    new ChungToiMoveAction(4, 4, false);
+  }
+
+  @Test
+  public void testRotatingInPlaceIsAccepted() {
+    assertThat(ChungToiMoveAction.of(4, 4, true),
+               equalTo(new ChungToiMoveAction(4, 4, true)));
+  }
 }
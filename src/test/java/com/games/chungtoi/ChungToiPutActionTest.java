@@ -29,4 +29,19 @@ public class ChungToiPutActionTest {
     ChungToiPutAction action2 = new ChungToiPutAction(TokenType.X_NORMAL, 1);
     assertThat(action1, not(equalTo(action2)));
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoneTokenTypeIsRejected() {
+    new ChungToiPutAction(TokenType.NONE, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoneTokenTypeIsRejectedBySharedInstances() {
+    ChungToiPutAction.of(TokenType.NONE, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIndexOffBoardIsRejected() {
+    new ChungToiPutAction(TokenType.X_NORMAL, ChungToiHelper.GRID_SIZE);
+  }
 }
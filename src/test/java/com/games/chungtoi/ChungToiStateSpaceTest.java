@@ -0,0 +1,41 @@
+package com.games.chungtoi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.games.general.EnumeratedStateSpace;
+import com.games.general.State;
+
+import org.junit.Test;
+
+public class ChungToiStateSpaceTest {
+
+  @Test
+  public void testUnrankIsInverseOfRank() {
+    ChungToiStateSpace space = new ChungToiStateSpace();
+
+    for (int rank = 0 ; rank < space.size() ; rank++) {
+      State s = space.unrank(rank);
+      assertEquals(rank, space.rank(s));
+    }
+  }
+
+  @Test
+  public void testEveryReachableStateHasDistinctRank() {
+    ChungToiStateSpace space = new ChungToiStateSpace();
+    EnumeratedStateSpace reachable =
+        new EnumeratedStateSpace(new ChungToiState());
+    boolean[] ranked = new boolean[space.size()];
+    assertTrue(reachable.size() <= space.size());
+
+    for (int i = 0 ; i < reachable.size() ; i++) {
+      State s = reachable.unrank(i);
+      int rank = space.rank(s);
+      assertTrue(rank >= 0 && rank < space.size() && !ranked[rank]);
+      assertThat(space.unrank(rank), equalTo(s));
+      ranked[rank] = true;
+    }
+  }
+}
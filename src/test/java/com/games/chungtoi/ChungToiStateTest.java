@@ -4,10 +4,12 @@ import static com.games.chungtoi.ChungToiHelper.GRID_SIZE;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import com.games.general.Action;
+import com.games.general.State;
 import com.games.chungtoi.ChungToiHelper.Player;
 import com.games.chungtoi.ChungToiHelper.TokenType;
 import com.games.chungtoi.ChungToiMoveAction;
@@ -19,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Test;
@@ -244,4 +247,59 @@ public class ChungToiStateTest {
     Set<Action> actualActions = new HashSet<>(state.getActions());
     assertThat(actualActions, equalTo(expectedActions));
   }
+
+  @Test
+  public void testIncrementalHashCodeMatchesDirectConstruction() {
+    List<TokenType> grid =
+        new ArrayList<>(Collections.nCopies(GRID_SIZE, TokenType.NONE));
+    grid.set(2, TokenType.X_NORMAL);
+    grid.set(3, TokenType.O_DIAGONAL);
+
+    ChungToiState state = (ChungToiState) new ChungToiState()
+        .applyAction(new ChungToiPutAction(TokenType.X_NORMAL, 2))
+        .applyAction(new ChungToiPutAction(TokenType.O_DIAGONAL, 3));
+    ChungToiState expected = new ChungToiState(grid, Player.X);
+
+    assertThat(state, equalTo(expected));
+    assertThat(state.hashCode(), equalTo(expected.hashCode()));
+  }
+
+  @Test
+  public void testStatesReachedInDifferentOrdersAreSameInstance() {
+    ChungToiState initial = ChungToiState.initialState();
+
+    Object state1 = initial
+        .applyAction(new ChungToiPutAction(TokenType.X_NORMAL, 0))
+        .applyAction(new ChungToiPutAction(TokenType.O_DIAGONAL, 4))
+        .applyAction(new ChungToiPutAction(TokenType.X_NORMAL, 8));
+    Object state2 = initial
+        .applyAction(new ChungToiPutAction(TokenType.X_NORMAL, 8))
+        .applyAction(new ChungToiPutAction(TokenType.O_DIAGONAL, 4))
+        .applyAction(new ChungToiPutAction(TokenType.X_NORMAL, 0));
+    assertSame(state1, state2);
+  }
+
+  @Test
+  public void testIncrementalWinnerMatchesWholeGridCheck() {
+    Random random = new Random(1L);
+
+    for (int game = 0 ; game < 200 ; game++) {
+      State state = ChungToiState.initialState();
+
+      while (true) {
+        long board = ((ChungToiState) state).getBoard();
+        Player next = (board & ChungToiHelper.O_TO_MOVE) != 0 ? Player.O
+                                                               : Player.X;
+        ChungToiState expected =
+            new ChungToiState(ChungToiHelper.unpack(board), next);
+        assertThat(((ChungToiState) state).getWinner(),
+                   equalTo(expected.getWinner()));
+
+        if (state.isTerminalState()) break;
+
+        List<Action> actions = state.getActions();
+        state = state.applyAction(actions.get(random.nextInt(actions.size())));
+      }
+    }
+  }
 }
@@ -0,0 +1,137 @@
+package com.games.chungtoi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.games.chungtoi.ChungToiHelper.Player;
+import com.games.chungtoi.ChungToiHelper.TokenType;
+import com.games.general.Action;
+import com.games.general.State;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ChungToiStateWithSymmetricEqualityTest {
+
+  /*
+   *     * -X- *
+   * *****************
+   *  /O/ *     *
+   * *****************
+   *  /X/ *     *
+   */
+  private List<TokenType> originalGrid = Arrays.asList(
+      new TokenType[] {
+        TokenType.NONE,       TokenType.X_NORMAL, TokenType.NONE,
+        TokenType.O_DIAGONAL, TokenType.NONE,     TokenType.NONE,
+        TokenType.X_DIAGONAL, TokenType.NONE,     TokenType.NONE
+      });
+
+  @Test
+  public void testSymmetricalStatesAreEqual() {
+    ChungToiStateWithSymmetricEquality originalState =
+        new ChungToiStateWithSymmetricEquality(originalGrid, Player.O);
+    long board = ChungToiHelper.pack(originalGrid, Player.O);
+
+    for (int[] permutation : ChungToiHelper.SYMMETRIES) {
+      List<TokenType> grid =
+          ChungToiHelper.unpack(ChungToiHelper.transform(board, permutation));
+      ChungToiStateWithSymmetricEquality state =
+          new ChungToiStateWithSymmetricEquality(grid, Player.O);
+
+      assertThat(state, equalTo(originalState));
+      assertThat(state.hashCode(), equalTo(originalState.hashCode()));
+      assertThat(new HashSet<>(state.getActions()),
+                 equalTo(new HashSet<>(originalState.getActions())));
+    }
+  }
+
+  @Test
+  public void testInequalityWithNormalState() {
+    // Both states have the same empty board
+    assertThat(new ChungToiStateWithSymmetricEquality(),
+               not(equalTo((State) new ChungToiState())));
+    assertThat(new ChungToiState(),
+               not(equalTo((State) new ChungToiStateWithSymmetricEquality())));
+  }
+
+  @Test
+  public void testLackOfSymmetryInequality() {
+    /*
+     * Testing inequality between:
+     *     * -X- *                *     *
+     * *****************     *****************
+     *  /O/ *     *     and   /O/ * -X- *
+     * *****************     *****************
+     *  /X/ *     *           /X/ *     *
+     */
+    ChungToiStateWithSymmetricEquality originalState =
+        new ChungToiStateWithSymmetricEquality(originalGrid, Player.O);
+    ChungToiStateWithSymmetricEquality nonSymmetricalState =
+        new ChungToiStateWithSymmetricEquality(Arrays.asList(
+            new TokenType[] {
+              TokenType.NONE,       TokenType.NONE,     TokenType.NONE,
+              TokenType.O_DIAGONAL, TokenType.X_NORMAL, TokenType.NONE,
+              TokenType.X_DIAGONAL, TokenType.NONE,     TokenType.NONE
+            }),
+            Player.O);
+
+    assertThat(originalState, not(equalTo(nonSymmetricalState)));
+  }
+
+  @Test
+  public void testInequalityWithSameGridAndDifferentNextTurn() {
+    assertThat(new ChungToiStateWithSymmetricEquality(originalGrid, Player.X),
+               not(equalTo(
+                   new ChungToiStateWithSymmetricEquality(originalGrid,
+                                                          Player.O))));
+  }
+
+  @Test
+  public void testAppliedActionsGiveSymmetricStates() {
+    State state = new ChungToiStateWithSymmetricEquality();
+
+    // The first "put" actions all give one of three states (corner, edge or
+    // centre) for each orientation of the token
+    Set<State> nextStates = new HashSet<>();
+
+    for (Action a : state.getActions()) {
+      State next = state.applyAction(a);
+      assertTrue(next instanceof ChungToiStateWithSymmetricEquality);
+      nextStates.add(next);
+    }
+
+    // The pass action gives one more state, where O is to move on an empty grid
+    assertThat(nextStates.size(), equalTo(3 * 2 + 1));
+  }
+
+  @Test
+  public void testWinnerOfAppliedActionsMatchesDirectConstruction() {
+    // States reached by actions only check the lines through the cell of the
+    // last action, so compare them with states built from their packed board,
+    // which check every line
+    Random random = new Random(0);
+
+    for (int game = 0 ; game < 1000 ; game++) {
+      State state = ChungToiStateWithSymmetricEquality.initialState();
+
+      for (int move = 0 ; move < 100 && !state.isTerminalState() ; move++) {
+        List<Action> actions = state.getActions();
+        state = state.applyAction(actions.get(random.nextInt(actions.size())));
+
+        long board = ((ChungToiState) state).getBoard();
+        ChungToiState expected =
+            new ChungToiState(board, ChungToiHelper.zobristHash(board));
+        assertThat(((ChungToiState) state).getWinner(),
+                   equalTo(expected.getWinner()));
+      }
+    }
+  }
+}
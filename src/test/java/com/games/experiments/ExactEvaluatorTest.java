@@ -0,0 +1,88 @@
+package com.games.experiments;
+
+import static com.games.experiments.ExactEvaluator.DRAW;
+import static com.games.experiments.ExactEvaluator.LOSS;
+import static com.games.experiments.ExactEvaluator.WIN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.games.agents.MonteCarloAgent;
+import com.games.agents.RandomAgent;
+import com.games.agents.Storage;
+import com.games.experiments.ExperimentHelper.GameType;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
+
+import org.junit.Test;
+
+public class ExactEvaluatorTest {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testUntrainedAgentPlaysLikeRandomAgent() {
+    MonteCarloAgent agent = new MonteCarloAgent(
+        0.1, false /* debug */, Storage.TABULAR_GREEDY);
+    ExactEvaluator evaluator =
+        new ExactEvaluator(GameType.TIC_TAC_TOE_NORMAL, agent);
+
+    // Results of Tic-Tac-Toe between two players who choose uniformly at
+    // random, from the point of view of the first player
+    double[] first = evaluator.evaluate(true /* agent goes first */);
+    assertEquals(737.0 / 1260, first[WIN], DELTA);
+    assertEquals(363.0 / 1260, first[LOSS], DELTA);
+    assertEquals(160.0 / 1260, first[DRAW], DELTA);
+
+    double[] second = evaluator.evaluate(false /* agent goes second */);
+    assertEquals(363.0 / 1260, second[WIN], DELTA);
+    assertEquals(737.0 / 1260, second[LOSS], DELTA);
+    assertEquals(160.0 / 1260, second[DRAW], DELTA);
+  }
+
+  @Test
+  public void testResultsOfTrainedAgentSumToOne() {
+    RandomSource random = new SplittableRandomSource(3);
+
+    for (GameType type : new GameType[] {GameType.NIM,
+                                         GameType.TIC_TAC_TOE_NORMAL,
+                                         GameType.TIC_TAC_TOE_LIMITED_ACTIONS}) {
+      MonteCarloAgent agent = new MonteCarloAgent(
+          0.1, false /* debug */, Storage.TABULAR, random.split());
+      RandomAgent randAgent = new RandomAgent(random.split());
+
+      for (int i = 0 ; i < 1000 ; i++) {
+        ExperimentHelper.newGame(type, agent, randAgent, random).play();
+      }
+
+      double[] results = new ExactEvaluator(type, agent).evaluate();
+      assertEquals(1.0, results[WIN] + results[LOSS] + results[DRAW], DELTA);
+    }
+  }
+
+  @Test
+  public void testTrainedAgentBeatsRandomAgent() {
+    RandomSource random = new SplittableRandomSource(3);
+    MonteCarloAgent agent = new MonteCarloAgent(
+        0.1, false /* debug */, Storage.TABULAR_GREEDY, random.split());
+    RandomAgent randAgent = new RandomAgent(random.split());
+
+    for (int i = 0 ; i < 5000 ; i++) {
+      ExperimentHelper.newGame(GameType.NIM, agent, randAgent, random).play();
+    }
+
+    double[] results = new ExactEvaluator(GameType.NIM, agent).evaluate();
+    assertEquals(0.0, results[DRAW], DELTA);
+    assertTrue(results[WIN] > results[LOSS]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExploringStartsAreRejected() {
+    new ExactEvaluator(GameType.NIM_ES, new MonteCarloAgent(0.1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExploringStartsWithSymmetricEqualityAreRejected() {
+    new ExactEvaluator(GameType.NIM_ES_SYMMETRIC_EQUALITY,
+                       new MonteCarloAgent(0.1));
+  }
+}
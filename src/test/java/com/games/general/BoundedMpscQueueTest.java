@@ -0,0 +1,91 @@
+package com.games.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BoundedMpscQueueTest {
+
+  @Test
+  public void testCapacityIsRoundedUpToPowerOfTwo() {
+    assertEquals(1, new BoundedMpscQueue<Integer>(1).capacity());
+    assertEquals(8, new BoundedMpscQueue<Integer>(5).capacity());
+    assertEquals(8, new BoundedMpscQueue<Integer>(8).capacity());
+  }
+
+  @Test
+  public void testElementsAreTakenInOrderUntilEmpty() {
+    BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(4);
+    assertNull(queue.poll());
+
+    // Go round the ring more than once
+    for (int lap = 0 ; lap < 3 ; lap++) {
+      for (int i = 0 ; i < 4 ; i++) {
+        assertTrue(queue.offer(i));
+      }
+
+      assertFalse(queue.offer(4));
+
+      for (int i = 0 ; i < 4 ; i++) {
+        assertEquals(Integer.valueOf(i), queue.poll());
+      }
+
+      assertNull(queue.poll());
+    }
+  }
+
+  @Test
+  public void testEveryElementOfEveryProducerIsTakenOnce()
+      throws InterruptedException {
+    int numProducers = 4;
+    int elementsPerProducer = 10 * 1000;
+    BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(16);
+    List<Thread> producers = new ArrayList<>();
+
+    for (int p = 0 ; p < numProducers ; p++) {
+      int first = p * elementsPerProducer;
+      Thread producer = new Thread(() -> {
+        for (int i = 0 ; i < elementsPerProducer ; i++) {
+          queue.put(first + i);
+        }
+      });
+      producers.add(producer);
+      producer.start();
+    }
+
+    boolean[] taken = new boolean[numProducers * elementsPerProducer];
+    int[] lastTaken = new int[numProducers];
+    Arrays.fill(lastTaken, -1);
+
+    for (int n = 0 ; n < taken.length ; ) {
+      Integer e = queue.poll();
+
+      if (e == null) {
+        Thread.yield();
+        continue;
+      }
+
+      assertFalse(taken[e]);
+      taken[e] = true;
+
+      // Each producer's elements come out in the order it put them
+      int producer = e / elementsPerProducer;
+      assertTrue(e > lastTaken[producer]);
+      lastTaken[producer] = e;
+      n++;
+    }
+
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    assertNull(queue.poll());
+  }
+}
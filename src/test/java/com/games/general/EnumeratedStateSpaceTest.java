@@ -0,0 +1,42 @@
+package com.games.general;
+
+import static org.junit.Assert.assertEquals;
+
+import com.games.tictactoe.TicTacToeNormalState;
+import com.games.tictactoe.TicTacToeStateWithSymmetricEquality;
+
+import org.junit.Test;
+
+public class EnumeratedStateSpaceTest {
+
+  @Test
+  public void testSizeOfTicTacToe() {
+    // Number of positions that can be reached in a game of Tic-Tac-Toe
+    StateSpace space = new EnumeratedStateSpace(new TicTacToeNormalState());
+    assertEquals(5478, space.size());
+  }
+
+  @Test
+  public void testSizeOfTicTacToeWithSymmetricEquality() {
+    // Number of positions that can be reached, up to symmetry
+    StateSpace space =
+        new EnumeratedStateSpace(new TicTacToeStateWithSymmetricEquality());
+    assertEquals(765, space.size());
+  }
+
+  @Test
+  public void testUnrankIsInverseOfRank() {
+    StateSpace space = new EnumeratedStateSpace(new TicTacToeNormalState());
+
+    for (int rank = 0 ; rank < space.size() ; rank++) {
+      assertEquals(rank, space.rank(space.unrank(rank)));
+    }
+  }
+
+  @Test
+  public void testInitialStateHasRankZero() {
+    State initial = new TicTacToeNormalState();
+    StateSpace space = new EnumeratedStateSpace(initial);
+    assertEquals(0, space.rank(new TicTacToeNormalState()));
+  }
+}
@@ -0,0 +1,32 @@
+package com.games.general;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class GameStatsTest {
+
+  @Test
+  public void testRecordCountsEachResult() {
+    GameStats stats = new GameStats();
+    int[] winners = new int[] {1, 2, 0, 1, 1, 0};
+
+    for (int winner : winners) {
+      stats.record(winner);
+    }
+
+    assertEquals(6, stats.games());
+    assertEquals(3, stats.wins(1));
+    assertEquals(1, stats.wins(2));
+    assertEquals(2, stats.draws());
+    assertEquals(0, stats.unfinished());
+  }
+
+  @Test
+  public void testRecordCountsUnfinishedGames() {
+    GameStats stats = new GameStats();
+    stats.record(-1);
+    assertEquals(1, stats.games());
+    assertEquals(1, stats.unfinished());
+  }
+}
@@ -0,0 +1,145 @@
+package com.games.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TurnBasedGameTest {
+
+  private static final int WIN_RETURN = 1;
+  private static final int LOSS_RETURN = -1;
+  private static final int GAME_IN_PROGRESS_RETURN = 5;
+
+  /** Only action of the counting game, which adds one to the count. */
+  private static final Action ADD = mock(Action.class);
+
+  /** State of a game where the players add one in turn until three. */
+  private static final class CountState implements State {
+    final int count;
+
+    CountState(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public State applyAction(Action a) {
+      return new CountState(count + 1);
+    }
+
+    @Override
+    public List<Action> getActions() {
+      return Collections.singletonList(ADD);
+    }
+
+    @Override
+    public boolean isTerminalState() {
+      return count == 3;
+    }
+
+    @Override
+    public void print() {
+      System.out.println(count);
+    }
+  }
+
+  /** Rules of the counting game, where whoever reaches three wins. */
+  private static final class CountRules implements GameRules<CountState> {
+    final boolean exploringStarts;
+
+    CountRules(boolean exploringStarts) {
+      this.exploringStarts = exploringStarts;
+    }
+
+    @Override
+    public CountState initialState(RandomSource random) {
+      return new CountState(0);
+    }
+
+    @Override
+    public boolean hasExploringStarts() {
+      return exploringStarts;
+    }
+
+    @Override
+    public int outcome(CountState state, Action action, Action previous) {
+      if (!state.isTerminalState()) {
+        return GAME_NOT_OVER;
+      }
+
+      // The first player makes the odd moves
+      return state.count % 2 == 1 ? FIRST_PLAYER_WON : SECOND_PLAYER_WON;
+    }
+
+    @Override
+    public int finalReturn(int outcome, int player) {
+      return outcome == player ? WIN_RETURN : LOSS_RETURN;
+    }
+
+    @Override
+    public int gameInProgressReturn() {
+      return GAME_IN_PROGRESS_RETURN;
+    }
+  }
+
+  private Agent mockAgent1 = mockAgent();
+  private Agent mockAgent2 = mockAgent();
+
+  @Test
+  public void testFirstAgentWins() {
+    assertEquals(1, newGame(0 /* no swap */, false).play());
+  }
+
+  @Test
+  public void testWinnerIsGivenInOrderOfConstructorWhenSwapped() {
+    assertEquals(2, newGame(1 /* swap */, false).play());
+  }
+
+  @Test
+  public void testReturns() {
+    newGame(0 /* no swap */, false).play();
+
+    // The first agent moves again after the second agent's move, which does
+    // not end the game, and the second agent's only move is followed by the
+    // end of the game
+    verify(mockAgent1, times(1)).receiveReturn(GAME_IN_PROGRESS_RETURN);
+    verify(mockAgent1).receiveReturn(WIN_RETURN);
+    verify(mockAgent1).gameOver();
+    verify(mockAgent2, never()).receiveReturn(GAME_IN_PROGRESS_RETURN);
+    verify(mockAgent2).receiveReturn(LOSS_RETURN);
+    verify(mockAgent2).gameOver();
+  }
+
+  @Test
+  public void testOnlyFirstActionIsForcedWithExploringStarts() {
+    newGame(0 /* no swap */, true /* with exploring starts */).play();
+    verify(mockAgent1, times(1)).chooseActionES(any(State.class), any());
+    verify(mockAgent1, times(1)).chooseAction(any(State.class));
+    verify(mockAgent2, never()).chooseActionES(any(State.class), any());
+  }
+
+  private TurnBasedGame<CountState> newGame(int swapAgentOrder,
+                                            boolean exploringStarts) {
+    return new TurnBasedGame<CountState>(
+        mockAgent1,
+        mockAgent2,
+        swapAgentOrder,
+        new CountRules(exploringStarts),
+        new SplittableRandomSource(0L)) {};
+  }
+
+  private static Agent mockAgent() {
+    Agent agent = mock(Agent.class);
+    when(agent.chooseAction(any(State.class))).thenReturn(ADD);
+    when(agent.chooseActionES(any(State.class), any())).thenReturn(ADD);
+    return agent;
+  }
+}
@@ -0,0 +1,134 @@
+package com.games.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.games.agents.MonteCarloAgent;
+import com.games.agents.MonteCarloESAgent;
+import com.games.agents.RandomAgent;
+import com.games.agents.Storage;
+import com.games.nim.NimConfig;
+import com.games.nim.NimGameES;
+import com.games.nim.NimRules;
+import com.games.nim.NimState;
+import com.games.tictactoe.TicTacToeNormalGame;
+import com.games.tictactoe.TicTacToeNormalState;
+import com.games.tictactoe.TicTacToeRules;
+import com.games.tictactoe.TicTacToeState;
+
+import org.junit.Test;
+
+public class VectorizedGameTest {
+
+  private static final double EPSILON = 0.1;
+  private static final long SEED = 42L;
+  private static final int NUM_GAMES = 2000;
+
+  @Test
+  public void testSingleSlotMatchesTurnBasedGame() {
+    for (Storage storage : Storage.values()) {
+      RandomSource random = new SplittableRandomSource(SEED);
+      MonteCarloAgent mcAgent =
+          new MonteCarloAgent(EPSILON, false, storage, random.split());
+      Agent randAgent = new RandomAgent(random.split());
+      Game game = new TicTacToeNormalGame(mcAgent, randAgent, random);
+      GameStats stats = new GameStats();
+      game.playMany(NUM_GAMES, stats);
+
+      RandomSource vRandom = new SplittableRandomSource(SEED);
+      MonteCarloAgent vAgent =
+          new MonteCarloAgent(EPSILON, false, storage, vRandom.split());
+      VectorizedGame<TicTacToeState> vGame = new VectorizedGame<>(
+          vAgent,
+          new RandomAgent(vRandom.split()),
+          new TicTacToeRules(TicTacToeNormalState.initialState()),
+          1,
+          vRandom);
+      GameStats vStats = new GameStats();
+      vGame.playMany(NUM_GAMES, vStats);
+
+      assertStatsEqual(stats, vStats);
+      assertEquals(mcAgent.getPolicySize(), vAgent.getPolicySize());
+    }
+  }
+
+  @Test
+  public void testSingleSlotMatchesTurnBasedGameWithExploringStarts() {
+    RandomSource random = new SplittableRandomSource(SEED);
+    MonteCarloESAgent esAgent =
+        new MonteCarloESAgent(false, Storage.TABULAR, random.split());
+    Game game = new NimGameES(esAgent, new RandomAgent(random.split()), random);
+    GameStats stats = new GameStats();
+    game.playMany(NUM_GAMES, stats);
+
+    RandomSource vRandom = new SplittableRandomSource(SEED);
+    MonteCarloESAgent vAgent =
+        new MonteCarloESAgent(false, Storage.TABULAR, vRandom.split());
+    VectorizedGame<NimState> vGame = new VectorizedGame<>(
+        vAgent,
+        new RandomAgent(vRandom.split()),
+        new NimRules(NimConfig.DEFAULT,
+                     true /* with exploring starts */,
+                     false /* without symmetric equality */),
+        1,
+        vRandom);
+    GameStats vStats = new GameStats();
+    vGame.playMany(NUM_GAMES, vStats);
+
+    assertStatsEqual(stats, vStats);
+    assertEquals(esAgent.getPolicySize(), vAgent.getPolicySize());
+  }
+
+  @Test
+  public void testManySlotsPlayGivenNumberOfGames() {
+    RandomSource random = new SplittableRandomSource(SEED);
+    MonteCarloAgent mcAgent = spy(new MonteCarloAgent(
+        EPSILON, false, Storage.TABULAR_GREEDY, random.split()));
+    VectorizedGame<TicTacToeState> game = new VectorizedGame<>(
+        mcAgent,
+        new RandomAgent(random.split()),
+        new TicTacToeRules(TicTacToeNormalState.initialState()),
+        16,
+        random);
+    GameStats stats = new GameStats();
+    game.playMany(NUM_GAMES + 5, stats);
+
+    assertEquals(NUM_GAMES + 5, stats.games());
+    assertEquals(0, stats.unfinished());
+    assertTrue(mcAgent.getPolicySize() > 0);
+
+    // Actions are only chosen in batches, and each game is replayed once
+    verify(mcAgent, atLeastOnce()).chooseActions(any(), any(), anyInt());
+    verify(mcAgent, never()).chooseAction(any());
+    verify(mcAgent, never()).chooseActionES(any(), any());
+    verify(mcAgent, times(NUM_GAMES + 5)).initializeBeforeNewGame();
+    verify(mcAgent, times(NUM_GAMES + 5)).gameOver();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoSlots() {
+    new VectorizedGame<>(
+        new RandomAgent(),
+        new RandomAgent(),
+        new TicTacToeRules(TicTacToeNormalState.initialState()),
+        0 /* slots */,
+        SplittableRandomSource.PER_THREAD);
+  }
+
+
+  // PRIVATE HELPER METHODS
+
+  private static void assertStatsEqual(GameStats expected, GameStats actual) {
+    assertEquals(expected.games(), actual.games());
+    assertEquals(expected.wins(1), actual.wins(1));
+    assertEquals(expected.wins(2), actual.wins(2));
+    assertEquals(expected.draws(), actual.draws());
+  }
+}
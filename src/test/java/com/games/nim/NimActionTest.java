@@ -1,9 +1,15 @@
 package com.games.nim;
 
+import static com.games.nim.NimHelper.MAX_TOKENS_PER_PILE;
+import static com.games.nim.NimHelper.NUM_PILES;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 public class NimActionTest {
@@ -28,4 +34,69 @@ public class NimActionTest {
     NimAction action2 = new NimAction(1, 5);
     assertThat(action1, not(equalTo(action2)));
   }
+
+  @Test
+  public void testSharedInstanceEquality() {
+    assertThat(NimAction.of(1, 5), equalTo(new NimAction(1, 5)));
+  }
+
+  @Test
+  public void testIdsAreUnique() {
+    Set<Integer> ids = new HashSet<>();
+
+    for (int pile = 0 ; pile < NUM_PILES ; pile++) {
+      for (int n = 1 ; n <= MAX_TOKENS_PER_PILE ; n++) {
+        ids.add(NimAction.of(pile, n).hashCode());
+      }
+    }
+
+    assertThat(ids.size(), equalTo(NUM_PILES * MAX_TOKENS_PER_PILE));
+  }
+
+  @Test
+  public void testIdsAreUniqueForLargerConfig() {
+    NimConfig config = new NimConfig(12, 150);
+    Set<Integer> ids = new HashSet<>();
+
+    for (int pile = 0 ; pile < config.numPiles ; pile++) {
+      for (int n = 1 ; n <= config.maxTokensPerPile ; n++) {
+        ids.add(config.action(pile, n).hashCode());
+      }
+    }
+
+    assertThat(ids.size(),
+               equalTo(config.numPiles * config.maxTokensPerPile));
+  }
+
+  @Test
+  public void testIdsAreUniqueUpToLimit() {
+    int max = NimAction.MAX_UNIQUE_ID_ARGUMENT;
+    Set<Integer> ids = new HashSet<>();
+    ids.add(new NimAction(max, max).id);
+    ids.add(new NimAction(max, max + 1).id);
+    ids.add(new NimAction(max - 1, max + 1).id);
+    ids.add(new NimAction(max, max - 1).id);
+    assertThat(ids.size(), equalTo(4));
+
+    // The largest ID still fits in an int
+    assertThat(new NimAction(max, max + 1).id,
+               equalTo((max + 1) * (max + 1) - 1));
+  }
+
+  @Test
+  public void testSharedInstancesOfLargerConfig() {
+    NimConfig config = new NimConfig(12, 150);
+    assertSame(config.action(11, 150), config.action(11, 150));
+    assertThat(config.action(11, 150), equalTo(new NimAction(11, 150)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePileIsRejected() {
+    NimAction.of(-1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoTokensIsRejected() {
+    NimAction.of(0, 0);
+  }
 }
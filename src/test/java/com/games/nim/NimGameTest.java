@@ -10,6 +10,8 @@ import static org.junit.Assert.assertThat;
 
 import com.games.nim.NimHelper.Player;
 import com.games.general.Agent;
+import com.games.general.RandomSource;
+import com.games.general.SplittableRandomSource;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -60,15 +62,15 @@ public class NimGameTest {
   @Test
   public void testAgentsNotSwappedInConstructor() {
     NimGame game = new NimGame(mockAgent1, mockAgent2, 0 /* no swap */);
-    assertThat(game.agent1, equalTo(mockAgent1));
-    assertThat(game.agent2, equalTo(mockAgent2));
+    assertThat(game.getAgent(1), equalTo(mockAgent1));
+    assertThat(game.getAgent(2), equalTo(mockAgent2));
   }
 
   @Test
   public void testAgentsSwappedInConstructor() {
     NimGame game = new NimGame(mockAgent1, mockAgent2, 1 /* swap */);
-    assertThat(game.agent1, equalTo(mockAgent2));
-    assertThat(game.agent2, equalTo(mockAgent1));
+    assertThat(game.getAgent(1), equalTo(mockAgent2));
+    assertThat(game.getAgent(2), equalTo(mockAgent1));
   }
 
   @Test
@@ -85,4 +87,32 @@ public class NimGameTest {
     verify(mockAgent1).receiveReturn(expectedAgent1Return);
     verify(mockAgent2).receiveReturn(expectedAgent2Return);
   }
+
+  @Test
+  public void testResetChoosesFirstAgentLikeNewGame() {
+    RandomSource random = new SplittableRandomSource(1L);
+    RandomSource sameRandom = new SplittableRandomSource(1L);
+    NimGame game = new NimGame(mockAgent1, mockAgent2, random);
+
+    for (int i = 0 ; i < 20 ; i++) {
+      NimGame newGame = new NimGame(mockAgent1, mockAgent2, sameRandom);
+      assertThat(game.getAgent(1), equalTo(newGame.getAgent(1)));
+      assertThat(game.getAgent(2), equalTo(newGame.getAgent(2)));
+      game.reset();
+    }
+  }
+
+  @Test
+  public void testResetDrawsInitialStateLikeNewGame() {
+    RandomSource random = new SplittableRandomSource(1L);
+    RandomSource sameRandom = new SplittableRandomSource(1L);
+    NimGameES game = new NimGameES(mockAgent1, mockAgent2, random);
+
+    for (int i = 0 ; i < 20 ; i++) {
+      NimGameES newGame = new NimGameES(mockAgent1, mockAgent2, sameRandom);
+      assertThat(game.getAgent(1), equalTo(newGame.getAgent(1)));
+      assertThat(game.getInitialState(), equalTo(newGame.getInitialState()));
+      game.reset();
+    }
+  }
 }
@@ -0,0 +1,51 @@
+package com.games.nim;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import com.games.general.State;
+import com.games.nim.NimHelper.Player;
+
+import org.junit.Test;
+
+public class NimStateSpaceTest {
+
+  @Test
+  public void testSizeCountsEveryPileSizeForEitherPlayer() {
+    NimStateSpace space = new NimStateSpace(new NimConfig(3, 7));
+    assertEquals(2 * 8 * 8 * 8, space.size());
+  }
+
+  @Test
+  public void testUnrankIsInverseOfRank() {
+    NimStateSpace space = new NimStateSpace(NimConfig.DEFAULT);
+
+    for (int rank = 0 ; rank < space.size() ; rank++) {
+      State s = space.unrank(rank);
+      assertEquals(rank, space.rank(s));
+    }
+  }
+
+  @Test
+  public void testRankOfStateWithTooManyTokensInAPile() {
+    NimStateSpace space = new NimStateSpace(new NimConfig(3, 7));
+    assertEquals(-1, space.rank(new NimState(Player.X, 8, 0, 0)));
+  }
+
+  @Test
+  public void testRankOfStateReachedByPlayingGame() {
+    NimStateSpace space = new NimStateSpace(NimConfig.DEFAULT);
+    State s = new NimState();
+
+    while (!s.isTerminalState()) {
+      s = s.applyAction(s.getActions().get(s.getActions().size() - 1));
+      assertThat(space.unrank(space.rank(s)), equalTo(s));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyStatesToRank() {
+    new NimStateSpace(new NimConfig(12, 150));
+  }
+}
@@ -5,14 +5,18 @@ import static com.games.nim.NimHelper.MAX_TOKENS_PER_PILE;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import com.games.general.Action;
+import com.games.general.SplittableRandomSource;
 import com.games.nim.NimHelper.Player;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Test;
@@ -111,4 +115,113 @@ public class NimStateTest {
     Set<Action> actualActions = new HashSet<>(state.getActions());
     assertThat(actualActions, equalTo(expectedActions));
   }
+
+  @Test
+  public void testIncrementalHashCodeMatchesDirectConstruction() {
+    NimState state = (NimState) new NimState().applyAction(new NimAction(1, 3));
+    NimState expected = new NimState(Player.O, 7, 4, 7);
+    assertThat(state, equalTo(expected));
+    assertThat(state.hashCode(), equalTo(expected.hashCode()));
+  }
+
+  @Test
+  public void testHashCodeDependsOnNextTurn() {
+    NimState state1 = new NimState(Player.X, 1, 2, 3);
+    NimState state2 = new NimState(Player.O, 1, 2, 3);
+    assertThat(state1.hashCode(), not(equalTo(state2.hashCode())));
+  }
+
+  @Test
+  public void testActionsOfLargeGame() {
+    NimConfig config = new NimConfig(12, 150);  // does not fit in a long
+    NimState state = new NimState(config);
+
+    assertThat(state.getActions().size(), equalTo(12 * 150));
+    assertThat(state.getActions().get(0),
+               equalTo((Action) new NimAction(0, 1)));
+    assertThat(state.getActions().get(12 * 150 - 1),
+               equalTo((Action) new NimAction(11, 150)));
+  }
+
+  @Test
+  public void testIndexOfActionMatchesGet() {
+    NimState state = new NimState(Player.X, 2, 0, 3, 1);
+    List<Action> actions = state.getActions();
+
+    for (int i = 0 ; i < actions.size() ; i++) {
+      assertThat(actions.indexOf(actions.get(i)), equalTo(i));
+    }
+
+    assertThat(actions.indexOf(new NimAction(1, 1)), equalTo(-1));
+    assertThat(actions.indexOf(new NimAction(3, 2)), equalTo(-1));
+  }
+
+  @Test
+  public void testIncrementalHashCodeMatchesDirectConstructionInLargeGame() {
+    NimConfig config = new NimConfig(12, 150);
+    int[] piles = new int[12];
+    Arrays.fill(piles, 150);
+    piles[5] = 42;
+
+    NimState state =
+        (NimState) new NimState(config).applyAction(new NimAction(5, 108));
+    NimState expected = new NimState(config, Player.O, piles);
+    assertThat(state, equalTo(expected));
+    assertThat(state.hashCode(), equalTo(expected.hashCode()));
+  }
+
+  @Test
+  public void testPackedAndUnpackedStatesWithSamePilesAreEqual() {
+    NimState packed =
+        new NimState(new NimConfig(3, 7), Player.X, new int[] {1, 2, 3});
+    NimState unpacked =
+        new NimState(new NimConfig(3, 1 << 30), Player.X, new int[] {1, 2, 3});
+    assertThat(packed, equalTo(unpacked));
+  }
+
+  @Test
+  public void testStatesReachedInDifferentOrdersAreSameInstance() {
+    NimState initial = NimState.initialState(NimConfig.DEFAULT);
+
+    Object state1 = initial
+        .applyAction(new NimAction(0, 1))
+        .applyAction(new NimAction(1, 2));
+    Object state2 = initial
+        .applyAction(new NimAction(1, 2))
+        .applyAction(new NimAction(0, 1));
+    assertSame(state1, state2);
+  }
+
+  @Test
+  public void testStatesOfLargeGameAreNotInterned() {
+    NimState initial = NimState.initialState(new NimConfig(12, 150));
+    Action a = new NimAction(0, 1);
+    assertNotSame(initial.applyAction(a), initial.applyAction(a));
+    assertThat(initial.applyAction(a), equalTo(initial.applyAction(a)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConfigWithoutPilesIsRejected() {
+    new NimConfig(0, 7);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConfigWithoutTokensIsRejected() {
+    new NimConfig(3, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExploringStartsWithOnePileIsRejected() {
+    new NimState(new NimConfig(1, 7),
+                 true /* with exploring starts */,
+                 SplittableRandomSource.PER_THREAD);
+  }
+
+  @Test
+  public void testExploringStartsWithTwoPilesOfOneToken() {
+    NimState state = new NimState(new NimConfig(2, 1),
+                                  true /* with exploring starts */,
+                                  SplittableRandomSource.PER_THREAD);
+    assertThat(state.getActions().size(), equalTo(2));
+  }
 }
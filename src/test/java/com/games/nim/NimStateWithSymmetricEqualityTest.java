@@ -0,0 +1,73 @@
+package com.games.nim;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.games.general.SplittableRandomSource;
+import com.games.general.State;
+import com.games.nim.NimHelper.Player;
+
+import org.junit.Test;
+
+public class NimStateWithSymmetricEqualityTest {
+
+  @Test
+  public void testPermutedPilesAreEqual() {
+    NimStateWithSymmetricEquality state1 = new NimStateWithSymmetricEquality(
+        new NimState(Player.X, 7, 3, 0));
+    NimStateWithSymmetricEquality state2 = new NimStateWithSymmetricEquality(
+        new NimState(Player.X, 0, 3, 7));
+
+    assertThat(state1, equalTo(state2));
+    assertThat(state1.hashCode(), equalTo(state2.hashCode()));
+    assertThat(state1.getActions(), equalTo(state2.getActions()));
+  }
+
+  @Test
+  public void testInequalityWithDifferentPiles() {
+    NimStateWithSymmetricEquality state1 = new NimStateWithSymmetricEquality(
+        new NimState(Player.X, 7, 3, 0));
+    NimStateWithSymmetricEquality state2 = new NimStateWithSymmetricEquality(
+        new NimState(Player.X, 7, 2, 1));
+
+    assertThat(state1, not(equalTo(state2)));
+  }
+
+  @Test
+  public void testInequalityWithSamePilesAndDifferentNextTurn() {
+    NimStateWithSymmetricEquality state1 = new NimStateWithSymmetricEquality(
+        new NimState(Player.X, 7, 3, 0));
+    NimStateWithSymmetricEquality state2 = new NimStateWithSymmetricEquality(
+        new NimState(Player.O, 0, 3, 7));
+
+    assertThat(state1, not(equalTo(state2)));
+  }
+
+  @Test
+  public void testAppliedActionSortsPiles() {
+    State state = new NimStateWithSymmetricEquality();
+
+    // Taking 4 tokens from any full pile gives the same state
+    State next1 = state.applyAction(NimAction.of(0, 4));
+    State next2 = state.applyAction(NimAction.of(2, 4));
+
+    assertTrue(next1 instanceof NimStateWithSymmetricEquality);
+    assertThat(next1, equalTo(next2));
+    assertThat(next1, equalTo((State) new NimStateWithSymmetricEquality(
+        new NimState(Player.O, 3, 7, 7))));
+    assertThat(next1, not(equalTo((State) new NimState(Player.O, 3, 7, 7))));
+  }
+
+  @Test
+  public void testExploringStartsPilesAreSorted() {
+    NimStateWithSymmetricEquality state = new NimStateWithSymmetricEquality(
+        new NimState(true /* with exploring starts */,
+                     new SplittableRandomSource(1)));
+
+    for (int i = 1 ; i < NimConfig.DEFAULT.numPiles ; i++) {
+      assertTrue(state.pile(i - 1) <= state.pile(i));
+    }
+  }
+}
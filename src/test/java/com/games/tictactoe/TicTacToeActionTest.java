@@ -0,0 +1,66 @@
+package com.games.tictactoe;
+
+import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import com.games.tictactoe.TicTacToeHelper.TokenType;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TicTacToeActionTest {
+
+  @Test
+  public void testEquality() {
+    TicTacToeAction action1 = new TicTacToeAction(3, TokenType.X);
+    TicTacToeAction action2 = new TicTacToeAction(3, TokenType.X);
+    assertThat(action1, equalTo(action2));
+  }
+
+  @Test
+  public void testDifferentTokenTypeInequality() {
+    TicTacToeAction action1 = new TicTacToeAction(3, TokenType.X);
+    TicTacToeAction action2 = new TicTacToeAction(3, TokenType.O);
+    assertThat(action1, not(equalTo(action2)));
+  }
+
+  @Test
+  public void testSharedInstanceEquality() {
+    assertSame(TicTacToeAction.of(3, TokenType.O),
+               TicTacToeAction.of(3, TokenType.O));
+    assertThat(TicTacToeAction.of(3, TokenType.O),
+               equalTo(new TicTacToeAction(3, TokenType.O)));
+  }
+
+  @Test
+  public void testIdsAreUniqueAndInRange() {
+    Set<Integer> ids = new HashSet<>();
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      ids.add(TicTacToeAction.of(i, TokenType.X).id);
+      ids.add(TicTacToeAction.of(i, TokenType.O).id);
+    }
+
+    assertThat(ids.size(), equalTo(TicTacToeAction.NUM_IDS));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoneTokenTypeIsRejected() {
+    new TicTacToeAction(3, TokenType.NONE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoneTokenTypeIsRejectedBySharedInstances() {
+    TicTacToeAction.of(3, TokenType.NONE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIndexOffBoardIsRejected() {
+    new TicTacToeAction(GRID_SIZE, TokenType.X);
+  }
+}
@@ -1,12 +1,15 @@
 package com.games.tictactoe;
 
 import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
+import static com.games.tictactoe.TicTacToeHelper.O_SHIFT;
+import static com.games.tictactoe.TicTacToeHelper.SYMMETRIES;
 import static com.games.tictactoe.TicTacToeHelper.flipGridVertically;
 import static com.games.tictactoe.TicTacToeHelper.flipGridHorizontally;
 import static com.games.tictactoe.TicTacToeHelper.flipGridAlongMajorDiagonal;
 import static com.games.tictactoe.TicTacToeHelper.flipGridAlongMinorDiagonal;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 
@@ -112,4 +115,102 @@ public class TicTacToeHelperTest {
     assertThat(flipGridAlongMinorDiagonal(originalGrid),
                equalTo(gridFlippedAlongMinorDiagonal));
   }
+
+  @Test
+  public void testTransformMatchesGridFlips() {
+    List<TokenType> g = originalGrid;
+    List<List<TokenType>> symmetricalGrids = Arrays.asList(
+        g,
+        flipGridVertically(g),
+        flipGridHorizontally(g),
+        flipGridHorizontally(flipGridVertically(g)),
+        flipGridAlongMajorDiagonal(g),
+        flipGridHorizontally(flipGridAlongMajorDiagonal(g)),
+        flipGridAlongMinorDiagonal(g),
+        flipGridHorizontally(flipGridAlongMinorDiagonal(g)));
+    int board = TicTacToeHelper.pack(g);
+
+    for (int s = 0 ; s < TicTacToeHelper.SYMMETRIES.length ; s++) {
+      int transformed =
+          TicTacToeHelper.transform(board, TicTacToeHelper.SYMMETRIES[s]);
+      assertThat(TicTacToeHelper.unpack(transformed),
+                 equalTo(symmetricalGrids.get(s)));
+    }
+  }
+
+  @Test
+  public void testCanonicalBoardIsSameForSymmetricalBoards() {
+    int board = TicTacToeHelper.pack(originalGrid);
+    int canonical = TicTacToeHelper.canonicalBoard(board);
+
+    for (int[] permutation : TicTacToeHelper.SYMMETRIES) {
+      int transformed = TicTacToeHelper.transform(board, permutation);
+      assertThat(TicTacToeHelper.canonicalBoard(transformed),
+                 equalTo(canonical));
+      assertThat(canonical <= transformed, equalTo(true));
+    }
+  }
+
+  @Test
+  public void testPackAndUnpackRoundTrip() {
+    int board = TicTacToeHelper.pack(originalGrid);
+    assertThat(TicTacToeHelper.unpack(board), equalTo(originalGrid));
+  }
+
+  @Test
+  public void testPackedBoardOccupancy() {
+    int board = TicTacToeHelper.pack(originalGrid);
+    assertThat(board, equalTo((1 << 1) | (1 << 6) | (1 << (3 + O_SHIFT))));
+  }
+
+  @Test
+  public void testHasLine() {
+    assertThat(TicTacToeHelper.hasLine(0b100010001), equalTo(true));
+    assertThat(TicTacToeHelper.hasLine(0b011010001), equalTo(false));
+  }
+
+  @Test
+  public void testLinesThrough() {
+    // Corners are on three lines, edges on two and the centre on four
+    int[] expectedCounts = new int[] {3, 2, 3, 2, 4, 2, 3, 2, 3};
+
+    for (int i = 0 ; i < GRID_SIZE ; i++) {
+      int[] lines = TicTacToeHelper.LINES_THROUGH[i];
+      assertThat(lines.length, equalTo(expectedCounts[i]));
+
+      for (int line : lines) {
+        assertTrue((line & (1 << i)) != 0);
+      }
+    }
+  }
+
+  @Test
+  public void testHasLineThrough() {
+    assertThat(TicTacToeHelper.hasLineThrough(0b100010001, 4), equalTo(true));
+    assertThat(TicTacToeHelper.hasLineThrough(0b100010001, 8), equalTo(true));
+    assertThat(TicTacToeHelper.hasLineThrough(0b100010001, 1), equalTo(false));
+    assertThat(TicTacToeHelper.hasLineThrough(0b011010001, 4), equalTo(false));
+  }
+
+  @Test
+  public void testCanonicalSymmetryGivesCanonicalBoard() {
+    int board = TicTacToeHelper.pack(originalGrid);
+    int[] symmetry = SYMMETRIES[TicTacToeHelper.canonicalSymmetry(board)];
+
+    assertThat(TicTacToeHelper.transform(board, symmetry),
+               equalTo(TicTacToeHelper.canonicalBoard(board)));
+  }
+
+  @Test
+  public void testTransformIndexFollowsToken() {
+    for (int[] symmetry : SYMMETRIES) {
+      for (int i = 0 ; i < GRID_SIZE ; i++) {
+        int board = TicTacToeHelper.bit(i, TokenType.X);
+        int transformed = TicTacToeHelper.transform(board, symmetry);
+        int index = TicTacToeHelper.transformIndex(i, symmetry);
+        assertThat(transformed,
+                   equalTo(TicTacToeHelper.bit(index, TokenType.X)));
+      }
+    }
+  }
 }
@@ -89,16 +89,16 @@ public class TicTacToeNormalGameTest {
   public void testAgentsNotSwappedInConstructor() {
     TicTacToeNormalGame game =
         new TicTacToeNormalGame(mockAgent1, mockAgent2, 0 /* no swap */);
-    assertThat(game.agent1, equalTo(mockAgent1));
-    assertThat(game.agent2, equalTo(mockAgent2));
+    assertThat(game.getAgent(1), equalTo(mockAgent1));
+    assertThat(game.getAgent(2), equalTo(mockAgent2));
   }
 
   @Test
   public void testAgentsSwappedInConstructor() {
     TicTacToeNormalGame game =
         new TicTacToeNormalGame(mockAgent1, mockAgent2, 1 /* swap */);
-    assertThat(game.agent1, equalTo(mockAgent2));
-    assertThat(game.agent2, equalTo(mockAgent1));
+    assertThat(game.getAgent(1), equalTo(mockAgent2));
+    assertThat(game.getAgent(2), equalTo(mockAgent1));
   }
 
   @Test
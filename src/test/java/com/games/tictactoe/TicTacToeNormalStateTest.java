@@ -4,17 +4,22 @@ import static com.games.tictactoe.TicTacToeHelper.GRID_SIZE;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import com.games.general.Action;
 import com.games.tictactoe.TicTacToeHelper.Player;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
+import com.games.tictactoe.TicTacToeHelper.Winner;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Test;
@@ -54,6 +59,36 @@ public class TicTacToeNormalStateTest {
     assertThat(state1, not(equalTo(state2)));
   }
 
+  @Test
+  public void testEqualityComputesNeitherActionsNorWinner() {
+    List<TokenType> grid = Arrays.asList(new TokenType[] {
+        TokenType.X,    TokenType.X,    TokenType.X,
+        TokenType.O,    TokenType.O,    TokenType.NONE,
+        TokenType.NONE, TokenType.NONE, TokenType.NONE
+      });
+    TicTacToeNormalState state1 = new TicTacToeNormalState(grid, Player.O);
+    TicTacToeNormalState state2 = new TicTacToeNormalState(grid, Player.O);
+
+    assertThat(state1, equalTo(state2));
+    assertNull(state1.actions);
+    assertNull(state2.actions);
+    assertNull(state1.winner);
+    assertNull(state2.winner);
+  }
+
+  @Test
+  public void testInequalityWithDifferentVariants() {
+    // Both variants have no actions at a full grid
+    List<TokenType> grid = Arrays.asList(new TokenType[] {
+        TokenType.X, TokenType.O, TokenType.X,
+        TokenType.X, TokenType.O, TokenType.O,
+        TokenType.O, TokenType.X, TokenType.X
+      });
+    assertThat(new TicTacToeNormalState(grid, Player.O),
+               not(equalTo(new TicTacToeStateWithLimitedActions(grid,
+                                                                Player.O))));
+  }
+
   @Test
 	public void testHashCodeEquality() {
 	  TicTacToeNormalState state1 = new TicTacToeNormalState();
@@ -235,4 +270,47 @@ public class TicTacToeNormalStateTest {
 
     assertThat(new HashSet<>(state.getActions()), equalTo(expectedActions));
   }
+
+  @Test
+  public void testStatesReachedInDifferentOrdersAreSameInstance() {
+    TicTacToeNormalState initial = TicTacToeNormalState.initialState();
+
+    Object state1 = initial
+        .applyAction(TicTacToeAction.of(0, TokenType.X))
+        .applyAction(TicTacToeAction.of(4, TokenType.O))
+        .applyAction(TicTacToeAction.of(8, TokenType.X));
+    Object state2 = initial
+        .applyAction(TicTacToeAction.of(8, TokenType.X))
+        .applyAction(TicTacToeAction.of(4, TokenType.O))
+        .applyAction(TicTacToeAction.of(0, TokenType.X));
+    assertSame(state1, state2);
+  }
+
+  @Test
+  public void testApplyingActionTwiceReturnsSameInstance() {
+    TicTacToeNormalState state = new TicTacToeNormalState();
+    Action a = TicTacToeAction.of(4, TokenType.X);
+    assertSame(state.applyAction(a), state.applyAction(a));
+  }
+
+  @Test
+  public void testActionsAndWinnerAreOnlyComputedWhenNeeded() {
+    List<TokenType> grid =
+        new ArrayList<>(Collections.nCopies(GRID_SIZE, TokenType.NONE));
+    grid.set(0, TokenType.X);
+    grid.set(1, TokenType.X);
+    grid.set(2, TokenType.X);
+    grid.set(3, TokenType.O);
+    grid.set(4, TokenType.O);
+
+    TicTacToeNormalState state = new TicTacToeNormalState(grid, Player.O);
+    assertNull(state.actions);
+    assertNull(state.winner);
+
+    assertTrue(state.isTerminalState());
+    assertThat(state.getWinner(), equalTo(Winner.X));
+    assertNull(state.actions);
+
+    assertNotNull(state.getActions());
+  }
 }
@@ -8,12 +8,17 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
+import com.games.general.Action;
+import com.games.general.State;
 import com.games.tictactoe.TicTacToeHelper.Player;
 import com.games.tictactoe.TicTacToeHelper.TokenType;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -208,4 +213,34 @@ public class TicTacToeStateWithSymmetricEqualityTest {
         new HashSet<>(originalState.getActions()),
         not(equalTo(new HashSet<>(nonSymmetricalState.getActions()))));
   }
+
+  @Test
+  public void testWinnerOfAppliedActionsMatchesDirectConstruction() {
+    // Every reachable state only checks the lines through the last move, so
+    // compare it with a state built from its grid, which checks every line
+    Set<State> seen = new HashSet<>();
+    Deque<TicTacToeState> stack = new ArrayDeque<>();
+    stack.push(TicTacToeStateWithSymmetricEquality.initialState());
+
+    while (!stack.isEmpty()) {
+      TicTacToeState state = stack.pop();
+      TicTacToeState expected = new TicTacToeStateWithSymmetricEquality(
+          TicTacToeHelper.unpack(state.board), state.nextTurn);
+      assertThat(state.getWinner(), equalTo(expected.getWinner()));
+
+      if (state.isTerminalState()) {
+        continue;
+      }
+
+      for (Action a : state.getActions()) {
+        State next = state.applyAction(a);
+
+        if (seen.add(next)) {
+          stack.push((TicTacToeState) next);
+        }
+      }
+    }
+
+    assertThat(seen.size(), equalTo(764));
+  }
 }